@@ -0,0 +1,70 @@
+package akia.spawnManager.benchmark;
+
+import akia.spawnManager.manager.CooldownEngine;
+import akia.spawnManager.manager.CooldownManager;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking and starting the {@code /spawn} cooldown, with half of the players on cooldown.
+ * The engine is not ticked: expiries are driven by the wall clock, which is what the
+ * checks on the command path rely on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CooldownBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int players;
+
+    private CooldownManager cooldownManager;
+    private Player[] onlinePlayers;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cooldownManager = new CooldownManager(new CooldownEngine(), "spawn", 3600);
+        onlinePlayers = new Player[players];
+        for (int i = 0; i < players; i++) {
+            onlinePlayers[i] = StandIns.player(UUID.randomUUID());
+            if ((i & 1) == 0) {
+                cooldownManager.startCooldown(onlinePlayers[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isOnCooldown() {
+        return cooldownManager.isOnCooldown(onlinePlayers[next()]);
+    }
+
+    @Benchmark
+    public CooldownManager startCooldown() {
+        cooldownManager.startCooldown(onlinePlayers[next()]);
+        return cooldownManager;
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 1 == players ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,112 @@
+package akia.spawnManager.benchmark;
+
+import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.manager.ChunkTicketManager;
+import akia.spawnManager.manager.LocationManager;
+import akia.spawnManager.manager.TeleportHistory;
+import akia.spawnManager.manager.TeleportQueue;
+import akia.spawnManager.metrics.Metrics;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups and registrations in the {@link LocationManager} registry, for a growing number of locations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationRegistryBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private LocationManager locationManager;
+    private String[] names;
+    private String[] upperCaseNames;
+    private LocationBuilder[] replacements;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        locationManager = newLocationManager();
+        locationManager.registerLocations(generate(size, 42L));
+        names = new String[size];
+        upperCaseNames = new String[size];
+        replacements = new LocationBuilder[size];
+        List<LocationBuilder> moved = generate(size, 7L);
+        for (int i = 0; i < size; i++) {
+            names[i] = moved.get(i).getName();
+            upperCaseNames[i] = names[i].toUpperCase(Locale.ROOT);
+            replacements[i] = moved.get(i);
+        }
+    }
+
+    @Benchmark
+    public LocationBuilder getLocation() {
+        return locationManager.getLocation(names[next()]);
+    }
+
+    @Benchmark
+    public LocationBuilder getLocationIgnoreCase() {
+        return locationManager.getLocation(upperCaseNames[next()], true);
+    }
+
+    /**
+     * Replaces an existing location, which publishes a new snapshot of the registry.
+     */
+    @Benchmark
+    public LocationManager registerLocation() {
+        locationManager.registerLocation(replacements[next()]);
+        return locationManager;
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+
+    static LocationManager newLocationManager() {
+        StandIns.installServer();
+        File dataFolder = new File(System.getProperty("java.io.tmpdir"), "spawnmanager-bench");
+        Plugin plugin = StandIns.plugin(dataFolder);
+        return new LocationManager(new TeleportQueue(new TeleportHistory(plugin)), new ChunkTicketManager(plugin),
+                new Metrics());
+    }
+
+    /**
+     * Generates locations named {@code warp0} to {@code warp<count - 1>}, spread over a
+     * 20,000 blocks wide square.
+     */
+    static List<LocationBuilder> generate(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<LocationBuilder> locations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            locations.add(new LocationBuilder("warp" + i, StandIns.WORLD_NAME, null,
+                    random.nextDouble(-10_000, 10_000), random.nextDouble(0, 256), random.nextDouble(-10_000, 10_000),
+                    (float) random.nextDouble(-180, 180), 0f));
+        }
+        return locations;
+    }
+}
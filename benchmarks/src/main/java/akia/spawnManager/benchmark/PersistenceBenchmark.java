@@ -0,0 +1,90 @@
+package akia.spawnManager.benchmark;
+
+import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.manager.LocationManager;
+import akia.spawnManager.storage.StorageFormat;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Synchronous save and load of the registry, in every storage format. Each save follows
+ * the move of a single location, as an autosave typically does: the file formats rewrite
+ * the whole file, the database only that row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    @Param({"YAML", "BINARY", "SQLITE"})
+    public StorageFormat format;
+
+    private Path dataFolder;
+    private Plugin plugin;
+    private LocationManager source;
+    private LocationBuilder moved;
+    private int moves;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataFolder = Files.createTempDirectory("spawnmanager-bench");
+        plugin = StandIns.plugin(dataFolder.toFile());
+        source = LocationRegistryBenchmark.newLocationManager();
+        source.setStorageFormat(format);
+        source.registerLocations(LocationRegistryBenchmark.generate(size, 42L));
+        source.saveLocations(plugin);
+        moved = source.getLocation("warp0");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        source.shutdownPersistence(10, TimeUnit.SECONDS);
+        try (Stream<Path> files = Files.walk(dataFolder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public LocationManager saveLocations() {
+        moves++;
+        source.registerLocation(new LocationBuilder(moved.getName(), moved.getWorldName(), null,
+                moved.getX() + (moves & 15), moved.getY(), moved.getZ(), moved.getYaw(), moved.getPitch()));
+        source.saveLocations(plugin);
+        return source;
+    }
+
+    @Benchmark
+    public LocationManager loadLocations() {
+        LocationManager target = LocationRegistryBenchmark.newLocationManager();
+        target.setStorageFormat(format);
+        target.loadLocations(plugin);
+        target.shutdownPersistence(10, TimeUnit.SECONDS);
+        return target;
+    }
+}
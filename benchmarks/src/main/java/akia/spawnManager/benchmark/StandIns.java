@@ -0,0 +1,142 @@
+package akia.spawnManager.benchmark;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Minimal stand-ins for the Bukkit types used by the benchmarked code, built with dynamic
+ * proxies so that the benchmarks run without a server. Every method that is not explicitly
+ * handled returns the default value of its return type.
+ */
+public final class StandIns {
+
+    /**
+     * The name of the only world known to the stand-in server.
+     */
+    public static final String WORLD_NAME = "world";
+
+    private static final Logger LOGGER = Logger.getLogger("SpawnManager-Benchmarks");
+    private static World world;
+
+    private StandIns() {
+    }
+
+    /**
+     * Installs a stand-in {@link Server} behind {@link Bukkit}, knowing a single world named
+     * {@value #WORLD_NAME}. Does nothing if a server is already installed.
+     */
+    public static synchronized void installServer() {
+        if (world != null) {
+            return;
+        }
+        UUID worldId = UUID.nameUUIDFromBytes(WORLD_NAME.getBytes());
+        world = proxy(World.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getName" -> WORLD_NAME;
+            case "getUID" -> worldId;
+            default -> defaultValue(method.getReturnType());
+        });
+        Server server = proxy(Server.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getWorld" -> WORLD_NAME.equals(String.valueOf(args[0])) || worldId.equals(args[0]) ? world : null;
+            case "getLogger" -> LOGGER;
+            case "getName", "getVersion", "getBukkitVersion" -> "stand-in";
+            default -> defaultValue(method.getReturnType());
+        });
+        try {
+            // Bukkit.setServer() interroge les informations de build de Paper, absentes hors serveur
+            Field field = Bukkit.class.getDeclaredField("server");
+            field.setAccessible(true);
+            field.set(null, server);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Impossible d'installer le serveur de substitution.", e);
+        }
+    }
+
+    /**
+     * @return the only world of the stand-in server
+     */
+    public static World world() {
+        installServer();
+        return world;
+    }
+
+    /**
+     * Builds a location in the stand-in world.
+     */
+    public static Location location(double x, double y, double z) {
+        return new Location(world(), x, y, z, 0f, 0f);
+    }
+
+    /**
+     * Builds a stand-in player standing at the origin, who is not an operator and holds
+     * every permission.
+     *
+     * @param uuid the unique id of the player
+     */
+    public static Player player(UUID uuid) {
+        Location location = location(0, 64, 0);
+        return proxy(Player.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getUniqueId" -> uuid;
+            case "getName" -> "bench-" + uuid.getLeastSignificantBits();
+            case "getLocation" -> location.clone();
+            case "isOnline", "hasPermission" -> true;
+            case "isOp" -> false;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    /**
+     * Builds a stand-in plugin whose data folder is the given directory.
+     */
+    public static Plugin plugin(File dataFolder) {
+        return proxy(Plugin.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getDataFolder" -> dataFolder;
+            case "getLogger" -> LOGGER;
+            case "getName" -> "SpawnManager";
+            case "isEnabled" -> true;
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StandIns.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        return type == short.class ? (Object) (short) 0 : (Object) (byte) 0;
+    }
+}
@@ -0,0 +1,59 @@
+package akia.spawnManager.benchmark;
+
+import akia.spawnManager.command.LocationNameArgument;
+import akia.spawnManager.manager.LocationManager;
+import akia.spawnManager.metrics.Metrics;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggestions of {@code /location teleport <name>} for a growing number of warps, including
+ * the hand-off to the thread computing them. The prefixes range from empty (every name
+ * matches) to a full name (a single match).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TabCompleteBenchmark {
+
+    private static final String COMMAND = "location teleport ";
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int warps;
+
+    @Param({"", "wa", "warp1", "warp12"})
+    public String prefix;
+
+    private LocationNameArgument argument;
+    private String input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocationManager locationManager = LocationRegistryBenchmark.newLocationManager();
+        locationManager.registerLocations(LocationRegistryBenchmark.generate(warps, 42L));
+        argument = LocationNameArgument.existing(locationManager, new Metrics());
+        input = COMMAND + prefix;
+    }
+
+    @Benchmark
+    public Suggestions completeLocationName() {
+        return argument.listSuggestions(null, new SuggestionsBuilder(input, COMMAND.length())).join();
+    }
+}
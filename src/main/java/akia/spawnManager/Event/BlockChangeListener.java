@@ -0,0 +1,130 @@
+package akia.spawnManager.Event;
+
+import akia.spawnManager.manager.DestinationSafety;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+
+import java.util.List;
+
+/**
+ * Reports the blocks that change to {@link DestinationSafety}, so that the verdict of a
+ * location is computed again when a block of its box is placed, broken, burnt, reached by a
+ * liquid, blown up or pushed. Every handler runs last and ignores the cancelled events, since
+ * a cancelled change leaves the blocks as they were.
+ */
+public class BlockChangeListener implements Listener {
+
+    /**
+     * The cache of the verdicts invalidated by the changes.
+     */
+    private final DestinationSafety destinationSafety;
+
+    /**
+     * Initializes a BlockChangeListener instance with the specified DestinationSafety.
+     *
+     * @param destinationSafety the cache of the verdicts on the destinations. Must not be null.
+     */
+    public BlockChangeListener(DestinationSafety destinationSafety) {
+        this.destinationSafety = destinationSafety;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        destinationSafety.blockChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        destinationSafety.blockChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        destinationSafety.blockChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockIgnite(BlockIgniteEvent event) {
+        destinationSafety.blockChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        destinationSafety.blockChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockForm(BlockFormEvent event) {
+        destinationSafety.blockChanged(event.getBlock());
+    }
+
+    /**
+     * Handles the fire spreading and the blocks growing over others, which have their own event.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockSpread(BlockSpreadEvent event) {
+        destinationSafety.blockChanged(event.getBlock());
+    }
+
+    /**
+     * Handles the lava and water flowing into a block.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        destinationSafety.blockChanged(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        blocksChanged(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        blocksChanged(event.blockList());
+    }
+
+    /**
+     * Handles the blocks pushed by a piston: both the block they leave and the one they enter
+     * change, as well as the block taken by the head of the piston.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        destinationSafety.blockChanged(event.getBlock().getRelative(event.getDirection()));
+        movedBlocksChanged(event.getBlocks(), event.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        destinationSafety.blockChanged(event.getBlock().getRelative(event.getDirection().getOppositeFace()));
+        movedBlocksChanged(event.getBlocks(), event.getDirection());
+    }
+
+    private void blocksChanged(List<Block> blocks) {
+        for (Block block : blocks) {
+            destinationSafety.blockChanged(block);
+        }
+    }
+
+    private void movedBlocksChanged(List<Block> blocks, BlockFace direction) {
+        for (Block block : blocks) {
+            destinationSafety.blockChanged(block);
+            destinationSafety.blockChanged(block.getRelative(direction));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package akia.spawnManager.Event;
+
+import akia.spawnManager.manager.TeleportHistory;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Feeds the history of {@code /back}: records where players die, for those allowed to go back
+ * there, reads the history of a joining player from disk and writes it back when the player leaves.
+ */
+public class HistoryListener implements Listener {
+
+    /**
+     * The history of the positions left by the players.
+     */
+    private final TeleportHistory history;
+
+    /**
+     * Initializes a HistoryListener instance with the specified TeleportHistory.
+     *
+     * @param history the history of the positions left by the players. Must not be null.
+     */
+    public HistoryListener(TeleportHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Starts reading the history of a joining player. Runs first, so that the read is under way
+     * before the join teleport records a position.
+     *
+     * @param event the event triggered when a player joins the server
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        history.load(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Writes the history of a player leaving the server to disk.
+     *
+     * @param event the event triggered when a player leaves the server
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        history.evict(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Records the position where a player died, if the player holds {@code spawnmanager.back.death}:
+     * going back to where one died is a privilege of its own, separate from {@code spawnmanager.back}.
+     *
+     * @param event the event triggered when a player dies
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        Player player = event.getPlayer();
+        if (player.hasPermission("spawnmanager.back.death")) {
+            history.record(player.getUniqueId(), player.getLocation());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package akia.spawnManager.Event;
+
+import akia.spawnManager.manager.PermissionCache;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Drops the cached permissions of a player whenever they may have changed: when the player
+ * joins, leaves, or changes world, since permission plugins can grant permissions per world.
+ */
+public class PermissionListener implements Listener {
+
+    /**
+     * The cache whose entries are dropped.
+     */
+    private final PermissionCache permissionCache;
+
+    /**
+     * Initializes a PermissionListener instance with the specified PermissionCache.
+     *
+     * @param permissionCache the cache of the permissions checked by the commands. Must not be null.
+     */
+    public PermissionListener(PermissionCache permissionCache) {
+        this.permissionCache = permissionCache;
+    }
+
+    /**
+     * Drops the permissions cached for a joining player. Runs first, so that the other
+     * listeners of the join see the permissions given by the permission plugins.
+     *
+     * @param event the event triggered when a player joins the server
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        permissionCache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Drops the permissions of a player leaving the server.
+     *
+     * @param event the event triggered when a player leaves the server
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        permissionCache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Drops the permissions of a player changing world, which may differ in the new world.
+     *
+     * @param event the event triggered when a player arrives in another world
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        permissionCache.invalidate(event.getPlayer().getUniqueId());
+    }
+}
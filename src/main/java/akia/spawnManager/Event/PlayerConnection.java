@@ -1,14 +1,22 @@
 package akia.spawnManager.Event;
 
-import akia.spawnManager.Main;
 import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.config.JoinRouting;
+import akia.spawnManager.config.Settings;
+import akia.spawnManager.config.SettingsHolder;
+import akia.spawnManager.manager.DestinationSafety;
 import akia.spawnManager.manager.LocationManager;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
+import akia.spawnManager.manager.PermissionCache;
+import akia.spawnManager.manager.SafeSpawnPool;
+import akia.spawnManager.manager.TeleportQueue;
+import akia.spawnManager.message.Message;
+import akia.spawnManager.message.Messages;
+import akia.spawnManager.metrics.Metrics;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
  * The PlayerConnection class is responsible for managing player connection events
@@ -35,6 +43,35 @@ public class PlayerConnection implements Listener {
      * throughout the lifecycle of the containing class.
      */
     private final LocationManager locationManager;
+    /**
+     * The queue performing the join teleports, so that a burst of joins is spread over
+     * several ticks instead of landing in a single one.
+     */
+    private final TeleportQueue teleportQueue;
+    /**
+     * The current settings of the plugin, read on every join instead of the configuration file.
+     */
+    private final SettingsHolder settings;
+    /**
+     * The metrics recording the time taken by the join teleports.
+     */
+    private final Metrics metrics;
+    /**
+     * The catalog of the messages sent to the joining players, in their language.
+     */
+    private final Messages messages;
+    /**
+     * The safe spots around the spawn, so that a join storm does not stack every player on one block.
+     */
+    private final SafeSpawnPool safeSpawnPool;
+    /**
+     * The cached verdicts on the destinations, so that a joining player is not sent into a wall or lava.
+     */
+    private final DestinationSafety destinationSafety;
+    /**
+     * The permissions of the players, checked by the join routing rules.
+     */
+    private final PermissionCache permissionCache;
 
     /**
      * Initializes a PlayerConnection instance with the specified LocationManager.
@@ -42,31 +79,80 @@ public class PlayerConnection implements Listener {
      * interaction with and management of player-related location events.
      *
      * @param locationManager the LocationManager instance used to manage locations. Must not be null.
+     * @param teleportQueue the TeleportQueue used to teleport joining players. Must not be null.
+     * @param settings the holder of the current settings. Must not be null.
+     * @param metrics the metrics recording the time taken by the join teleports. Must not be null.
+     * @param messages the catalog of the messages sent to the joining players. Must not be null.
+     * @param safeSpawnPool the pool spreading the joining players around the spawn. Must not be null.
+     * @param destinationSafety the cached verdicts on the safety of the spawn. Must not be null.
+     * @param permissionCache the permissions of the players, checked by the join routing. Must not be null.
      */
-    public PlayerConnection(LocationManager locationManager) {
+    public PlayerConnection(LocationManager locationManager, TeleportQueue teleportQueue, SettingsHolder settings,
+                            Metrics metrics, Messages messages, SafeSpawnPool safeSpawnPool,
+                            DestinationSafety destinationSafety, PermissionCache permissionCache) {
         this.locationManager = locationManager;
+        this.teleportQueue = teleportQueue;
+        this.settings = settings;
+        this.metrics = metrics;
+        this.messages = messages;
+        this.safeSpawnPool = safeSpawnPool;
+        this.destinationSafety = destinationSafety;
+        this.permissionCache = permissionCache;
     }
 
     /**
-     * Handles the event when a player joins the server. This method retrieves the spawn
-     * location defined in the plugin configuration, teleports the player to the specified
-     * location, and sends them a notification message. If no spawn location is defined,
-     * an error message is sent to the player.
+     * Handles the event when a player joins the server. This method picks the destination of the
+     * player with the join routing rules, falling back to the spawn location defined in the plugin
+     * configuration, queues the teleport of the player to it, and sends them a notification message
+     * once it is done. A rule may also leave the player where they logged out. If the destination
+     * is not defined, an error message is sent to the player.
      *
      * @param event the event triggered when a player joins the server
      */
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
-        // Récupère le nom de la location de spawn défini dans la config
-        String spawnLocationName = Main.getInstance().getConfig().getString("spawn.location", "spawn");
+        Settings current = settings.get();
+        // Les règles sont compilées au chargement de la config : seules les permissions sont vérifiées ici
+        JoinRouting.Rule rule = current.joinRouting().route(!player.hasPlayedBefore(), player.getWorld().getName(),
+                node -> permissionCache.has(player, node));
+        if (rule != null && rule.stays()) {
+            return;
+        }
+        // Sans règle applicable, la location de spawn définie dans la config
+        String spawnLocationName = rule != null ? rule.location() : current.spawnLocation();
         // Récupère la LocationBuilder associée
         LocationBuilder spawnLocation = locationManager.getLocation(spawnLocationName);
         if (spawnLocation != null) {
-            spawnLocation.teleportLocation(player);
-            player.sendMessage(Component.text("Vous avez été téléporté au spawn.", NamedTextColor.GREEN));
+            // Les points d'un spawn étalé sont vérifiés à leur découverte ; un verdict inconnu laisse passer
+            if (!safeSpawnPool.isSpread(spawnLocation.getName())
+                    && destinationSafety.check(spawnLocation) == DestinationSafety.Status.UNSAFE) {
+                messages.send(player, Message.JOIN_UNSAFE);
+                return;
+            }
+            long start = System.nanoTime();
+            // Un point sûr autour du spawn si celui-ci est étalé, le spawn lui-même sinon
+            teleportQueue.enqueue(player, safeSpawnPool.take(spawnLocation)).thenAccept(success -> {
+                metrics.joinTeleports.recordSince(start);
+                if (success) {
+                    messages.send(player, Message.JOIN_TELEPORTED);
+                } else {
+                    messages.send(player, Message.JOIN_WORLD_NOT_LOADED);
+                }
+            });
         } else {
-            player.sendMessage(Component.text("Le spawn n'est pas défini. Veuillez contacter un administrateur.", NamedTextColor.RED));
+            messages.send(player, Message.JOIN_SPAWN_UNDEFINED);
         }
     }
+
+    /**
+     * Handles the event when a player leaves the server, dropping the player's pending
+     * teleport if their turn has not come yet.
+     *
+     * @param event the event triggered when a player leaves the server
+     */
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        teleportQueue.remove(event.getPlayer().getUniqueId());
+    }
 }
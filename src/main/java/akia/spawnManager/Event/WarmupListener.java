@@ -0,0 +1,53 @@
+package akia.spawnManager.Event;
+
+import akia.spawnManager.manager.WarmupManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Cancels the teleport warmup of the players who take damage or leave the server. Movement
+ * is checked by the {@link WarmupManager} itself, once per tick.
+ */
+public class WarmupListener implements Listener {
+
+    /**
+     * The {@link WarmupManager} whose warmups are cancelled.
+     */
+    private final WarmupManager warmupManager;
+
+    /**
+     * Initializes a WarmupListener instance with the specified WarmupManager.
+     *
+     * @param warmupManager the WarmupManager holding the pending warmups. Must not be null.
+     */
+    public WarmupListener(WarmupManager warmupManager) {
+        this.warmupManager = warmupManager;
+    }
+
+    /**
+     * Cancels the warmup of a player who takes damage. Runs last so that damage cancelled
+     * by another plugin, for instance in a protected area, does not interrupt the warmup.
+     *
+     * @param event the event triggered when an entity takes damage
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDamage(EntityDamageEvent event) {
+        if (warmupManager.getPendingCount() > 0 && event.getEntity() instanceof Player player) {
+            warmupManager.cancel(player.getUniqueId(), WarmupManager.CancelReason.DAMAGED);
+        }
+    }
+
+    /**
+     * Drops the warmup of a player leaving the server.
+     *
+     * @param event the event triggered when a player leaves the server
+     */
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        warmupManager.cancel(event.getPlayer().getUniqueId(), WarmupManager.CancelReason.QUIT);
+    }
+}
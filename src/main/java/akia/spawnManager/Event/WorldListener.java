@@ -0,0 +1,51 @@
+package akia.spawnManager.Event;
+
+import akia.spawnManager.manager.LocationManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Keeps the world bindings of the registered locations in sync with the worlds loaded
+ * on the server. Locations of an unloaded world release their reference to it, and are
+ * bound again as soon as the world is loaded back.
+ */
+public class WorldListener implements Listener {
+
+    /**
+     * The {@link LocationManager} whose locations are bound and unbound.
+     */
+    private final LocationManager locationManager;
+
+    /**
+     * Initializes a WorldListener instance with the specified LocationManager.
+     *
+     * @param locationManager the LocationManager instance used to manage locations. Must not be null.
+     */
+    public WorldListener(LocationManager locationManager) {
+        this.locationManager = locationManager;
+    }
+
+    /**
+     * Binds the locations of a world that was just loaded.
+     *
+     * @param event the event triggered when a world is loaded
+     */
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        locationManager.bindWorld(event.getWorld().getName());
+    }
+
+    /**
+     * Releases the locations of a world being unloaded. Runs last so that the unload
+     * is not cancelled by another plugin afterwards.
+     *
+     * @param event the event triggered when a world is unloaded
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        locationManager.unbindWorld(event.getWorld().getName());
+    }
+}
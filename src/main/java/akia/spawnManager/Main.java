@@ -1,15 +1,53 @@
 package akia.spawnManager;
 
 import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.config.ConfigWatcher;
+import akia.spawnManager.config.Settings;
+import akia.spawnManager.config.SettingsHolder;
 import akia.spawnManager.listener.Commands;
 import akia.spawnManager.listener.Events;
+import akia.spawnManager.manager.ChunkTicketManager;
+import akia.spawnManager.manager.CooldownEngine;
+import akia.spawnManager.manager.DestinationSafety;
 import akia.spawnManager.manager.LocationManager;
+import akia.spawnManager.manager.PermissionCache;
+import akia.spawnManager.manager.SafeSpawnPool;
+import akia.spawnManager.manager.TeleportHistory;
+import akia.spawnManager.manager.TeleportQueue;
+import akia.spawnManager.manager.WarmupManager;
+import akia.spawnManager.message.Messages;
+import akia.spawnManager.metrics.Metrics;
+import akia.spawnManager.storage.AsyncFileWriter;
+import akia.spawnManager.transfer.WarpTransfers;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 public final class Main extends JavaPlugin {
 
     private static Main instance;
-    private final LocationManager locationManager = new LocationManager();
+    private final TeleportHistory teleportHistory = new TeleportHistory(this);
+    private final TeleportQueue teleportQueue = new TeleportQueue(teleportHistory);
+    private final Metrics metrics = new Metrics();
+    private final Messages messages = new Messages();
+    private final LocationManager locationManager = new LocationManager(teleportQueue, new ChunkTicketManager(this), metrics);
+    private final CooldownEngine cooldownEngine = new CooldownEngine();
+    private final WarmupManager warmupManager = new WarmupManager(this);
+    private final PermissionCache permissionCache = new PermissionCache();
+    private final DestinationSafety destinationSafety = new DestinationSafety(this, locationManager);
+    private final SafeSpawnPool safeSpawnPool = new SafeSpawnPool(this, locationManager, metrics);
+    private final WarpTransfers warpTransfers = new WarpTransfers(this, locationManager, messages);
+    private final ConfigWatcher configWatcher = new ConfigWatcher(this, this::reloadSettings);
+    private SettingsHolder settings;
+    private BukkitTask autosaveTask;
+    private BukkitTask metricsTask;
 
     /**
      * Called when the plugin is enabled. Initializes the plugin's components such as commands,
@@ -18,6 +56,17 @@ public final class Main extends JavaPlugin {
     @Override
     public void onEnable() {
         instance = this;
+        settings = new SettingsHolder(loadSettings());
+        locationManager.setStorageFormat(settings.get().storageFormat());
+        messages.load(this, settings.get().language());
+        loadCooldowns();
+        cooldownEngine.start(this);
+        teleportQueue.start(this, settings.get().teleportsPerTick());
+        teleportHistory.start(getDataFolder().toPath().resolve("history"), settings.get().backHistorySize());
+        // Après un rechargement du plugin, les joueurs déjà connectés retrouvent leur historique
+        for (Player player : getServer().getOnlinePlayers()) {
+            teleportHistory.load(player.getUniqueId());
+        }
 
         // Initialize commands and events
         new Commands(this);
@@ -25,6 +74,15 @@ public final class Main extends JavaPlugin {
 
         // Load locations from storage
         locationManager.loadLocations(this);
+        locationManager.configureChunkTickets(settings.get().chunkTicketRadius(), settings.get().chunkTicketLocations());
+        // Les réservoirs se remplissent une fois les locations chargées
+        safeSpawnPool.configure(settings.get().spreadSpawn());
+
+        startAutosave(settings.get().autosaveSeconds());
+        startMetricsDump(settings.get().metricsDumpSeconds());
+        if (settings.get().watchConfig()) {
+            configWatcher.start();
+        }
     }
 
     /**
@@ -32,8 +90,168 @@ public final class Main extends JavaPlugin {
      */
     @Override
     public void onDisable() {
-        // Save locations to storage
-        locationManager.saveLocations(this);
+        configWatcher.close();
+        // Un import interrompu garde les warps déjà enregistrés, sauvegardés ci-dessous
+        warpTransfers.stop();
+        warmupManager.stop();
+        safeSpawnPool.clear();
+        destinationSafety.clear();
+        cooldownEngine.stop();
+        teleportQueue.stop();
+        locationManager.releaseChunkTickets();
+        saveCooldowns();
+        if (!teleportHistory.stop(settings.get().saveTimeoutSeconds(), TimeUnit.SECONDS)) {
+            getLogger().warning("L'écriture des historiques de /back ne s'est pas terminée à temps.");
+        }
+
+        // Save locations to storage and wait for the writer to finish
+        if (locationManager.isDirty()) {
+            locationManager.saveLocationsAsync(this);
+        }
+        long timeout = settings.get().saveTimeoutSeconds();
+        if (!locationManager.shutdownPersistence(timeout, TimeUnit.SECONDS)) {
+            getLogger().warning("La sauvegarde des locations ne s'est pas terminée après " + timeout + " seconde(s).");
+        }
+    }
+
+    /**
+     * Reads the settings from {@code config.yml}, falling back to the default settings if the
+     * file is invalid so that the plugin still starts.
+     */
+    private Settings loadSettings() {
+        try {
+            return Settings.load(this);
+        } catch (IOException | InvalidConfigurationException | IllegalArgumentException e) {
+            getLogger().log(Level.SEVERE, "Configuration invalide, les paramètres par défaut sont utilisés.", e);
+            return Settings.defaults();
+        }
+    }
+
+    /**
+     * Reads {@code config.yml} again and swaps the new settings in. If the file is invalid,
+     * the current settings are kept. Must be called from the main thread.
+     *
+     * @return {@code true} if the new settings are in use, {@code false} if the file was invalid
+     */
+    public boolean reloadSettings() {
+        Settings loaded;
+        try {
+            loaded = Settings.load(this);
+        } catch (IOException | InvalidConfigurationException | IllegalArgumentException e) {
+            getLogger().log(Level.WARNING, "Configuration invalide, les paramètres actuels sont conservés.", e);
+            return false;
+        }
+        Settings previous = settings.swap(loaded);
+        applySettings(previous, loaded);
+        return true;
+    }
+
+    /**
+     * Applies the settings that are not read on every use by the services built at startup.
+     */
+    private void applySettings(Settings previous, Settings current) {
+        teleportQueue.start(this, current.teleportsPerTick());
+        locationManager.setStorageFormat(current.storageFormat());
+        // Les fichiers de langue sont relus à chaque rechargement, même si la langue n'a pas changé
+        messages.load(this, current.language());
+        // Les permissions des paliers et des points de spawn ont pu changer
+        permissionCache.clear();
+        if (previous.chunkTicketRadius() != current.chunkTicketRadius()
+                || !previous.chunkTicketLocations().equals(current.chunkTicketLocations())) {
+            locationManager.configureChunkTickets(current.chunkTicketRadius(), current.chunkTicketLocations());
+        }
+        if (!previous.spreadSpawn().equals(current.spreadSpawn())) {
+            safeSpawnPool.configure(current.spreadSpawn());
+        }
+        if (previous.backHistorySize() != current.backHistorySize()) {
+            teleportHistory.configure(current.backHistorySize());
+        }
+        if (previous.autosaveSeconds() != current.autosaveSeconds()) {
+            startAutosave(current.autosaveSeconds());
+        }
+        if (previous.metricsDumpSeconds() != current.metricsDumpSeconds()) {
+            startMetricsDump(current.metricsDumpSeconds());
+        }
+        if (current.watchConfig()) {
+            configWatcher.start();
+        } else {
+            configWatcher.close();
+        }
+    }
+
+    /**
+     * Restores the cooldowns that were still running when the server stopped.
+     */
+    private void loadCooldowns() {
+        try {
+            cooldownEngine.load(getCooldownsFile());
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Impossible de charger les cooldowns.", e);
+        }
+    }
+
+    /**
+     * Writes the running cooldowns to disk so that a restart does not reset them.
+     */
+    private void saveCooldowns() {
+        try {
+            cooldownEngine.save(getCooldownsFile());
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Impossible de sauvegarder les cooldowns.", e);
+        }
+    }
+
+    private Path getCooldownsFile() {
+        return getDataFolder().toPath().resolve("cooldowns.dat");
+    }
+
+    /**
+     * Schedules the periodic autosave of the locations. The save is skipped when nothing
+     * changed since the last one, and is disabled entirely when the interval is zero.
+     * Replaces the autosave scheduled before, if any.
+     *
+     * @param intervalSeconds the interval between two saves, in seconds
+     */
+    private void startAutosave(long intervalSeconds) {
+        if (autosaveTask != null) {
+            autosaveTask.cancel();
+            autosaveTask = null;
+        }
+        long intervalTicks = intervalSeconds * 20;
+        if (intervalTicks <= 0) {
+            return;
+        }
+        autosaveTask = getServer().getScheduler().runTaskTimer(this, () -> {
+            if (locationManager.isDirty()) {
+                locationManager.saveLocationsAsync(this);
+            }
+        }, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Schedules the periodic dump of the metrics to {@code metrics.prom}, in the Prometheus
+     * text format, so that a node exporter textfile collector can pick them up. The file is
+     * written off the main thread. Replaces the dump scheduled before, if any.
+     *
+     * @param intervalSeconds the interval between two dumps, in seconds, or 0 to disable them
+     */
+    private void startMetricsDump(long intervalSeconds) {
+        if (metricsTask != null) {
+            metricsTask.cancel();
+            metricsTask = null;
+        }
+        long intervalTicks = intervalSeconds * 20;
+        if (intervalTicks <= 0) {
+            return;
+        }
+        Path file = getDataFolder().toPath().resolve("metrics.prom");
+        metricsTask = getServer().getScheduler().runTaskTimerAsynchronously(this, () -> {
+            try {
+                AsyncFileWriter.writeAtomically(file, metrics.toPrometheus().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Impossible d'écrire les métriques.", e);
+            }
+        }, intervalTicks, intervalTicks);
     }
 
     /**
@@ -45,7 +263,51 @@ public final class Main extends JavaPlugin {
         return instance;
     }
 
+    public SettingsHolder getSettings() {
+        return settings;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Messages getMessages() {
+        return messages;
+    }
+
     public LocationManager getLocationManager() {
         return locationManager;
     }
+
+    public CooldownEngine getCooldownEngine() {
+        return cooldownEngine;
+    }
+
+    public TeleportQueue getTeleportQueue() {
+        return teleportQueue;
+    }
+
+    public TeleportHistory getTeleportHistory() {
+        return teleportHistory;
+    }
+
+    public WarmupManager getWarmupManager() {
+        return warmupManager;
+    }
+
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
+    public SafeSpawnPool getSafeSpawnPool() {
+        return safeSpawnPool;
+    }
+
+    public DestinationSafety getDestinationSafety() {
+        return destinationSafety;
+    }
+
+    public WarpTransfers getWarpTransfers() {
+        return warpTransfers;
+    }
 }
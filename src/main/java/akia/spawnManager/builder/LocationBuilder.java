@@ -1,50 +1,124 @@
 package akia.spawnManager.builder;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a builder for managing {@code Location} objects with associated names.
- * This class provides mechanisms to retrieve and update the location and name,
- * teleport a player, and compare instances based on the name.
+ * This class provides mechanisms to retrieve the location and name, derive a moved or
+ * renamed copy, teleport a player, and compare instances based on the name.
+ *
+ * <p>The position is stored as raw coordinates and the name of its world. The Bukkit
+ * {@code Location} is only resolved the first time it is needed and cached afterwards,
+ * so a location whose world is not loaded can still be registered, and unloading a world
+ * only requires dropping the cached binding with {@link #unbind()}.</p>
+ *
+ * <p>The name and the coordinates never change once the builder is constructed, so an
+ * instance can be read from any thread. Only the world binding is cached lazily; it
+ * should be resolved from the main thread.</p>
  */
-public class LocationBuilder {
+public final class LocationBuilder {
 
     /**
-     * Represents the {@code Location} associated with this builder.
-     * The location can be retrieved or updated using appropriate methods,
-     * and is used as a reference point for player teleportation and other operations.
+     * The name of the world the location belongs to. Used as the key to resolve the
+     * {@link World} once it is loaded.
      */
-    private Location location;
+    private final String worldName;
+    /**
+     * The unique id of the world, or {@code null} if the world has never been loaded
+     * since the location was read from storage.
+     */
+    private volatile UUID worldId;
+    /**
+     * The raw coordinates of the location.
+     */
+    private final double x, y, z;
+    /**
+     * The raw rotation of the location.
+     */
+    private final float yaw, pitch;
+    /**
+     * The {@code Location} resolved from the raw coordinates, or {@code null} if it has not
+     * been resolved yet or its world was unloaded since.
+     */
+    private volatile Location location;
     /**
      * Represents the name associated with the {@code Location} managed by the
      * {@code LocationBuilder}. This name is used for identification purposes
-     * and can be retrieved, updated, and compared in relation to other instances
+     * and can be retrieved and compared in relation to other instances
      * of {@code LocationBuilder}.
      */
-    private String name;
+    private final String name;
 
     /**
      * Constructs a new {@code LocationBuilder} with the specified {@code Location} and name.
      *
-     * @param location the {@code Location} to be associated with this builder instance
+     * @param location the {@code Location} to be associated with this builder instance. Must not be null.
      * @param name the name to be associated with this builder instance
      */
     public LocationBuilder(Location location, String name) {
-        this.location = location;
+        World world = location.getWorld();
         this.name = name;
+        this.worldName = world != null ? world.getName() : null;
+        this.worldId = world != null ? world.getUID() : null;
+        this.x = location.getX();
+        this.y = location.getY();
+        this.z = location.getZ();
+        this.yaw = location.getYaw();
+        this.pitch = location.getPitch();
+        this.location = location.clone();
     }
 
     /**
-     * Retrieves the current {@code Location} associated with this instance.
+     * Constructs a new {@code LocationBuilder} from raw coordinates. The world does not
+     * need to be loaded: it is resolved the first time the location is used.
+     *
+     * @param name      the name to be associated with this builder instance
+     * @param worldName the name of the world the location belongs to
+     * @param worldId   the unique id of the world, or {@code null} if unknown
+     * @param x         the x coordinate
+     * @param y         the y coordinate
+     * @param z         the z coordinate
+     * @param yaw       the yaw rotation
+     * @param pitch     the pitch rotation
+     */
+    public LocationBuilder(String name, String worldName, UUID worldId,
+                           double x, double y, double z, float yaw, float pitch) {
+        this.name = name;
+        this.worldName = worldName;
+        this.worldId = worldId;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+    }
+
+    /**
+     * Retrieves the current {@code Location} associated with this instance, resolving
+     * it against the loaded worlds on first use.
      *
      * @return the {@code Location} object representing the current location
-     *         stored in this instance, or {@code null} if no location is set.
+     *         stored in this instance, or {@code null} if no location is set
+     *         or its world is not loaded.
      */
     public Location getLocation() {
-        return location;
+        Location resolved = location;
+        if (resolved == null && worldName != null) {
+            World world = Bukkit.getWorld(worldName);
+            if (world != null) {
+                worldId = world.getUID();
+                resolved = new Location(world, x, y, z, yaw, pitch);
+                location = resolved;
+            }
+        }
+        return resolved;
     }
 
     /**
@@ -57,21 +131,96 @@ public class LocationBuilder {
     }
 
     /**
-     * Updates the current location of the {@code LocationBuilder}.
+     * Retrieves the name of the world the location belongs to.
      *
-     * @param location the new {@code Location} to be set; may replace the existing location
+     * @return the world name, or {@code null} if no location is set
      */
-    public void setLocation(Location location) {
-        this.location = location;
+    public String getWorldName() {
+        return worldName;
     }
 
     /**
-     * Sets the name associated with this object.
+     * Retrieves the unique id of the world the location belongs to.
      *
-     * @param name the new name to be assigned
+     * @return the world id, or {@code null} if the world has not been loaded yet
      */
-    public void setName(String name) {
-        this.name = name;
+    public UUID getWorldId() {
+        return worldId;
+    }
+
+    /**
+     * Retrieves the raw x coordinate of the location, available even when its world is not loaded.
+     *
+     * @return the x coordinate
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Retrieves the raw y coordinate of the location, available even when its world is not loaded.
+     *
+     * @return the y coordinate
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Retrieves the raw z coordinate of the location, available even when its world is not loaded.
+     *
+     * @return the z coordinate
+     */
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Retrieves the raw yaw rotation of the location, available even when its world is not loaded.
+     *
+     * @return the yaw rotation
+     */
+    public float getYaw() {
+        return yaw;
+    }
+
+    /**
+     * Retrieves the raw pitch rotation of the location, available even when its world is not loaded.
+     *
+     * @return the pitch rotation
+     */
+    public float getPitch() {
+        return pitch;
+    }
+
+    /**
+     * Creates a copy of this {@code LocationBuilder} moved to another position.
+     *
+     * @param location the new position. Must not be null.
+     * @return a new builder with the same name and the given position
+     */
+    public LocationBuilder withLocation(Location location) {
+        return new LocationBuilder(location, name);
+    }
+
+    /**
+     * Creates a copy of this {@code LocationBuilder} under another name.
+     *
+     * @param name the new name
+     * @return a new builder with the same position and the given name
+     */
+    public LocationBuilder withName(String name) {
+        LocationBuilder renamed = new LocationBuilder(name, worldName, worldId, x, y, z, yaw, pitch);
+        renamed.location = location;
+        return renamed;
+    }
+
+    /**
+     * Drops the cached {@code Location} so that no reference to its world is kept.
+     * The location is resolved again the next time it is used.
+     */
+    public void unbind() {
+        this.location = null;
     }
 
     /**
@@ -79,11 +228,33 @@ public class LocationBuilder {
      * The teleportation will occur only if both the location and player are non-null.
      *
      * @param player The player to be teleported. Must not be null.
+     * @return {@code true} if the teleportation was performed, {@code false} if the world of
+     *         the location is not loaded
      */
-    public void teleportLocation(Player player) {
+    public boolean teleportLocation(Player player) {
+        Location location = getLocation();
         if (location != null && player != null) {
             player.teleport(location);
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * Teleports the specified player to the current location of this {@code LocationBuilder}
+     * with Paper's asynchronous teleport: the destination chunk is loaded off the main thread
+     * if needed, and the teleport is completed on the main thread.
+     *
+     * @param player The player to be teleported. Must not be null.
+     * @return a future completed with {@code true} once the player has been teleported, or
+     *         with {@code false} if the world of the location is not loaded or the teleport failed
+     */
+    public CompletableFuture<Boolean> teleportLocationAsync(Player player) {
+        Location location = getLocation();
+        if (location == null || player == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return player.teleportAsync(location);
     }
 
     /**
@@ -101,6 +272,16 @@ public class LocationBuilder {
         return Objects.equals(name, that.name);
     }
 
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}, based on the name only.
+     *
+     * @return the hash code of the name
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(name);
+    }
+
     /**
      * Returns a string representation of the {@code LocationBuilder} instance,
      * including the location and name fields.
@@ -109,6 +290,7 @@ public class LocationBuilder {
      */
     @Override
     public String toString() {
-        return String.format("LocationBuilder{location=%s, name='%s'}", location, name);
+        return String.format("LocationBuilder{world=%s, x=%s, y=%s, z=%s, yaw=%s, pitch=%s, name='%s'}",
+                worldName, x, y, z, yaw, pitch, name);
     }
 }
@@ -0,0 +1,63 @@
+package akia.spawnManager.command;
+
+import com.mojang.brigadier.LiteralMessage;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import io.papermc.paper.command.brigadier.argument.CustomArgumentType;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A constant of an enum in a Brigadier command, such as a storage format or a conflict
+ * policy, typed by its lower-case name.
+ *
+ * @param <E> the type of the enum
+ */
+public final class EnumArgument<E extends Enum<E>> implements CustomArgumentType.Converted<E, String> {
+
+    private final Class<E> type;
+    private final DynamicCommandExceptionType unknown;
+
+    /**
+     * Constructs the argument.
+     *
+     * @param type    the class of the enum
+     * @param subject what the constants are, used in the error message, such as {@code "Format de stockage"}
+     */
+    public EnumArgument(Class<E> type, String subject) {
+        this.type = type;
+        this.unknown = new DynamicCommandExceptionType(name -> new LiteralMessage(subject + " inconnu : " + name));
+    }
+
+    @Override
+    public E convert(String name) throws CommandSyntaxException {
+        try {
+            return Enum.valueOf(type, name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw unknown.create(name);
+        }
+    }
+
+    @Override
+    public ArgumentType<String> getNativeType() {
+        return StringArgumentType.word();
+    }
+
+    @Override
+    public <S> CompletableFuture<Suggestions> listSuggestions(CommandContext<S> context, SuggestionsBuilder builder) {
+        String current = builder.getRemainingLowerCase();
+        for (E constant : type.getEnumConstants()) {
+            String name = constant.name().toLowerCase(Locale.ROOT);
+            if (name.startsWith(current)) {
+                builder.suggest(name);
+            }
+        }
+        return builder.buildFuture();
+    }
+}
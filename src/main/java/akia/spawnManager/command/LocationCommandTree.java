@@ -0,0 +1,286 @@
+package akia.spawnManager.command;
+
+import akia.spawnManager.manager.LocationManager;
+import akia.spawnManager.metrics.Metrics;
+import akia.spawnManager.storage.StorageFormat;
+import akia.spawnManager.transfer.ConflictPolicy;
+import akia.spawnManager.transfer.TransferFormat;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import io.papermc.paper.command.brigadier.CommandSourceStack;
+import io.papermc.paper.command.brigadier.Commands;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+
+/**
+ * Builds the Brigadier trees of {@code /spawn}, {@code /back} and {@code /location}. The nodes
+ * only parse and type the arguments; each one calls a handler of the single {@link LocationCommands}
+ * instance shared by the commands, which checks the permissions and sends the messages.
+ *
+ * <p>A sub-command typed without its arguments still runs, with {@code null} in place of the
+ * missing ones, so that the handler can answer with its usage as before.</p>
+ */
+public class LocationCommandTree {
+
+    private static final String NAME = "nom";
+    private static final String GROUP = "groupe";
+    private static final String NEW_NAME = "nouveau_nom";
+    private static final String WORLD = "monde";
+    private static final String PAGE = "page";
+    private static final String SOURCE = "source";
+    private static final String TARGET = "cible";
+    private static final String FORMAT = "format";
+    private static final String FILE = "fichier";
+    private static final String POLICY = "conflits";
+    private static final String STEPS = "n";
+
+    /**
+     * The handlers of the commands.
+     */
+    private final LocationCommands commands;
+    /**
+     * The names of the registered locations, suggested asynchronously.
+     */
+    private final LocationNameArgument locationName;
+    /**
+     * The groups of registered locations, suggested asynchronously.
+     */
+    private final LocationNameArgument groupName;
+    /**
+     * The name of a location being created, for which nothing is suggested.
+     */
+    private final LocationNameArgument newLocationName = LocationNameArgument.newName();
+    /**
+     * The storage formats of {@code /location admin convert}.
+     */
+    private final EnumArgument<StorageFormat> storageFormat = new EnumArgument<>(StorageFormat.class, "Format de stockage");
+    /**
+     * The dump formats of {@code /location admin import} and {@code export}.
+     */
+    private final EnumArgument<TransferFormat> transferFormat = new EnumArgument<>(TransferFormat.class, "Format d'import");
+    /**
+     * The conflict policies of {@code /location admin import}.
+     */
+    private final EnumArgument<ConflictPolicy> conflictPolicy = new EnumArgument<>(ConflictPolicy.class, "Politique de conflit");
+
+    /**
+     * Constructs the builder of the command trees.
+     *
+     * @param commands        the handlers of the commands. Must not be null.
+     * @param locationManager the registry whose names are suggested. Must not be null.
+     * @param metrics         the metrics recording the time taken by the suggestions. Must not be null.
+     */
+    public LocationCommandTree(LocationCommands commands, LocationManager locationManager, Metrics metrics) {
+        this.commands = commands;
+        this.locationName = LocationNameArgument.existing(locationManager, metrics);
+        this.groupName = LocationNameArgument.group(locationManager, metrics);
+    }
+
+    /**
+     * Builds {@code /spawn [nearest]}.
+     *
+     * @return the root node of the command
+     */
+    public LiteralCommandNode<CommandSourceStack> spawn() {
+        return Commands.literal("spawn")
+                .executes(run((sender, context) -> commands.spawn(sender, false)))
+                .then(Commands.literal("nearest")
+                        .executes(run((sender, context) -> commands.spawn(sender, true))))
+                .build();
+    }
+
+    /**
+     * Builds {@code /back [n]}.
+     *
+     * @return the root node of the command
+     */
+    public LiteralCommandNode<CommandSourceStack> back() {
+        return Commands.literal("back")
+                .executes(run((sender, context) -> commands.back(sender, 1)))
+                .then(Commands.argument(STEPS, IntegerArgumentType.integer(1))
+                        .executes(run((sender, context) -> commands.back(sender,
+                                IntegerArgumentType.getInteger(context, STEPS)))))
+                .build();
+    }
+
+    /**
+     * Builds {@code /location} and its sub-commands.
+     *
+     * @return the root node of the command
+     */
+    public LiteralCommandNode<CommandSourceStack> location() {
+        return Commands.literal("location")
+                .executes(location((sender, context) -> commands.help(sender)))
+                .then(Commands.literal("help")
+                        .executes(location((sender, context) -> commands.help(sender))))
+                .then(Commands.literal("create")
+                        .executes(location((sender, context) -> commands.create(sender, null)))
+                        .then(Commands.argument(NAME, newLocationName)
+                                .executes(location((sender, context) -> commands.create(sender, string(context, NAME))))))
+                .then(Commands.literal("set")
+                        .executes(location((sender, context) -> commands.set(sender, null)))
+                        .then(Commands.argument(NAME, locationName)
+                                .executes(location((sender, context) -> commands.set(sender, string(context, NAME))))))
+                .then(Commands.literal("rename")
+                        .executes(location((sender, context) -> commands.rename(sender, null, null)))
+                        .then(Commands.argument(NAME, locationName)
+                                .executes(location((sender, context) -> commands.rename(sender, string(context, NAME), null)))
+                                .then(Commands.argument(NEW_NAME, newLocationName)
+                                        .executes(location((sender, context) -> commands.rename(sender,
+                                                string(context, NAME), string(context, NEW_NAME)))))))
+                .then(Commands.literal("delete")
+                        .executes(location((sender, context) -> commands.delete(sender, null)))
+                        .then(Commands.argument(NAME, locationName)
+                                .executes(location((sender, context) -> commands.delete(sender, string(context, NAME))))))
+                .then(Commands.literal("teleport")
+                        .executes(location((sender, context) -> commands.teleport(sender, null)))
+                        .then(Commands.argument(NAME, locationName)
+                                .executes(location((sender, context) -> commands.teleport(sender, string(context, NAME))))))
+                // La page est déclarée avant le monde : un nombre seul désigne la page de tous les mondes
+                .then(Commands.literal("list")
+                        .executes(location((sender, context) -> commands.list(sender, null, 1)))
+                        .then(Commands.argument(PAGE, IntegerArgumentType.integer(1))
+                                .executes(location((sender, context) -> commands.list(sender, null,
+                                        IntegerArgumentType.getInteger(context, PAGE)))))
+                        .then(Commands.argument(WORLD, StringArgumentType.word())
+                                .suggests(worldNames())
+                                .executes(location((sender, context) -> commands.list(sender, string(context, WORLD), 1)))
+                                .then(Commands.argument(PAGE, IntegerArgumentType.integer(1))
+                                        .executes(location((sender, context) -> commands.list(sender, string(context, WORLD),
+                                                IntegerArgumentType.getInteger(context, PAGE)))))))
+                .then(Commands.literal("group")
+                        .executes(location((sender, context) -> commands.groupUsage(sender)))
+                        .then(Commands.literal("list")
+                                .executes(location((sender, context) -> commands.groupUsage(sender)))
+                                .then(Commands.argument(GROUP, groupName)
+                                        .executes(location((sender, context) -> commands.groupList(sender, string(context, GROUP), 1)))
+                                        .then(Commands.argument(PAGE, IntegerArgumentType.integer(1))
+                                                .executes(location((sender, context) -> commands.groupList(sender,
+                                                        string(context, GROUP), IntegerArgumentType.getInteger(context, PAGE)))))))
+                        .then(Commands.literal("delete")
+                                .executes(location((sender, context) -> commands.groupUsage(sender)))
+                                .then(Commands.argument(GROUP, groupName)
+                                        .executes(location((sender, context) -> commands.groupDelete(sender, string(context, GROUP))))))
+                        .then(Commands.literal("random")
+                                .executes(location((sender, context) -> commands.groupUsage(sender)))
+                                .then(Commands.argument(GROUP, groupName)
+                                        .executes(location((sender, context) -> commands.groupRandom(sender, string(context, GROUP)))))))
+                .then(Commands.literal("admin")
+                        .executes(admin((sender, context) -> commands.adminUsage(sender)))
+                        .then(Commands.literal("save")
+                                .executes(admin((sender, context) -> commands.save(sender))))
+                        .then(Commands.literal("load")
+                                .executes(admin((sender, context) -> commands.load(sender, null)))
+                                .then(Commands.argument(WORLD, StringArgumentType.word())
+                                        .suggests(worldNames())
+                                        .executes(admin((sender, context) -> commands.load(sender, string(context, WORLD))))))
+                        .then(Commands.literal("reload")
+                                .executes(admin((sender, context) -> commands.reload(sender))))
+                        .then(Commands.literal("convert")
+                                .executes(admin((sender, context) -> commands.convert(sender, null, null)))
+                                .then(Commands.argument(SOURCE, storageFormat)
+                                        .executes(admin((sender, context) -> commands.convert(sender,
+                                                context.getArgument(SOURCE, StorageFormat.class), null)))
+                                        .then(Commands.argument(TARGET, storageFormat)
+                                                .executes(admin((sender, context) -> commands.convert(sender,
+                                                        context.getArgument(SOURCE, StorageFormat.class),
+                                                        context.getArgument(TARGET, StorageFormat.class)))))))
+                        // Un chemin contenant des / ou des espaces s'écrit entre guillemets
+                        .then(Commands.literal("import")
+                                .executes(admin((sender, context) -> commands.importWarps(sender, null, null, null)))
+                                .then(Commands.argument(FORMAT, transferFormat)
+                                        .executes(admin((sender, context) -> commands.importWarps(sender,
+                                                context.getArgument(FORMAT, TransferFormat.class), null, null)))
+                                        .then(Commands.argument(FILE, StringArgumentType.string())
+                                                .executes(admin((sender, context) -> commands.importWarps(sender,
+                                                        context.getArgument(FORMAT, TransferFormat.class),
+                                                        string(context, FILE), null)))
+                                                .then(Commands.argument(POLICY, conflictPolicy)
+                                                        .executes(admin((sender, context) -> commands.importWarps(sender,
+                                                                context.getArgument(FORMAT, TransferFormat.class),
+                                                                string(context, FILE),
+                                                                context.getArgument(POLICY, ConflictPolicy.class))))))))
+                        .then(Commands.literal("export")
+                                .executes(admin((sender, context) -> commands.exportWarps(sender, null, null)))
+                                .then(Commands.argument(FORMAT, transferFormat)
+                                        .executes(admin((sender, context) -> commands.exportWarps(sender,
+                                                context.getArgument(FORMAT, TransferFormat.class), null)))
+                                        .then(Commands.argument(FILE, StringArgumentType.string())
+                                                .executes(admin((sender, context) -> commands.exportWarps(sender,
+                                                        context.getArgument(FORMAT, TransferFormat.class),
+                                                        string(context, FILE)))))))
+                        .then(Commands.literal("stats")
+                                .executes(admin((sender, context) -> commands.stats(sender, false)))
+                                .then(Commands.literal("reset")
+                                        .executes(admin((sender, context) -> commands.stats(sender, true)))))
+                        .then(Commands.literal("queue")
+                                .executes(admin((sender, context) -> commands.queue(sender, false)))
+                                .then(Commands.literal("reset")
+                                        .executes(admin((sender, context) -> commands.queue(sender, true))))))
+                .build();
+    }
+
+    /**
+     * Wraps a handler into a Brigadier command.
+     */
+    private static Command<CommandSourceStack> run(Handler handler) {
+        return context -> {
+            handler.handle(context.getSource().getSender(), context);
+            return Command.SINGLE_SUCCESS;
+        };
+    }
+
+    /**
+     * Wraps the handler of a sub-command of {@code /location}, run only if the sender may use the command.
+     */
+    private Command<CommandSourceStack> location(Handler handler) {
+        return run((sender, context) -> {
+            if (commands.canUse(sender)) {
+                handler.handle(sender, context);
+            }
+        });
+    }
+
+    /**
+     * Wraps the handler of a sub-command of {@code /location admin}, run only if the sender may administer the plugin.
+     */
+    private Command<CommandSourceStack> admin(Handler handler) {
+        return location((sender, context) -> {
+            if (commands.canAdminister(sender)) {
+                handler.handle(sender, context);
+            }
+        });
+    }
+
+    private static String string(CommandContext<CommandSourceStack> context, String name) {
+        return context.getArgument(name, String.class);
+    }
+
+    /**
+     * Suggests the names of the loaded worlds.
+     */
+    private static SuggestionProvider<CommandSourceStack> worldNames() {
+        return (context, builder) -> {
+            String current = builder.getRemainingLowerCase();
+            for (World world : Bukkit.getWorlds()) {
+                if (world.getName().toLowerCase().startsWith(current)) {
+                    builder.suggest(world.getName());
+                }
+            }
+            return builder.buildFuture();
+        };
+    }
+
+    /**
+     * The action of a node, given the sender of the command and the parsed arguments.
+     */
+    @FunctionalInterface
+    private interface Handler {
+        void handle(CommandSender sender, CommandContext<CommandSourceStack> context);
+    }
+}
@@ -2,23 +2,51 @@ package akia.spawnManager.command;
 
 import akia.spawnManager.Main;
 import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.config.CooldownSettings;
+import akia.spawnManager.config.Settings;
+import akia.spawnManager.config.SettingsHolder;
+import akia.spawnManager.manager.CooldownEngine;
 import akia.spawnManager.manager.CooldownManager;
+import akia.spawnManager.manager.DestinationSafety;
 import akia.spawnManager.manager.LocationManager;
+import akia.spawnManager.manager.LocationSnapshot;
+import akia.spawnManager.manager.PermissionCache;
+import akia.spawnManager.manager.TeleportHistory;
+import akia.spawnManager.manager.TeleportQueue;
+import akia.spawnManager.manager.WarmupManager;
+import akia.spawnManager.message.Message;
+import akia.spawnManager.message.Messages;
+import akia.spawnManager.metrics.Counter;
+import akia.spawnManager.metrics.LatencyHistogram;
+import akia.spawnManager.metrics.Metrics;
+import akia.spawnManager.storage.StorageFormat;
+import akia.spawnManager.transfer.ConflictPolicy;
+import akia.spawnManager.transfer.TransferFormat;
+import akia.spawnManager.transfer.WarpTransfers;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
-import org.bukkit.command.TabExecutor;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
 
-public class LocationCommands implements TabExecutor {
+/**
+ * Implements {@code /spawn} and {@code /location}. The arguments are parsed by the Brigadier
+ * tree built by {@link LocationCommandTree}, which calls the handlers of a single instance
+ * shared by both commands; the handlers perform the permission checks and send the messages.
+ * A missing argument is passed as {@code null}, so that the handler can answer with the usage
+ * of the sub-command once the sender is known to be allowed to use it.
+ */
+public class LocationCommands {
+
+    /**
+     * The type of the cooldown of {@code /back}, separate from the one of {@code /spawn}.
+     */
+    private static final String BACK_COOLDOWN = "back";
 
     /**
      * A final instance of {@link LocationManager} used to manage named locations within the
@@ -35,229 +63,820 @@ public class LocationCommands implements TabExecutor {
      * a specified timeframe. It is initialized as final to ensure immutability.
      */
     private final CooldownManager cooldownManager;
+    /**
+     * The current settings of the plugin, swapped as a whole when the configuration is reloaded.
+     */
+    private final SettingsHolder settings;
+    /**
+     * The metrics recording the duration of the commands and tab completions.
+     */
+    private final Metrics metrics;
+    /**
+     * The catalog of the messages sent to the players, in their language.
+     */
+    private final Messages messages;
+    /**
+     * The pages of {@code /location list}, rendered once per version of the registry.
+     */
+    private final LocationListPages listPages;
+    /**
+     * Delays the teleports of {@code /spawn} and {@code /location teleport} until the player has stood still.
+     */
+    private final WarmupManager warmupManager;
+    /**
+     * The permissions already checked for each player, so that a command does not walk the
+     * permission tree again for a node it already checked.
+     */
+    private final PermissionCache permissionCache;
 
     /**
      * Constructs a new instance of the LocationCommands class, initializing it with a LocationManager
      * and creating a CooldownManager based on the teleport delay settings from the configuration.
      *
      * @param locationManager the LocationManager instance used to manage locations. Must not be null.
+     * @param settings the holder of the current settings. Must not be null.
      */
-    public LocationCommands(LocationManager locationManager) {
-        this.locationManager = locationManager;
-        long cooldownSeconds = Main.getInstance().getConfig().getLong("settings.teleport_delay", 10);
-        this.cooldownManager = new CooldownManager(Main.getInstance(), cooldownSeconds);
+    public LocationCommands(LocationManager locationManager, SettingsHolder settings) {
+        this(locationManager, settings, Main.getInstance().getCooldownEngine(), Main.getInstance().getMetrics(),
+                Main.getInstance().getMessages(), Main.getInstance().getWarmupManager(),
+                Main.getInstance().getPermissionCache());
     }
 
     /**
-     * Handles the execution of commands for this plugin, delegating actions
-     * to appropriate helper methods based on the specific command issued.
+     * Constructs a new instance of the LocationCommands class with an explicit cooldown engine,
+     * metrics, messages, warmup manager and permission cache, which allows building the commands without a
+     * running plugin instance.
      *
-     * @param sender the entity that issued the command, such as a player or the console
-     * @param cmd the command being executed
-     * @param label the alias of the command that was used
-     * @param args any additional command arguments provided
-     * @return true always, indicating the command was handled
+     * @param locationManager the LocationManager instance used to manage locations. Must not be null.
+     * @param settings the holder of the current settings. Must not be null.
+     * @param cooldownEngine the engine storing the /spawn and location cooldowns. Must not be null.
+     * @param metrics the metrics recording the duration of the commands. Must not be null.
+     * @param messages the catalog of the messages sent by the commands. Must not be null.
+     * @param warmupManager the manager delaying the teleports until the player stands still. Must not be null.
+     * @param permissionCache the cache of the permissions checked for the players. Must not be null.
      */
-    @Override
-    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command cmd, @NotNull String label, @NotNull String[] args) {
-
-        switch (cmd.getName().toLowerCase()) {
-            case "spawn" -> handleSpawnCommand(sender, args);
-            case "location" -> handleLocationCommand(sender, args);
-            default -> sender.sendMessage(Component.text("Commande inconnue.", NamedTextColor.RED));
-        }
-
-        return true;
+    public LocationCommands(LocationManager locationManager, SettingsHolder settings, CooldownEngine cooldownEngine,
+                            Metrics metrics, Messages messages, WarmupManager warmupManager,
+                            PermissionCache permissionCache) {
+        this.locationManager = locationManager;
+        this.settings = settings;
+        this.metrics = metrics;
+        this.messages = messages;
+        this.warmupManager = warmupManager;
+        this.permissionCache = permissionCache;
+        this.listPages = new LocationListPages(messages);
+        this.cooldownManager = new CooldownManager(cooldownEngine, "spawn", () -> settings.get().cooldownSeconds());
     }
 
     /**
-     * Handles the execution of the "/spawn" command, which teleports a player to a predefined spawn location,
+     * Handles the "/spawn" command, which teleports a player to a predefined spawn location,
      * with cooldown management to prevent repeated usage within a short period.
      *
-     * @param sender the {@link CommandSender} executing the command, which must be an instance of {@link Player}.
-     *               If the sender is not a player, an error message is sent and the command execution is stopped.
-     * @param args   the arguments provided with the command. For this implementation, no specific arguments are required.
+     * @param sender  the {@link CommandSender} executing the command, which must be an instance of {@link Player}.
+     *                If the sender is not a player, an error message is sent and the command execution is stopped.
+     * @param nearest whether {@code /spawn nearest} was typed, which sends the player to the closest
+     *                permitted spawn point instead of the default spawn
      */
-    private void handleSpawnCommand(CommandSender sender, String[] args) {
+    void spawn(CommandSender sender, boolean nearest) {
+        long start = System.nanoTime();
+        handleSpawnCommand(sender, nearest);
+        metrics.spawnCommands.recordSince(start);
+    }
+
+    private void handleSpawnCommand(CommandSender sender, boolean nearestRequested) {
         if (!(sender instanceof Player player)) {
-            sender.sendMessage(Component.text("Seul un joueur peut utiliser cette commande.", NamedTextColor.RED));
+            messages.send(sender, Message.PLAYER_ONLY);
             return;
         }
 
         if (cooldownManager.isOnCooldown(player)) {
+            metrics.cooldownRejections.increment();
             long remaining = cooldownManager.getRemainingTime(player);
-            player.sendMessage(Component.text("Veuillez patienter " + ((remaining / 1000) + 1)
-                    + " seconde(s) avant de réutiliser /spawn.", NamedTextColor.RED));
+            messages.send(player, Message.SPAWN_COOLDOWN, (remaining / 1000) + 1);
             return;
         }
 
-        // Récupère la location "spawn" (doit avoir été créée via /location create/set spawn)
-        LocationBuilder spawnLocation = locationManager.getLocation(Main.getInstance().getConfig().getString("settings.location_spawn", "spawn"));
+        Settings current = settings.get();
+        LocationBuilder spawnLocation = null;
+        if (nearestRequested || current.spawnNearest()) {
+            spawnLocation = findNearestSpawn(player, current.spawnPoints());
+        }
+        if (spawnLocation == null) {
+            // Récupère la location "spawn" (doit avoir été créée via /location create/set spawn)
+            spawnLocation = locationManager.getLocation(current.spawnLocation());
+        }
         if (spawnLocation == null) {
-            player.sendMessage(Component.text("La location de spawn n'est pas définie.", NamedTextColor.RED));
+            messages.send(player, Message.SPAWN_UNDEFINED);
             return;
         }
 
-        spawnLocation.teleportLocation(player);
-        cooldownManager.startCooldown(player);
-        player.sendMessage(Component.text("Téléportation vers le spawn...", NamedTextColor.GREEN));
+        if (spawnLocation.getLocation() == null) {
+            messages.send(player, Message.SPAWN_WORLD_NOT_LOADED);
+            return;
+        }
+
+        LocationBuilder destination = spawnLocation;
+        if (!Main.getInstance().getSafeSpawnPool().isSpread(destination.getName()) && isUnsafe(player, destination)) {
+            messages.send(player, Message.SPAWN_UNSAFE);
+            return;
+        }
+        // La durée dépend du point de spawn choisi et du palier du joueur
+        long cooldown = cooldownSeconds(player, current, destination.getName());
+        // Le cooldown ne démarre qu'une fois le warmup terminé : un warmup annulé ne coûte rien
+        startWarmup(player, () -> {
+            // Le point sûr n'est tiré qu'une fois le warmup terminé : un warmup annulé n'en consomme pas
+            Main.getInstance().getTeleportQueue().enqueue(player, Main.getInstance().getSafeSpawnPool().take(destination));
+            cooldownManager.startCooldown(player, cooldown);
+            messages.send(player, Message.SPAWN_TELEPORTING);
+        });
     }
 
     /**
-     * Handles the "/location" command, providing functionality for location management,
-     * including creation, updating, deletion, teleportation to locations, and listing.
-     * The command also includes administrative sub-commands for saving and loading locations.
+     * Handles {@code /back [n]}: teleports the player to the position they left before the
+     * n-th last teleport of the plugin or death, after the warmup. Going back is a teleport
+     * too, so {@code /back} typed twice returns to where the player stood. Requires
+     * {@code spawnmanager.back}; the position is checked first, since a death position is often
+     * the very spot that killed the player, and the cooldown {@code back.cooldown} starts once
+     * the player has arrived.
      *
-     * @param sender The entity (player, console, etc.) that executed the command. Must not be null.
-     * @param args An array of command arguments provided by the sender. The first argument determines
-     *             the sub-command, additional arguments may be required depending on the sub-command.
+     * @param sender the entity that executed the command
+     * @param steps  how far to go back, 1 being the last position recorded
      */
-    private void handleLocationCommand(@NotNull CommandSender sender, String[] args) {
-        if (!sender.hasPermission("spawnmanager.location.use")) {
-            sender.sendMessage(Component.text("Vous n'avez pas la permission d'utiliser cette commande.", NamedTextColor.RED));
+    void back(CommandSender sender, int steps) {
+        if (!(sender instanceof Player player)) {
+            messages.send(sender, Message.PLAYER_ONLY);
             return;
         }
-        if (args.length == 0 || args[0].equalsIgnoreCase("help")) {
-            sendHelp(sender);
+        if (!hasPermission(player, "spawnmanager.back")) {
+            messages.send(player, Message.NO_PERMISSION_BACK);
             return;
         }
-        String subCommand = args[0].toLowerCase();
-
-        // Sous-commandes réservées aux admins
-        if (subCommand.equals("admin")) {
-            if (!sender.hasPermission("spawnmanager.admin.use")) {
-                sender.sendMessage(Component.text("Vous n'avez pas la permission d'utiliser les commandes admin.", NamedTextColor.RED));
+        if (cooldownManager.isOnCooldown(player, BACK_COOLDOWN)) {
+            metrics.cooldownRejections.increment();
+            long remaining = cooldownManager.getRemainingTime(player, BACK_COOLDOWN);
+            messages.send(player, Message.BACK_COOLDOWN, (remaining / 1000) + 1);
+            return;
+        }
+        TeleportHistory history = Main.getInstance().getTeleportHistory();
+        int count = history.count(player.getUniqueId());
+        if (count == 0) {
+            messages.send(player, Message.BACK_EMPTY);
+            return;
+        }
+        if (steps > count) {
+            messages.send(player, Message.BACK_TOO_FAR, count);
+            return;
+        }
+        // La position est lue maintenant : les téléportations pendant le warmup ne la décalent pas
+        LocationBuilder destination = history.get(player.getUniqueId(), steps);
+        if (destination.getLocation() == null) {
+            messages.send(player, Message.BACK_WORLD_NOT_LOADED);
+            return;
+        }
+        if (hasPermission(player, "spawnmanager.safety.bypass")) {
+            startBack(player, destination);
+            return;
+        }
+        // Les positions de l'historique ne sont pas des locations enregistrées : pas de verdict en cache
+        Main.getInstance().getDestinationSafety().checkPosition(destination).thenAccept(status -> {
+            if (!player.isOnline()) {
                 return;
             }
-            if (args.length < 2) {
-                sender.sendMessage(Component.text("Usage: /location admin <save|load>", NamedTextColor.RED));
-                return;
+            if (status == DestinationSafety.Status.UNSAFE) {
+                messages.send(player, Message.BACK_UNSAFE);
+            } else {
+                startBack(player, destination);
             }
-            String adminSub = args[1].toLowerCase();
-            switch (adminSub) {
-                case "save" -> {
-                    if (!sender.hasPermission("spawnmanager.admin.save")) {
-                        sender.sendMessage(Component.text("Vous n'avez pas la permission d'enregistrer les locations.", NamedTextColor.RED));
-                        return;
-                    }
-                    locationManager.saveLocations(Main.getInstance());
-                    sender.sendMessage(Component.text("Sauvegarde des locations effectuée.", NamedTextColor.GREEN));
-                }
-                case "load" -> {
-                    if (!sender.hasPermission("spawnmanager.admin.load")) {
-                        sender.sendMessage(Component.text("Vous n'avez pas la permission de charger les locations.", NamedTextColor.RED));
-                        return;
-                    }
-                    locationManager.loadLocations(Main.getInstance());
-                    sender.sendMessage(Component.text("Chargement des locations effectué.", NamedTextColor.GREEN));
-                }
-                default -> sender.sendMessage(Component.text("Sous-commande admin inconnue. Utilisez: save, load", NamedTextColor.RED));
+        });
+    }
+
+    /**
+     * Starts the warmup of {@code /back}, then teleports the player and starts the cooldown.
+     *
+     * @param player      the player going back
+     * @param destination the position of the history the player goes back to
+     */
+    private void startBack(Player player, LocationBuilder destination) {
+        long cooldown = settings.get().backCooldownSeconds();
+        startWarmup(player, () -> {
+            Main.getInstance().getTeleportQueue().enqueue(player, destination);
+            if (cooldown > 0) {
+                cooldownManager.startCooldown(player, BACK_COOLDOWN, cooldown);
             }
-            return;
+            messages.send(player, Message.BACK_TELEPORTING);
+        });
+    }
+
+    /**
+     * Resolves the cooldown a player gets after teleporting to a location, from the cooldowns
+     * of the location and of the player's permission tier, falling back to {@code settings.teleport_delay}.
+     *
+     * @param player       the player teleporting
+     * @param current      the current settings
+     * @param locationName the name of the destination
+     * @return the cooldown in seconds
+     */
+    private long cooldownSeconds(Player player, Settings current, String locationName) {
+        CooldownSettings cooldowns = current.cooldowns();
+        return cooldowns.seconds(locationName, permissionCache.tier(player, cooldowns), current.cooldownSeconds());
+    }
+
+    /**
+     * Reads the cached verdict on a destination. A verdict that is not known yet lets the player
+     * through, and so does {@code spawnmanager.safety.bypass}, for the staff fixing the location.
+     *
+     * @param player      the player about to teleport
+     * @param destination the destination of the teleport
+     * @return {@code true} if the teleport must be refused
+     */
+    private boolean isUnsafe(Player player, LocationBuilder destination) {
+        return Main.getInstance().getDestinationSafety().check(destination) == DestinationSafety.Status.UNSAFE
+                && !hasPermission(player, "spawnmanager.safety.bypass");
+    }
+
+    /**
+     * Checks a permission of the sender. The result is cached for players, so that the nodes
+     * checked on every command do not walk the permission tree each time. Only meant for the
+     * frequent teleport and listing nodes: the administrative and editing commands call
+     * {@link CommandSender#hasPermission(String)} directly, so that a revoked permission takes
+     * effect at once rather than when the cache expires.
+     *
+     * @param sender the sender whose permission is checked
+     * @param node   the permission node
+     * @return {@code true} if the sender has the permission
+     */
+    private boolean hasPermission(CommandSender sender, String node) {
+        if (sender instanceof Player player) {
+            return permissionCache.has(player, node);
         }
+        return sender.hasPermission(node);
+    }
 
-        // Commandes standards de /location
-        switch (subCommand) {
-            case "create" -> {
-                if (!(sender instanceof Player)) {
-                    sender.sendMessage(Component.text("Seul un joueur peut exécuter cette commande.", NamedTextColor.RED));
-                    return;
-                }
-                if (!sender.hasPermission("spawnmanager.location.create")) {
-                    sender.sendMessage(Component.text("Vous n'avez pas la permission de créer des locations.", NamedTextColor.RED));
-                    return;
-                }
-                if (args.length < 2) {
-                    sender.sendMessage(Component.text("Usage: /location create <nom>", NamedTextColor.RED));
-                    return;
-                }
-                String name = args[1];
-                Player player = (Player) sender;
-                Location location = player.getLocation();
-                if (locationManager.getLocation(name) != null) {
-                    sender.sendMessage(Component.text("Une location avec ce nom existe déjà.", NamedTextColor.RED));
-                    return;
-                }
-                LocationBuilder lb = new LocationBuilder(location, name);
-                locationManager.registerLocation(lb);
-                sender.sendMessage(Component.text("Location '" + name + "' créée à votre position.", NamedTextColor.GREEN));
-            }
-            case "set" -> {
-                if (!(sender instanceof Player)) {
-                    sender.sendMessage(Component.text("Seul un joueur peut exécuter cette commande.", NamedTextColor.RED));
-                    return;
-                }
-                if (!sender.hasPermission("spawnmanager.location.set")) {
-                    sender.sendMessage(Component.text("Vous n'avez pas la permission de modifier des locations.", NamedTextColor.RED));
-                    return;
-                }
-                if (args.length < 2) {
-                    sender.sendMessage(Component.text("Usage: /location set <nom>", NamedTextColor.RED));
-                    return;
-                }
-                String name = args[1];
-                Player player = (Player) sender;
-                LocationBuilder lb = locationManager.getLocation(name);
-                if (lb == null) {
-                    sender.sendMessage(Component.text("Aucune location trouvée avec ce nom.", NamedTextColor.RED));
-                    return;
+    /**
+     * Runs a teleport once the player has stood still for the warmup configured by
+     * {@code settings.warmup}, or right away if the player holds {@code spawnmanager.warmup.bypass}.
+     * The player is told when the warmup starts and why it was cancelled, if it is.
+     *
+     * @param player   the player to teleport
+     * @param teleport the teleport to run once the warmup ends
+     */
+    private void startWarmup(Player player, Runnable teleport) {
+        long seconds = hasPermission(player, "spawnmanager.warmup.bypass") ? 0 : settings.get().warmupSeconds();
+        if (seconds > 0) {
+            messages.send(player, Message.WARMUP_STARTED, seconds);
+        }
+        warmupManager.start(player, seconds * 20, teleport, reason -> {
+            switch (reason) {
+                case MOVED -> messages.send(player, Message.WARMUP_CANCELLED_MOVE);
+                case DAMAGED -> messages.send(player, Message.WARMUP_CANCELLED_DAMAGE);
+                default -> {
+                    // Remplacé par un nouveau warmup, joueur déconnecté ou plugin arrêté : rien à signaler
                 }
-                lb.setLocation(player.getLocation());
-                sender.sendMessage(Component.text("Location '" + name + "' mise à jour avec votre position.", NamedTextColor.GREEN));
             }
-            case "delete" -> {
-                if (!sender.hasPermission("spawnmanager.location.delete")) {
-                    sender.sendMessage(Component.text("Vous n'avez pas la permission de supprimer des locations.", NamedTextColor.RED));
-                    return;
-                }
-                if (args.length < 2) {
-                    sender.sendMessage(Component.text("Usage: /location delete <nom>", NamedTextColor.RED));
-                    return;
-                }
-                String name = args[1];
-                if (locationManager.getLocation(name) == null) {
-                    sender.sendMessage(Component.text("Aucune location trouvée avec ce nom.", NamedTextColor.RED));
-                    return;
-                }
-                locationManager.unregisterLocation(name);
-                sender.sendMessage(Component.text("Location '" + name + "' supprimée.", NamedTextColor.GREEN));
+        });
+    }
+
+    /**
+     * Finds the spawn point closest to the player, in the player's world. Spawn points are
+     * the locations listed under {@code settings.spawn_points}, each mapped to the permission
+     * required to use it, or to an empty string when it is open to everyone.
+     *
+     * @param player      the player looking for a spawn
+     * @param spawnPoints the spawn points, mapped to the permission they require
+     * @return the closest spawn point the player may use, or {@code null} if there is none in the player's world
+     */
+    private LocationBuilder findNearestSpawn(Player player, Map<String, String> spawnPoints) {
+        if (spawnPoints.isEmpty()) {
+            return null;
+        }
+        return locationManager.findNearest(player.getLocation(), lb -> {
+            String permission = spawnPoints.get(lb.getName());
+            return permission != null && (permission.isEmpty() || permissionCache.has(player, permission));
+        });
+    }
+
+    /**
+     * Checks that the sender may use {@code /location}, telling them otherwise. Every
+     * sub-command of {@code /location} is guarded by this check.
+     *
+     * @param sender the entity (player, console, etc.) that executed the command. Must not be null.
+     * @return {@code true} if the sender holds {@code spawnmanager.location.use}
+     */
+    boolean canUse(@NotNull CommandSender sender) {
+        if (!hasPermission(sender, "spawnmanager.location.use")) {
+            messages.send(sender, Message.NO_PERMISSION_USE);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the sender may use the administrative sub-commands, telling them otherwise.
+     *
+     * @param sender the entity that executed the command. Must not be null.
+     * @return {@code true} if the sender holds {@code spawnmanager.admin.use}
+     */
+    boolean canAdminister(@NotNull CommandSender sender) {
+        if (!sender.hasPermission("spawnmanager.admin.use")) {
+            messages.send(sender, Message.NO_PERMISSION_ADMIN);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Handles {@code /location admin} typed without sub-command.
+     *
+     * @param sender the entity that executed the command
+     */
+    void adminUsage(CommandSender sender) {
+        messages.send(sender, Message.ADMIN_USAGE);
+    }
+
+    /**
+     * Handles {@code /location admin save}: writes the locations in the background.
+     *
+     * @param sender the entity that executed the command
+     */
+    void save(CommandSender sender) {
+        if (!sender.hasPermission("spawnmanager.admin.save")) {
+            messages.send(sender, Message.NO_PERMISSION_SAVE);
+            return;
+        }
+        // L'écriture se fait en arrière-plan, le message est renvoyé sur le thread principal
+        locationManager.saveLocationsAsync(Main.getInstance()).whenComplete((ignored, error) ->
+                Bukkit.getScheduler().runTask(Main.getInstance(), () -> {
+                    if (error == null) {
+                        messages.send(sender, Message.SAVE_DONE);
+                    } else {
+                        messages.send(sender, Message.SAVE_FAILED);
+                    }
+                }));
+    }
+
+    /**
+     * Handles {@code /location admin load [monde]}: reloads the locations of every world, or of one world.
+     *
+     * @param sender    the entity that executed the command
+     * @param worldName the world whose locations are reloaded, or {@code null} for every world
+     */
+    void load(CommandSender sender, String worldName) {
+        if (!sender.hasPermission("spawnmanager.admin.load")) {
+            messages.send(sender, Message.NO_PERMISSION_LOAD);
+            return;
+        }
+        if (worldName != null) {
+            // Chargement d'un seul monde, par l'index de la base en stockage sqlite
+            int count = locationManager.loadWorldLocations(Main.getInstance(), worldName);
+            if (count < 0) {
+                messages.send(sender, Message.LOAD_FAILED);
+            } else {
+                messages.send(sender, Message.LOAD_WORLD_DONE, count, worldName);
             }
-            case "teleport" -> {
-                if (!(sender instanceof Player)) {
-                    sender.sendMessage(Component.text("Seul un joueur peut exécuter cette commande.", NamedTextColor.RED));
-                    return;
-                }
-                if (!sender.hasPermission("spawnmanager.location.teleport")) {
-                    sender.sendMessage(Component.text("Vous n'avez pas la permission de vous téléporter.", NamedTextColor.RED));
-                    return;
-                }
-                if (args.length < 2) {
-                    sender.sendMessage(Component.text("Usage: /location teleport <nom>", NamedTextColor.RED));
-                    return;
-                }
-                String name = args[1];
-                if (!locationManager.teleportPlayer((Player) sender, name)) {
-                    sender.sendMessage(Component.text("Aucune location trouvée avec ce nom.", NamedTextColor.RED));
-                } else {
-                    sender.sendMessage(Component.text("Téléportation en cours vers '" + name + "'.", NamedTextColor.GREEN));
+            return;
+        }
+        if (locationManager.loadLocations(Main.getInstance()) < 0) {
+            messages.send(sender, Message.LOAD_FAILED);
+        } else {
+            messages.send(sender, Message.LOAD_DONE);
+        }
+    }
+
+    /**
+     * Handles {@code /location admin reload}: reloads {@code config.yml}.
+     *
+     * @param sender the entity that executed the command
+     */
+    void reload(CommandSender sender) {
+        if (!sender.hasPermission("spawnmanager.admin.reload")) {
+            messages.send(sender, Message.NO_PERMISSION_RELOAD);
+            return;
+        }
+        if (Main.getInstance().reloadSettings()) {
+            messages.send(sender, Message.RELOAD_DONE);
+        } else {
+            messages.send(sender, Message.RELOAD_FAILED);
+        }
+    }
+
+    /**
+     * Handles {@code /location admin convert <source> <cible>}: copies the locations from one storage to another.
+     *
+     * @param sender the entity that executed the command
+     * @param source the storage read, or {@code null} if it was not typed
+     * @param target the storage written, or {@code null} if it was not typed
+     */
+    void convert(CommandSender sender, StorageFormat source, StorageFormat target) {
+        if (!sender.hasPermission("spawnmanager.admin.convert")) {
+            messages.send(sender, Message.NO_PERMISSION_CONVERT);
+            return;
+        }
+        if (source == null || target == null || source == target) {
+            messages.send(sender, Message.CONVERT_USAGE);
+            return;
+        }
+        try {
+            int count = locationManager.convertStorage(Main.getInstance(), source, target);
+            messages.send(sender, Message.CONVERT_DONE, count, source.name().toLowerCase(), target.name().toLowerCase());
+        } catch (IOException e) {
+            messages.send(sender, Message.CONVERT_FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * Handles {@code /location admin import <format> <fichier> [conflits]}: imports the warps of a
+     * dump in the background, a bounded batch per tick. Conflicting names are skipped unless another
+     * policy is given.
+     *
+     * @param sender the entity that executed the command, told of the progress and of the summary
+     * @param format the format of the dump, or {@code null} if it was not typed
+     * @param path   the dump, relative to the data folder, or {@code null} if it was not typed
+     * @param policy what to do with the names already taken, or {@code null} for {@link ConflictPolicy#SKIP}
+     */
+    void importWarps(CommandSender sender, TransferFormat format, String path, ConflictPolicy policy) {
+        if (!sender.hasPermission("spawnmanager.admin.import")) {
+            messages.send(sender, Message.NO_PERMISSION_IMPORT);
+            return;
+        }
+        if (format == null || path == null) {
+            messages.send(sender, Message.IMPORT_USAGE);
+            return;
+        }
+        ConflictPolicy conflicts = policy != null ? policy : ConflictPolicy.SKIP;
+        WarpTransfers transfers = Main.getInstance().getWarpTransfers();
+        File source = transfers.resolve(path);
+        if (source == null) {
+            messages.send(sender, Message.TRANSFER_INVALID_PATH, path);
+            return;
+        }
+        if (!transfers.startImport(sender, format, source, conflicts, settings.get().importPerTick())) {
+            messages.send(sender, Message.IMPORT_RUNNING);
+            return;
+        }
+        messages.send(sender, Message.IMPORT_STARTED, path, conflicts.name().toLowerCase());
+    }
+
+    /**
+     * Handles {@code /location admin export <format> <fichier>}: writes every location to a dump in the background.
+     *
+     * @param sender the entity that executed the command, told once the dump is written
+     * @param format the format of the dump, or {@code null} if it was not typed
+     * @param path   the dump, relative to the data folder, or {@code null} if it was not typed
+     */
+    void exportWarps(CommandSender sender, TransferFormat format, String path) {
+        if (!sender.hasPermission("spawnmanager.admin.export")) {
+            messages.send(sender, Message.NO_PERMISSION_EXPORT);
+            return;
+        }
+        if (format == null || path == null) {
+            messages.send(sender, Message.EXPORT_USAGE);
+            return;
+        }
+        WarpTransfers transfers = Main.getInstance().getWarpTransfers();
+        File target = transfers.resolve(path);
+        if (target == null) {
+            messages.send(sender, Message.TRANSFER_INVALID_PATH, path);
+            return;
+        }
+        messages.send(sender, Message.EXPORT_STARTED, path);
+        transfers.startExport(sender, format, target);
+    }
+
+    /**
+     * Handles {@code /location admin stats [reset]}: shows the metrics, then resets them if asked.
+     *
+     * @param sender the entity that executed the command
+     * @param reset  whether the metrics are reset once shown
+     */
+    void stats(CommandSender sender, boolean reset) {
+        if (!sender.hasPermission("spawnmanager.admin.stats")) {
+            messages.send(sender, Message.NO_PERMISSION_STATS);
+            return;
+        }
+        sendStats(sender);
+        if (reset) {
+            metrics.reset();
+            messages.send(sender, Message.STATISTICS_RESET);
+        }
+    }
+
+    /**
+     * Handles {@code /location admin queue [reset]}: shows the state of the teleport queue,
+     * then resets its statistics if asked.
+     *
+     * @param sender the entity that executed the command
+     * @param reset  whether the statistics are reset once shown
+     */
+    void queue(CommandSender sender, boolean reset) {
+        if (!sender.hasPermission("spawnmanager.admin.queue")) {
+            messages.send(sender, Message.NO_PERMISSION_QUEUE);
+            return;
+        }
+        TeleportQueue queue = Main.getInstance().getTeleportQueue();
+        messages.send(sender, Message.QUEUE_HEADER);
+        messages.send(sender, Message.QUEUE_DEPTH, queue.getDepth(), queue.getBudgetPerTick());
+        messages.send(sender, Message.QUEUE_TELEPORTED, queue.getTeleportedCount(),
+                queue.getQueuedTeleportedCount(), queue.getDroppedCount());
+        messages.send(sender, Message.QUEUE_WAIT, String.format("%.1f", queue.getAverageWaitMillis()),
+                String.format("%.1f", queue.getMaxWaitMillis()));
+        if (reset) {
+            queue.resetStatistics();
+            messages.send(sender, Message.STATISTICS_RESET);
+        }
+    }
+
+    /**
+     * Handles {@code /location create <nom>}: registers a location at the position of the player.
+     *
+     * @param sender the entity that executed the command
+     * @param name   the name of the new location, or {@code null} if it was not typed
+     */
+    void create(CommandSender sender, String name) {
+        if (!(sender instanceof Player player)) {
+            messages.send(sender, Message.PLAYER_ONLY);
+            return;
+        }
+        if (!sender.hasPermission("spawnmanager.location.create")) {
+            messages.send(sender, Message.NO_PERMISSION_CREATE);
+            return;
+        }
+        if (name == null) {
+            messages.send(sender, Message.CREATE_USAGE);
+            return;
+        }
+        if (!LocationSnapshot.isValidPath(name)) {
+            messages.send(sender, Message.LOCATION_INVALID_NAME);
+            return;
+        }
+        Location location = player.getLocation();
+        if (locationManager.getLocation(name) != null) {
+            messages.send(sender, Message.LOCATION_EXISTS);
+            return;
+        }
+        LocationBuilder lb = new LocationBuilder(location, name);
+        locationManager.registerLocation(lb);
+        messages.send(sender, Message.CREATE_DONE, name);
+    }
+
+    /**
+     * Handles {@code /location set <nom>}: moves a location to the position of the player.
+     *
+     * @param sender the entity that executed the command
+     * @param name   the name of the location, or {@code null} if it was not typed
+     */
+    void set(CommandSender sender, String name) {
+        if (!(sender instanceof Player player)) {
+            messages.send(sender, Message.PLAYER_ONLY);
+            return;
+        }
+        if (!sender.hasPermission("spawnmanager.location.set")) {
+            messages.send(sender, Message.NO_PERMISSION_SET);
+            return;
+        }
+        if (name == null) {
+            messages.send(sender, Message.SET_USAGE);
+            return;
+        }
+        LocationBuilder lb = locationManager.getLocation(name, true);
+        if (lb == null) {
+            messages.send(sender, Message.LOCATION_NOT_FOUND);
+            return;
+        }
+        locationManager.updateLocation(lb.getName(), player.getLocation());
+        messages.send(sender, Message.SET_DONE, lb.getName());
+    }
+
+    /**
+     * Handles {@code /location rename <nom> <nouveau_nom>}.
+     *
+     * @param sender  the entity that executed the command
+     * @param name    the current name of the location, or {@code null} if it was not typed
+     * @param newName the new name of the location, or {@code null} if it was not typed
+     */
+    void rename(CommandSender sender, String name, String newName) {
+        if (!sender.hasPermission("spawnmanager.location.rename")) {
+            messages.send(sender, Message.NO_PERMISSION_RENAME);
+            return;
+        }
+        if (name == null || newName == null) {
+            messages.send(sender, Message.RENAME_USAGE);
+            return;
+        }
+        if (!LocationSnapshot.isValidPath(newName)) {
+            messages.send(sender, Message.LOCATION_INVALID_NAME);
+            return;
+        }
+        LocationBuilder lb = locationManager.getLocation(name, true);
+        if (lb == null) {
+            messages.send(sender, Message.LOCATION_NOT_FOUND);
+            return;
+        }
+        String currentName = lb.getName();
+        if (!locationManager.renameLocation(currentName, newName)) {
+            messages.send(sender, Message.LOCATION_EXISTS);
+            return;
+        }
+        messages.send(sender, Message.RENAME_DONE, currentName, newName);
+    }
+
+    /**
+     * Handles {@code /location delete <nom>}.
+     *
+     * @param sender the entity that executed the command
+     * @param name   the name of the location, or {@code null} if it was not typed
+     */
+    void delete(CommandSender sender, String name) {
+        if (!sender.hasPermission("spawnmanager.location.delete")) {
+            messages.send(sender, Message.NO_PERMISSION_DELETE);
+            return;
+        }
+        if (name == null) {
+            messages.send(sender, Message.DELETE_USAGE);
+            return;
+        }
+        LocationBuilder lb = locationManager.getLocation(name, true);
+        if (lb == null) {
+            messages.send(sender, Message.LOCATION_NOT_FOUND);
+            return;
+        }
+        locationManager.unregisterLocation(lb.getName());
+        messages.send(sender, Message.DELETE_DONE, lb.getName());
+    }
+
+    /**
+     * Handles {@code /location teleport <nom>}, once the player has stood still for the warmup.
+     *
+     * @param sender the entity that executed the command
+     * @param name   the name of the location, or {@code null} if it was not typed
+     */
+    void teleport(CommandSender sender, String name) {
+        if (!(sender instanceof Player player)) {
+            messages.send(sender, Message.PLAYER_ONLY);
+            return;
+        }
+        if (!hasPermission(sender, "spawnmanager.location.teleport")) {
+            messages.send(sender, Message.NO_PERMISSION_TELEPORT);
+            return;
+        }
+        if (name == null) {
+            messages.send(sender, Message.TELEPORT_USAGE);
+            return;
+        }
+        long start = System.nanoTime();
+        LocationBuilder destination = locationManager.getLocation(name, true);
+        if (destination == null || destination.getLocation() == null) {
+            messages.send(sender, Message.LOCATION_NOT_FOUND);
+            metrics.locationTeleports.recordSince(start);
+            return;
+        }
+        if (isUnsafe(player, destination)) {
+            messages.send(player, Message.LOCATION_UNSAFE, destination.getName());
+            metrics.locationTeleports.recordSince(start);
+            return;
+        }
+        // Seules les locations déclarées sous cooldowns.locations ont un cooldown
+        Settings current = settings.get();
+        CooldownSettings.LocationCooldown locationCooldown = current.cooldowns().location(destination.getName());
+        if (locationCooldown != null && cooldownManager.isOnCooldown(player, locationCooldown.type())) {
+            metrics.cooldownRejections.increment();
+            long remaining = cooldownManager.getRemainingTime(player, locationCooldown.type());
+            messages.send(player, Message.LOCATION_COOLDOWN, destination.getName(), (remaining / 1000) + 1);
+            metrics.locationTeleports.recordSince(start);
+            return;
+        }
+        long cooldown = locationCooldown != null ? cooldownSeconds(player, current, destination.getName()) : 0;
+        startWarmup(player, () -> {
+            // La location a pu être supprimée pendant le warmup
+            if (locationManager.teleportPlayer(player, name)) {
+                if (locationCooldown != null) {
+                    cooldownManager.startCooldown(player, locationCooldown.type(), cooldown);
                 }
+                messages.send(player, Message.TELEPORT_DONE, name);
+            } else {
+                messages.send(player, Message.LOCATION_NOT_FOUND);
             }
-            case "list" -> {
-                if (!sender.hasPermission("spawnmanager.location.list")) {
-                    sender.sendMessage(Component.text("Vous n'avez pas la permission de lister les locations.", NamedTextColor.RED));
-                    return;
-                }
-                Collection<LocationBuilder> locations = locationManager.getAllLocations();
-                if (locations.isEmpty()) {
-                    sender.sendMessage(Component.text("Aucune location enregistrée.", NamedTextColor.RED));
-                } else {
-                    sender.sendMessage(Component.text("Locations disponibles :", NamedTextColor.GOLD));
-                    for (LocationBuilder lb : locations) {
-                        sender.sendMessage(Component.text("- " + lb.getName(), NamedTextColor.YELLOW));
-                    }
-                }
+        });
+        metrics.locationTeleports.recordSince(start);
+    }
+
+    /**
+     * Handles {@code /location list [monde] [page]}: sends one page of the locations, of every
+     * world or of a single one.
+     *
+     * @param sender    the entity that executed the command
+     * @param worldName the world whose locations are listed, or {@code null} for every world
+     * @param page      the page to show, starting at 1
+     */
+    void list(CommandSender sender, String worldName, int page) {
+        if (!hasPermission(sender, "spawnmanager.location.list")) {
+            messages.send(sender, Message.NO_PERMISSION_LIST);
+            return;
+        }
+        Component rendered = listPages.render(locationManager.getSnapshot(), messages.language(sender), worldName, page);
+        if (rendered == null) {
+            if (worldName == null) {
+                messages.send(sender, Message.LIST_EMPTY);
+            } else {
+                messages.send(sender, Message.LIST_EMPTY_WORLD, worldName);
             }
-            default -> sender.sendMessage(Component.text("Commande inconnue. Utilisez /location help pour la liste des commandes.", NamedTextColor.RED));
+        } else {
+            sender.sendMessage(rendered);
+        }
+    }
+
+    /**
+     * Handles {@code /location group} typed without an action or a group.
+     *
+     * @param sender the entity that executed the command
+     */
+    void groupUsage(CommandSender sender) {
+        messages.send(sender, Message.GROUP_USAGE);
+    }
+
+    /**
+     * Handles {@code /location group list <groupe> [page]}: sends one page of the locations of a group.
+     *
+     * @param sender the entity that executed the command
+     * @param group  the path of the group, with or without its trailing separator
+     * @param page   the page to show, starting at 1
+     */
+    void groupList(CommandSender sender, String group, int page) {
+        if (!hasPermission(sender, "spawnmanager.location.list")) {
+            messages.send(sender, Message.NO_PERMISSION_LIST);
+            return;
+        }
+        String path = groupPath(group);
+        Component rendered = listPages.renderGroup(locationManager.getSnapshot(), messages.language(sender), path, page);
+        if (rendered == null) {
+            messages.send(sender, Message.GROUP_NOT_FOUND, path);
+        } else {
+            sender.sendMessage(rendered);
+        }
+    }
+
+    /**
+     * Handles {@code /location group delete <groupe>}: deletes every location of a group at once.
+     *
+     * @param sender the entity that executed the command
+     * @param group  the path of the group, with or without its trailing separator
+     */
+    void groupDelete(CommandSender sender, String group) {
+        if (!sender.hasPermission("spawnmanager.location.delete")) {
+            messages.send(sender, Message.NO_PERMISSION_DELETE);
+            return;
+        }
+        String path = groupPath(group);
+        int deleted = locationManager.unregisterGroup(path);
+        if (deleted == 0) {
+            messages.send(sender, Message.GROUP_NOT_FOUND, path);
+            return;
+        }
+        messages.send(sender, Message.GROUP_DELETE_DONE, deleted, path);
+    }
+
+    /**
+     * Handles {@code /location group random <groupe>}: teleports the player to a location of
+     * the group picked at random, as {@code /location teleport} would.
+     *
+     * @param sender the entity that executed the command
+     * @param group  the path of the group, with or without its trailing separator
+     */
+    void groupRandom(CommandSender sender, String group) {
+        String path = groupPath(group);
+        LocationBuilder member = locationManager.getRandomMember(path);
+        if (member == null) {
+            messages.send(sender, Message.GROUP_NOT_FOUND, path);
+            return;
+        }
+        teleport(sender, member.getName());
+    }
+
+    /**
+     * Removes the trailing separator a suggested group ends with.
+     */
+    private static String groupPath(String group) {
+        return group.length() > 1 && group.charAt(group.length() - 1) == LocationSnapshot.PATH_SEPARATOR
+                ? group.substring(0, group.length() - 1) : group;
+    }
+
+    /**
+     * Sends the counters and latency histograms of the plugin to the specified CommandSender.
+     * Latencies are shown in milliseconds; percentiles are estimated from the histogram buckets.
+     *
+     * @param sender the CommandSender to whom the statistics should be sent
+     */
+    private void sendStats(CommandSender sender) {
+        messages.send(sender, Message.STATS_HEADER);
+        for (LatencyHistogram histogram : metrics.getHistograms()) {
+            long count = histogram.getCount();
+            double average = count > 0 ? histogram.getSumNanos() / 1_000_000.0 / count : 0;
+            messages.send(sender, Message.STATS_HISTOGRAM, histogram.getName(), count, String.format("%.3f", average),
+                    String.format("%.3f", histogram.estimateNanos(0.5) / 1_000_000.0),
+                    String.format("%.3f", histogram.estimateNanos(0.99) / 1_000_000.0),
+                    String.format("%.3f", histogram.getMaxNanos() / 1_000_000.0));
+        }
+        for (Counter counter : metrics.getCounters()) {
+            messages.send(sender, Message.STATS_COUNTER, counter.getName(), counter.get());
         }
     }
 
@@ -266,65 +885,8 @@ public class LocationCommands implements TabExecutor {
      *
      * @param sender the CommandSender (e.g., a player or console) to whom the help message should be sent
      */
-    private void sendHelp(CommandSender sender) {
-        sender.sendMessage(Component.text("Utilisation des commandes :", NamedTextColor.GOLD));
-        sender.sendMessage(Component.text("/location create <nom> - Crée une location à votre position.", NamedTextColor.YELLOW));
-        sender.sendMessage(Component.text("/location set <nom> - Met à jour une location existante à votre position.", NamedTextColor.YELLOW));
-        sender.sendMessage(Component.text("/location delete <nom> - Supprime une location.", NamedTextColor.YELLOW));
-        sender.sendMessage(Component.text("/location teleport <nom> - Téléporte vers une location.", NamedTextColor.YELLOW));
-        sender.sendMessage(Component.text("/location list - Liste toutes les locations.", NamedTextColor.YELLOW));
-        sender.sendMessage(Component.text("/location admin save - Sauvegarde les locations.", NamedTextColor.YELLOW));
-        sender.sendMessage(Component.text("/location admin load - Charge les locations.", NamedTextColor.YELLOW));
-        sender.sendMessage(Component.text("/spawn - Téléporte au spawn (cooldown " + (cooldownManager.getRemainingTime((Player)sender)/1000 + 1)
-                + " sec).", NamedTextColor.YELLOW));
-    }
-
-    /**
-     * Handles the tab completion for commands managed by this class.
-     * Provides command suggestions based on the current input and command context.
-     *
-     * @param sender the source of the command, typically a player or the console
-     * @param cmd the command being executed for which tab completion is requested
-     * @param label the alias used for the command
-     * @param args the arguments already provided for the command
-     * @return a list of possible completions for the current input, or an empty list if no completions are available
-     */
-    @Override
-    public @Nullable List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command cmd, @NotNull String label, @NotNull String[] args) {
-        String commandName = cmd.getName().toLowerCase();
-        List<String> completions = new ArrayList<>();
-
-        if (commandName.equals("spawn")) {
-            return completions;
-        } else if (commandName.equals("location")) {
-            if (args.length == 1) {
-                List<String> subCommands = List.of("create", "set", "delete", "teleport", "list", "help", "admin");
-                String current = args[0].toLowerCase();
-                for (String sub : subCommands) {
-                    if (sub.startsWith(current)) {
-                        completions.add(sub);
-                    }
-                }
-            } else if (args.length == 2) {
-                String subCommand = args[0].toLowerCase();
-                if (subCommand.equals("delete") || subCommand.equals("set") || subCommand.equals("teleport")) {
-                    String current = args[1].toLowerCase();
-                    for (LocationBuilder lb : locationManager.getAllLocations()) {
-                        if (lb.getName().toLowerCase().startsWith(current)) {
-                            completions.add(lb.getName());
-                        }
-                    }
-                } else if (subCommand.equals("admin")) {
-                    List<String> adminSubs = List.of("save", "load");
-                    String current = args[1].toLowerCase();
-                    for (String sub : adminSubs) {
-                        if (sub.startsWith(current)) {
-                            completions.add(sub);
-                        }
-                    }
-                }
-            }
-        }
-        return completions;
+    void help(CommandSender sender) {
+        long cooldown = sender instanceof Player player ? cooldownManager.getRemainingTime(player) / 1000 + 1 : 0;
+        messages.send(sender, Message.HELP, cooldown);
     }
 }
@@ -0,0 +1,223 @@
+package akia.spawnManager.command;
+
+import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.manager.LocationSnapshot;
+import akia.spawnManager.message.Message;
+import akia.spawnManager.message.Messages;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the output of {@code /location list} and {@code /location group list} one page at a time. Each page is a single
+ * {@link Component}, so a page costs one chat message, and every entry can be clicked to
+ * teleport to the location.
+ *
+ * <p>Rendered pages are cached per language, world or group filter and page number, and the whole cache is
+ * dropped as soon as the version of the registry snapshot changes or the messages are
+ * reloaded: listing the same page twice without any change in between builds nothing. This class must only be used from
+ * the main thread.</p>
+ */
+public class LocationListPages {
+
+    /**
+     * The number of locations shown per page.
+     */
+    public static final int PAGE_SIZE = 10;
+    /**
+     * The maximum number of world and group filters kept in the cache, since the filter is typed by the user.
+     */
+    private static final int MAX_CACHED_FILTERS = 16;
+
+    /**
+     * The catalog the texts of the pages are taken from.
+     */
+    private final Messages messages;
+    /**
+     * The version of the snapshot the cached pages were rendered from.
+     */
+    private long version = -1L;
+    /**
+     * The revision of the catalog the cached pages were rendered with.
+     */
+    private int messagesRevision = -1;
+    /**
+     * The cached listings, keyed by language and world name or group path.
+     */
+    private final Map<String, Listing> listings = new HashMap<>();
+
+    /**
+     * Constructs a new {@code LocationListPages} with an empty cache.
+     *
+     * @param messages the catalog the texts of the pages are taken from. Must not be null.
+     */
+    public LocationListPages(Messages messages) {
+        this.messages = messages;
+    }
+
+    /**
+     * Renders a page of the locations, sorted by name.
+     *
+     * @param snapshot  the snapshot of the registry to list
+     * @param language  the language of the page, as returned by {@link Messages#language}
+     * @param worldName the world whose locations are listed, or {@code null} for every world
+     * @param page      the page number, starting at 1. Clamped to the existing pages.
+     * @return the rendered page, or {@code null} if there is no location to list
+     */
+    public Component render(LocationSnapshot snapshot, String language, String worldName, int page) {
+        return render(listing(snapshot, language, worldName, null), language, page);
+    }
+
+    /**
+     * Renders a page of the locations of a group, sorted by name. Only the locations of the
+     * group are visited, whatever the size of the registry.
+     *
+     * @param snapshot the snapshot of the registry to list
+     * @param language the language of the page, as returned by {@link Messages#language}
+     * @param group    the path of the group
+     * @param page     the page number, starting at 1. Clamped to the existing pages.
+     * @return the rendered page, or {@code null} if the group is empty
+     */
+    public Component renderGroup(LocationSnapshot snapshot, String language, String group, int page) {
+        return render(listing(snapshot, language, null, group), language, page);
+    }
+
+    private Component render(Listing listing, String language, int page) {
+        if (listing.entries.isEmpty()) {
+            return null;
+        }
+        int index = Math.max(1, Math.min(page, listing.pages.length)) - 1;
+        Component rendered = listing.pages[index];
+        if (rendered == null) {
+            rendered = renderPage(listing, language, index);
+            listing.pages[index] = rendered;
+        }
+        return rendered;
+    }
+
+    /**
+     * Retrieves the filtered and sorted locations of a world or of a group, dropping the cache
+     * if the registry or the messages changed since it was filled.
+     */
+    private Listing listing(LocationSnapshot snapshot, String language, String worldName, String group) {
+        if (snapshot.version() != version || messages.getRevision() != messagesRevision) {
+            listings.clear();
+            version = snapshot.version();
+            messagesRevision = messages.getRevision();
+        }
+        // \0 précède un monde, \1 un groupe : un monde et un groupe de même nom ne se confondent pas
+        String key = group != null ? language + '\1' + group
+                : worldName == null ? language : language + '\0' + worldName;
+        Listing listing = listings.get(key);
+        if (listing == null) {
+            if (listings.size() >= MAX_CACHED_FILTERS) {
+                listings.clear();
+            }
+            List<LocationBuilder> entries = group != null ? members(snapshot, group) : filter(snapshot, worldName);
+            listing = new Listing(entries, worldName, group);
+            listings.put(key, listing);
+        }
+        return listing;
+    }
+
+    /**
+     * Selects the locations of a group, already contiguous and sorted in the snapshot.
+     */
+    private static List<LocationBuilder> members(LocationSnapshot snapshot, String group) {
+        List<String> names = snapshot.group(group);
+        List<LocationBuilder> entries = new ArrayList<>(names.size());
+        for (String name : names) {
+            entries.add(snapshot.get(name));
+        }
+        return entries;
+    }
+
+    /**
+     * Selects the locations of a world in the sorted order of the snapshot.
+     */
+    private static List<LocationBuilder> filter(LocationSnapshot snapshot, String worldName) {
+        List<String> names = snapshot.sortedNames();
+        List<LocationBuilder> entries = new ArrayList<>(worldName == null ? names.size() : 16);
+        for (String name : names) {
+            LocationBuilder locationBuilder = snapshot.get(name);
+            if (worldName == null || worldName.equals(locationBuilder.getWorldName())) {
+                entries.add(locationBuilder);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Builds a page: a header, one clickable line per location and the navigation links.
+     */
+    private Component renderPage(Listing listing, String language, int index) {
+        int page = index + 1;
+        int pageCount = listing.pages.length;
+        String worldName = listing.worldName;
+        List<Component> lines = new ArrayList<>(PAGE_SIZE + 2);
+        if (listing.group != null) {
+            lines.add(messages.get(language, Message.LIST_HEADER_GROUP, listing.group, page, pageCount));
+        } else {
+            lines.add(worldName == null
+                    ? messages.get(language, Message.LIST_HEADER, page, pageCount)
+                    : messages.get(language, Message.LIST_HEADER_WORLD, worldName, page, pageCount));
+        }
+
+        int end = Math.min(listing.entries.size(), page * PAGE_SIZE);
+        for (int i = index * PAGE_SIZE; i < end; i++) {
+            LocationBuilder lb = listing.entries.get(i);
+            Component line = worldName == null && lb.getWorldName() != null
+                    ? messages.get(language, Message.LIST_ENTRY_WORLD, lb.getName(), lb.getWorldName())
+                    : messages.get(language, Message.LIST_ENTRY, lb.getName());
+            lines.add(line.clickEvent(ClickEvent.runCommand("/location teleport " + lb.getName()))
+                    .hoverEvent(HoverEvent.showText(messages.get(language, Message.LIST_HOVER, lb.getName()))));
+        }
+
+        if (pageCount > 1) {
+            String command = listing.group != null ? "/location group list " + listing.group + " "
+                    : "/location list " + (worldName == null ? "" : worldName + " ");
+            Component navigation = Component.empty();
+            if (index > 0) {
+                navigation = navigation.append(messages.get(language, Message.LIST_PREVIOUS)
+                        .clickEvent(ClickEvent.runCommand(command + index)));
+            }
+            navigation = navigation.append(messages.get(language, Message.LIST_PAGE, page, pageCount));
+            if (page < pageCount) {
+                navigation = navigation.append(messages.get(language, Message.LIST_NEXT)
+                        .clickEvent(ClickEvent.runCommand(command + (page + 1))));
+            }
+            lines.add(navigation);
+        }
+        return Component.join(JoinConfiguration.newlines(), lines);
+    }
+
+    /**
+     * The locations matching a world or group filter and the pages rendered so far.
+     */
+    private static final class Listing {
+
+        private final List<LocationBuilder> entries;
+        /**
+         * The world the locations were filtered by, or {@code null}.
+         */
+        private final String worldName;
+        /**
+         * The group the locations were taken from, or {@code null}.
+         */
+        private final String group;
+        private final Component[] pages;
+
+        private Listing(List<LocationBuilder> entries, String worldName, String group) {
+            this.entries = entries;
+            this.worldName = worldName;
+            this.group = group;
+            this.pages = new Component[Math.max(1, (entries.size() + PAGE_SIZE - 1) / PAGE_SIZE)];
+        }
+    }
+}
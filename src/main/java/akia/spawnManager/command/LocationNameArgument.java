@@ -0,0 +1,116 @@
+package akia.spawnManager.command;
+
+import akia.spawnManager.manager.LocationManager;
+import akia.spawnManager.manager.LocationSnapshot;
+import akia.spawnManager.metrics.Metrics;
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import io.papermc.paper.command.brigadier.argument.CustomArgumentType;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The name of a location in a Brigadier command. A name is any run of characters up to the
+ * next space, as it was before the commands were parsed by Brigadier; the client validates it
+ * as a single word, so unusual characters are only highlighted, never refused.
+ *
+ * <p>The names of the registered locations are suggested off the main thread: they are read
+ * from the immutable snapshot of the registry, which needs no synchronization. Hierarchical
+ * names are suggested one segment at a time: typing {@code arena/} suggests the locations and
+ * the groups directly under {@code arena}, never the whole tree below it.</p>
+ */
+public final class LocationNameArgument implements CustomArgumentType<String, String> {
+
+    /**
+     * The maximum number of location names suggested.
+     */
+    static final int MAX_COMPLETIONS = 50;
+
+    /**
+     * The registry whose names are suggested, or {@code null} to suggest nothing.
+     */
+    private final LocationManager locationManager;
+    /**
+     * The metrics recording the time taken by the suggestions, or {@code null}.
+     */
+    private final Metrics metrics;
+    /**
+     * Whether only the groups are suggested, for the commands acting on a whole group.
+     */
+    private final boolean groupsOnly;
+
+    private LocationNameArgument(LocationManager locationManager, Metrics metrics, boolean groupsOnly) {
+        this.locationManager = locationManager;
+        this.metrics = metrics;
+        this.groupsOnly = groupsOnly;
+    }
+
+    /**
+     * Creates the argument naming a registered location, whose names are suggested.
+     *
+     * @param locationManager the registry whose names are suggested. Must not be null.
+     * @param metrics         the metrics recording the time taken by the suggestions. Must not be null.
+     * @return the argument
+     */
+    public static LocationNameArgument existing(LocationManager locationManager, Metrics metrics) {
+        return new LocationNameArgument(locationManager, metrics, false);
+    }
+
+    /**
+     * Creates the argument naming a group of locations, such as {@code arena} for {@code arena/red}.
+     * Only the groups are suggested; the trailing separator of a suggestion may be kept.
+     *
+     * @param locationManager the registry whose groups are suggested. Must not be null.
+     * @param metrics         the metrics recording the time taken by the suggestions. Must not be null.
+     * @return the argument
+     */
+    public static LocationNameArgument group(LocationManager locationManager, Metrics metrics) {
+        return new LocationNameArgument(locationManager, metrics, true);
+    }
+
+    /**
+     * Creates the argument naming a location that does not exist yet, for which nothing is suggested.
+     *
+     * @return the argument
+     */
+    public static LocationNameArgument newName() {
+        return new LocationNameArgument(null, null, false);
+    }
+
+    @Override
+    public String parse(StringReader reader) {
+        int start = reader.getCursor();
+        while (reader.canRead() && reader.peek() != ' ') {
+            reader.skip();
+        }
+        return reader.getString().substring(start, reader.getCursor());
+    }
+
+    @Override
+    public ArgumentType<String> getNativeType() {
+        return StringArgumentType.word();
+    }
+
+    @Override
+    public <S> CompletableFuture<Suggestions> listSuggestions(CommandContext<S> context, SuggestionsBuilder builder) {
+        if (locationManager == null) {
+            return Suggestions.empty();
+        }
+        // L'instantané du registre est immuable : la recherche peut quitter le thread principal
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            for (String name : locationManager.completeLocationPath(builder.getRemaining(), MAX_COMPLETIONS)) {
+                if (!groupsOnly || name.charAt(name.length() - 1) == LocationSnapshot.PATH_SEPARATOR) {
+                    builder.suggest(name);
+                }
+            }
+            Suggestions suggestions = builder.build();
+            metrics.tabCompletions.recordSince(start);
+            return suggestions;
+        });
+    }
+}
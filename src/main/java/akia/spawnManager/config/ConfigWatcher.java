@@ -0,0 +1,127 @@
+package akia.spawnManager.config;
+
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Watches {@code config.yml} and triggers a reload on the main thread when it changes.
+ *
+ * <p>Editors often write a file in several steps, so the reload is delayed by
+ * {@value #DEBOUNCE_TICKS} ticks and the changes seen in the meantime are coalesced into a
+ * single reload. The watch runs on a daemon thread and stops with {@link #close()}.</p>
+ */
+public class ConfigWatcher {
+
+    /**
+     * The delay, in ticks, between the first change seen and the reload.
+     */
+    private static final long DEBOUNCE_TICKS = 10L;
+
+    /**
+     * The plugin whose configuration is watched.
+     */
+    private final Plugin plugin;
+    /**
+     * The action reloading the configuration, run on the main thread.
+     */
+    private final Runnable reload;
+    /**
+     * Whether a reload is already scheduled.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    /**
+     * The watch service of the data folder, or {@code null} when the watcher is stopped.
+     */
+    private WatchService watchService;
+
+    /**
+     * Constructs a new, stopped {@code ConfigWatcher}.
+     *
+     * @param plugin the plugin whose {@code config.yml} is watched. Must not be null.
+     * @param reload the action reloading the configuration, run on the main thread. Must not be null.
+     */
+    public ConfigWatcher(Plugin plugin, Runnable reload) {
+        this.plugin = plugin;
+        this.reload = reload;
+    }
+
+    /**
+     * Starts watching the data folder of the plugin. Does nothing if the watcher is already running.
+     */
+    public void start() {
+        if (watchService != null) {
+            return;
+        }
+        Path folder = plugin.getDataFolder().toPath();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Impossible de surveiller config.yml.", e);
+            close();
+            return;
+        }
+        WatchService service = watchService;
+        Thread thread = new Thread(() -> watch(service), "SpawnManager-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the configuration.
+     */
+    public void close() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Le thread s'arrête de toute façon à la prochaine attente
+        }
+        watchService = null;
+    }
+
+    /**
+     * Waits for changes in the data folder until the watch service is closed.
+     */
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path path && path.toString().equals("config.yml")) {
+                        scheduleReload();
+                    }
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // Arrêt demandé par close()
+        }
+    }
+
+    private void scheduleReload() {
+        if (!plugin.isEnabled() || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            scheduled.set(false);
+            reload.run();
+        }, DEBOUNCE_TICKS);
+    }
+}
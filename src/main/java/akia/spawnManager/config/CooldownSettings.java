@@ -0,0 +1,174 @@
+package akia.spawnManager.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable view of the {@code cooldowns} section of {@code config.yml}: the permission tiers
+ * and the cooldowns specific to some locations.
+ *
+ * <p>A player belongs to the first tier, in the order of the configuration, whose permission
+ * {@code spawnmanager.cooldown.<tier>} they hold. The cooldown of a location is, from the most
+ * to the least specific: the value of the player's tier for this location, the default value
+ * of this location, the value of the player's tier, then {@code settings.teleport_delay}.</p>
+ *
+ * @param tiers     the permission tiers, in the order they are checked
+ * @param locations the cooldowns specific to some locations, keyed by lower-case location name
+ */
+public record CooldownSettings(List<Tier> tiers, Map<String, LocationCooldown> locations) {
+
+    /**
+     * Marks a duration that is not configured and falls back to a less specific one.
+     */
+    public static final long INHERIT = -1L;
+
+    /**
+     * The prefix of the permission of every tier.
+     */
+    public static final String TIER_PERMISSION_PREFIX = "spawnmanager.cooldown.";
+
+    /**
+     * The settings of a configuration without {@code cooldowns} section.
+     */
+    public static final CooldownSettings NONE = new CooldownSettings(List.of(), Map.of());
+
+    /**
+     * Freezes the collections.
+     */
+    public CooldownSettings {
+        tiers = List.copyOf(tiers);
+        locations = Collections.unmodifiableMap(new HashMap<>(locations));
+    }
+
+    /**
+     * Resolves the cooldown of a location for a tier.
+     *
+     * @param locationName   the name of the location, or {@code null} for the global cooldown
+     * @param tier           the index of the player's tier in {@link #tiers()}, or -1 if the player has none
+     * @param defaultSeconds the cooldown used when nothing more specific is configured
+     * @return the cooldown in seconds
+     */
+    public long seconds(String locationName, int tier, long defaultSeconds) {
+        LocationCooldown location = locationName == null ? null : locations.get(locationName.toLowerCase(Locale.ROOT));
+        if (location != null) {
+            if (tier >= 0 && location.tierSeconds()[tier] != INHERIT) {
+                return location.tierSeconds()[tier];
+            }
+            if (location.defaultSeconds() != INHERIT) {
+                return location.defaultSeconds();
+            }
+        }
+        if (tier >= 0 && tiers.get(tier).seconds() != INHERIT) {
+            return tiers.get(tier).seconds();
+        }
+        return defaultSeconds;
+    }
+
+    /**
+     * Retrieves the cooldown specific to a location.
+     *
+     * @param locationName the name of the location, case-insensitive
+     * @return its cooldown, or {@code null} if the location has no cooldown of its own
+     */
+    public LocationCooldown location(String locationName) {
+        return locations.get(locationName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Reads the {@code cooldowns} section of the configuration.
+     *
+     * <pre>
+     * cooldowns:
+     *   tiers:
+     *     vip: 5          # spawnmanager.cooldown.vip
+     *   locations:
+     *     arena: 60       # durée pour tous
+     *     donjon:
+     *       default: 300
+     *       vip: 120
+     * </pre>
+     *
+     * @param section the {@code cooldowns} section, or {@code null}
+     * @return the cooldown settings
+     * @throws IllegalArgumentException if a duration is negative
+     */
+    public static CooldownSettings from(ConfigurationSection section) {
+        if (section == null) {
+            return NONE;
+        }
+        List<Tier> tiers = new ArrayList<>();
+        Map<String, Integer> tierIndices = new HashMap<>();
+        ConfigurationSection tierSection = section.getConfigurationSection("tiers");
+        if (tierSection != null) {
+            for (String name : tierSection.getKeys(false)) {
+                tierIndices.put(name.toLowerCase(Locale.ROOT), tiers.size());
+                tiers.add(new Tier(name, TIER_PERMISSION_PREFIX + name.toLowerCase(Locale.ROOT),
+                        duration("cooldowns.tiers." + name, tierSection.getLong(name))));
+            }
+        }
+
+        Map<String, LocationCooldown> locations = new HashMap<>();
+        ConfigurationSection locationSection = section.getConfigurationSection("locations");
+        if (locationSection != null) {
+            for (String name : locationSection.getKeys(false)) {
+                String key = name.toLowerCase(Locale.ROOT);
+                long[] tierSeconds = new long[tiers.size()];
+                Arrays.fill(tierSeconds, INHERIT);
+                long defaultSeconds;
+                ConfigurationSection perTier = locationSection.getConfigurationSection(name);
+                if (perTier == null) {
+                    defaultSeconds = duration("cooldowns.locations." + name, locationSection.getLong(name));
+                } else {
+                    defaultSeconds = perTier.contains("default")
+                            ? duration("cooldowns.locations." + name + ".default", perTier.getLong("default"))
+                            : INHERIT;
+                    for (String tierName : perTier.getKeys(false)) {
+                        Integer tier = tierIndices.get(tierName.toLowerCase(Locale.ROOT));
+                        if (tier != null) {
+                            tierSeconds[tier] = duration("cooldowns.locations." + name + "." + tierName, perTier.getLong(tierName));
+                        } else if (!tierName.equals("default")) {
+                            throw new IllegalArgumentException("cooldowns.locations." + name + "." + tierName
+                                    + " : palier inconnu, déclarez-le sous cooldowns.tiers.");
+                        }
+                    }
+                }
+                locations.put(key, new LocationCooldown("location:" + key, defaultSeconds, tierSeconds));
+            }
+        }
+        return new CooldownSettings(tiers, locations);
+    }
+
+    private static long duration(String path, long seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException(path + " doit être positif ou nul.");
+        }
+        return seconds;
+    }
+
+    /**
+     * A permission tier.
+     *
+     * @param name       the name of the tier, as written in the configuration
+     * @param permission the permission granting the tier
+     * @param seconds    the global cooldown of the tier, in seconds
+     */
+    public record Tier(String name, String permission, long seconds) {
+    }
+
+    /**
+     * The cooldown of a location.
+     *
+     * @param type           the cooldown type under which the cooldowns of this location are stored
+     * @param defaultSeconds the cooldown of the players without a specific tier value, or {@link #INHERIT}
+     * @param tierSeconds    the cooldown of every tier, indexed like {@link #tiers()}, or {@link #INHERIT}
+     */
+    public record LocationCooldown(String type, long defaultSeconds, long[] tierSeconds) {
+    }
+}
@@ -0,0 +1,221 @@
+package akia.spawnManager.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The {@code join_routing} section of {@code config.yml}, compiled into a decision table: the
+ * rules choosing where a joining player is sent, by first join, permission group and world.
+ *
+ * <p>The rules are checked in the order of the configuration and the first one matching the
+ * player wins. When the configuration is read, they are split by first join and by world: each
+ * pair gets the ordered list of the rules that can still match it, cut after the first rule
+ * without permission, since nothing after it is ever reached. A join therefore costs a map
+ * lookup, then one cached permission check per remaining rule.</p>
+ */
+public final class JoinRouting {
+
+    /**
+     * The value of {@code location} keeping the player where they logged out.
+     */
+    public static final String STAY = "none";
+
+    /**
+     * The prefix of the permission checked by {@code group}, the one LuckPerms gives the members of a group.
+     */
+    public static final String GROUP_PERMISSION_PREFIX = "group.";
+
+    /**
+     * The routing of a configuration without {@code join_routing} section: every player goes to the spawn.
+     */
+    public static final JoinRouting NONE = new JoinRouting(List.of());
+
+    /**
+     * The rules, in the order of the configuration.
+     */
+    private final List<Rule> rules;
+    /**
+     * The candidate rules of the players joining for the first time.
+     */
+    private final Branch firstJoin;
+    /**
+     * The candidate rules of the returning players.
+     */
+    private final Branch returning;
+
+    /**
+     * Compiles the decision table of a list of rules.
+     *
+     * @param rules the rules, in the order they are checked
+     */
+    public JoinRouting(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+        this.firstJoin = new Branch(this.rules, true);
+        this.returning = new Branch(this.rules, false);
+    }
+
+    /**
+     * Chooses the rule applying to a joining player.
+     *
+     * @param firstJoin     whether the player joins the server for the first time
+     * @param worldName     the world the player logged out in, where they join
+     * @param hasPermission checks a permission of the player
+     * @return the first matching rule, or {@code null} if none matches and the player goes to the spawn
+     */
+    public Rule route(boolean firstJoin, String worldName, Predicate<String> hasPermission) {
+        Branch branch = firstJoin ? this.firstJoin : returning;
+        Rule[] candidates = branch.byWorld.getOrDefault(worldName, branch.anyWorld);
+        for (Rule rule : candidates) {
+            if (rule.permission() == null || hasPermission.test(rule.permission())) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the rules, in the order of the configuration
+     */
+    public List<Rule> rules() {
+        return rules;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JoinRouting other && rules.equals(other.rules);
+    }
+
+    @Override
+    public int hashCode() {
+        return rules.hashCode();
+    }
+
+    /**
+     * Reads and compiles the {@code join_routing} section.
+     *
+     * <pre>
+     * join_routing:
+     *   rules:
+     *     - first_join: true
+     *       location: tutoriel
+     *     - group: vip            # permission group.vip
+     *       location: vip/lobby
+     *     - world: world_nether
+     *       location: none        # reste à sa position
+     * </pre>
+     *
+     * @param section the section, or {@code null} if it is missing
+     * @return the compiled routing
+     * @throws IllegalArgumentException if a rule is invalid
+     */
+    public static JoinRouting from(ConfigurationSection section) {
+        if (section == null) {
+            return NONE;
+        }
+        List<Rule> rules = new ArrayList<>();
+        List<Map<?, ?>> entries = section.getMapList("rules");
+        for (int i = 0; i < entries.size(); i++) {
+            rules.add(rule("join_routing.rules[" + i + "]", entries.get(i)));
+        }
+        return new JoinRouting(rules);
+    }
+
+    private static Rule rule(String path, Map<?, ?> entry) {
+        Object location = entry.get("location");
+        if (location == null || location.toString().isBlank()) {
+            throw new IllegalArgumentException(path + ".location est obligatoire (nom de location ou " + STAY + ").");
+        }
+        Object firstJoin = entry.get("first_join");
+        if (firstJoin != null && !(firstJoin instanceof Boolean)) {
+            throw new IllegalArgumentException(path + ".first_join doit valoir true ou false.");
+        }
+        Object group = entry.get("group");
+        Object permission = entry.get("permission");
+        if (group != null && permission != null) {
+            throw new IllegalArgumentException(path + " : group et permission ne peuvent pas être combinés.");
+        }
+        String node = group != null
+                ? GROUP_PERMISSION_PREFIX + group.toString().toLowerCase(Locale.ROOT)
+                : permission != null ? permission.toString() : null;
+        Object world = entry.get("world");
+        String destination = location.toString();
+        return new Rule((Boolean) firstJoin, node, world != null ? world.toString() : null,
+                destination.equalsIgnoreCase(STAY) ? null : destination);
+    }
+
+    /**
+     * A routing rule. Every condition left {@code null} matches every player.
+     *
+     * @param firstJoin  {@code true} for the players joining for the first time, {@code false} for the returning ones
+     * @param permission the permission the player must hold
+     * @param worldName  the world the player must have logged out in
+     * @param location   the name of the location the player is sent to, or {@code null} to leave them where they are
+     */
+    public record Rule(Boolean firstJoin, String permission, String worldName, String location) {
+
+        /**
+         * @return {@code true} if the player stays where they logged out
+         */
+        public boolean stays() {
+            return location == null;
+        }
+
+        private boolean matches(boolean firstJoin, String worldName) {
+            return (this.firstJoin == null || this.firstJoin == firstJoin)
+                    && (this.worldName == null || this.worldName.equals(worldName));
+        }
+    }
+
+    /**
+     * The candidate rules of the first or of the returning joins.
+     */
+    private static final class Branch {
+
+        /**
+         * The candidates of the players logging out in a world named by a rule.
+         */
+        private final Map<String, Rule[]> byWorld = new HashMap<>();
+        /**
+         * The candidates of the players logging out in any other world.
+         */
+        private final Rule[] anyWorld;
+
+        private Branch(List<Rule> rules, boolean firstJoin) {
+            Set<String> worlds = new LinkedHashSet<>();
+            for (Rule rule : rules) {
+                if (rule.worldName() != null) {
+                    worlds.add(rule.worldName());
+                }
+            }
+            for (String world : worlds) {
+                byWorld.put(world, candidates(rules, firstJoin, world));
+            }
+            // Aucun monde ne porte ce nom : seules les règles sans condition de monde restent
+            anyWorld = candidates(rules, firstJoin, null);
+        }
+
+        /**
+         * Keeps the rules that can match, stopping after the first one that always does.
+         */
+        private static Rule[] candidates(List<Rule> rules, boolean firstJoin, String worldName) {
+            List<Rule> candidates = new ArrayList<>();
+            for (Rule rule : rules) {
+                if (rule.matches(firstJoin, worldName)) {
+                    candidates.add(rule);
+                    if (rule.permission() == null) {
+                        break;
+                    }
+                }
+            }
+            return candidates.toArray(new Rule[0]);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package akia.spawnManager.config;
+
+import akia.spawnManager.storage.StorageFormat;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, validated snapshot of {@code config.yml}. It is built once when the plugin is
+ * enabled and again on every reload, so that commands and listeners read plain fields
+ * instead of walking the YAML tree on every use.
+ *
+ * @param spawnLocation      the name of the location players are sent to by {@code /spawn} and on join
+ * @param cooldownSeconds    the cooldown of {@code /spawn}, in seconds
+ * @param spawnNearest       whether {@code /spawn} sends players to the closest spawn point by default
+ * @param spawnPoints        the spawn points usable by {@code /spawn nearest}, mapped to the permission
+ *                           they require, or to an empty string when they are open to everyone
+ * @param autosaveSeconds    the interval between two autosaves, in seconds, or 0 to disable them
+ * @param saveTimeoutSeconds how long the last save is waited for when the server stops, in seconds
+ * @param teleportsPerTick   the maximum number of teleports performed per tick
+ * @param chunkTicketRadius  the radius in chunks kept loaded around hot locations, or a negative
+ *                           value to disable the chunk tickets
+ * @param hotLocations       the locations whose chunks are kept loaded, in addition to the spawn
+ * @param storageFormat      the format of the locations file
+ * @param watchConfig        whether {@code config.yml} is reloaded automatically when it changes
+ * @param metricsDumpSeconds the interval between two dumps of the metrics to {@code metrics.prom},
+ *                           in seconds, or 0 to disable them
+ * @param language           the language of the messages sent to the console and to the players whose
+ *                           locale has no message file, such as {@code fr} or {@code en}
+ * @param warmupSeconds      how long a player must stand still before {@code /spawn} and
+ *                           {@code /location teleport} teleport them, in seconds, or 0 to teleport at once,
+ *                           the default when the key is missing
+ * @param cooldowns          the cooldowns of the permission tiers and of the locations that have their own
+ * @param importPerTick      the maximum number of warps registered per tick by {@code /location admin import}
+ * @param spreadSpawn        the locations whose players are spread over safe spots around them
+ * @param backHistorySize    the number of positions {@code /back} remembers per player
+ * @param backCooldownSeconds how long a player waits between two uses of {@code /back}, in seconds
+ * @param joinRouting        the compiled rules choosing where joining players are sent, the spawn
+ *                           being used when none matches
+ */
+public record Settings(String spawnLocation, long cooldownSeconds, boolean spawnNearest,
+                       Map<String, String> spawnPoints, long autosaveSeconds, long saveTimeoutSeconds,
+                       int teleportsPerTick, int chunkTicketRadius, Set<String> hotLocations,
+                       StorageFormat storageFormat, boolean watchConfig, long metricsDumpSeconds,
+                       String language, long warmupSeconds, CooldownSettings cooldowns,
+                       int importPerTick, SpreadSpawnSettings spreadSpawn,
+                       int backHistorySize, long backCooldownSeconds, JoinRouting joinRouting) {
+
+    /**
+     * Validates the values and freezes the collections.
+     *
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public Settings {
+        if (spawnLocation == null || spawnLocation.isBlank()) {
+            throw new IllegalArgumentException("settings.location_spawn ne peut être vide.");
+        }
+        if (cooldownSeconds < 0) {
+            throw new IllegalArgumentException("settings.teleport_delay doit être positif ou nul.");
+        }
+        if (autosaveSeconds < 0) {
+            autosaveSeconds = 0;
+        }
+        if (metricsDumpSeconds < 0) {
+            metricsDumpSeconds = 0;
+        }
+        if (warmupSeconds < 0) {
+            throw new IllegalArgumentException("settings.warmup doit être positif ou nul.");
+        }
+        if (saveTimeoutSeconds < 0) {
+            throw new IllegalArgumentException("settings.save_timeout doit être positif ou nul.");
+        }
+        if (teleportsPerTick < 1) {
+            throw new IllegalArgumentException("teleport_queue.per_tick doit être au moins 1.");
+        }
+        if (importPerTick < 1) {
+            throw new IllegalArgumentException("transfer.per_tick doit être au moins 1.");
+        }
+        if (backHistorySize < 1 || backHistorySize > 100) {
+            throw new IllegalArgumentException("back.history_size doit être compris entre 1 et 100.");
+        }
+        if (backCooldownSeconds < 0) {
+            throw new IllegalArgumentException("back.cooldown doit être positif ou nul.");
+        }
+        if (storageFormat == null) {
+            throw new IllegalArgumentException("storage.format doit valoir yaml, binary ou sqlite.");
+        }
+        if (language == null || language.isBlank()) {
+            throw new IllegalArgumentException("settings.language ne peut être vide.");
+        }
+        language = language.toLowerCase(Locale.ROOT);
+        if (cooldowns == null) {
+            cooldowns = CooldownSettings.NONE;
+        }
+        if (spreadSpawn == null) {
+            spreadSpawn = SpreadSpawnSettings.NONE;
+        }
+        if (joinRouting == null) {
+            joinRouting = JoinRouting.NONE;
+        }
+        spawnPoints = Collections.unmodifiableMap(new LinkedHashMap<>(spawnPoints));
+        hotLocations = Collections.unmodifiableSet(new LinkedHashSet<>(hotLocations));
+    }
+
+    /**
+     * Reads the settings from {@code config.yml} in the data folder of the plugin, writing the
+     * default configuration first if the file does not exist.
+     *
+     * @param plugin the plugin owning the configuration. Must not be null.
+     * @return the settings read from the file
+     * @throws IOException                   if the file cannot be read
+     * @throws InvalidConfigurationException if the file is not valid YAML
+     * @throws IllegalArgumentException      if a value is out of range
+     */
+    public static Settings load(Plugin plugin) throws IOException, InvalidConfigurationException {
+        File file = new File(plugin.getDataFolder(), "config.yml");
+        if (!file.exists()) {
+            plugin.saveDefaultConfig();
+        }
+        YamlConfiguration config = new YamlConfiguration();
+        config.load(file);
+        return from(config);
+    }
+
+    /**
+     * Builds the settings from a configuration tree. Missing keys take their default value.
+     *
+     * @param config the root of the configuration. Must not be null.
+     * @return the settings read from the tree
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public static Settings from(ConfigurationSection config) {
+        // L'ancienne clé spawn.location reste lue si settings.location_spawn est absente
+        String spawnLocation = config.getString("settings.location_spawn",
+                config.getString("spawn.location", "spawn"));
+
+        Map<String, String> spawnPoints = new LinkedHashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("settings.spawn_points");
+        if (section != null) {
+            for (String name : section.getKeys(false)) {
+                spawnPoints.put(name, section.getString(name, ""));
+            }
+        }
+
+        return new Settings(
+                spawnLocation,
+                config.getLong("settings.teleport_delay", 10),
+                config.getBoolean("settings.spawn_nearest", false),
+                spawnPoints,
+                config.getLong("settings.autosave_interval", 300),
+                config.getLong("settings.save_timeout", 10),
+                config.getInt("teleport_queue.per_tick", 5),
+                config.getInt("chunk_tickets.radius", 2),
+                new LinkedHashSet<>(config.getStringList("chunk_tickets.hot_locations")),
+                StorageFormat.fromName(config.getString("storage.format", "yaml")),
+                config.getBoolean("settings.watch_config", true),
+                config.getLong("metrics.dump_interval", 60),
+                config.getString("settings.language", "fr"),
+                config.getLong("settings.warmup", 0),
+                CooldownSettings.from(config.getConfigurationSection("cooldowns")),
+                config.getInt("transfer.per_tick", 500),
+                SpreadSpawnSettings.from(config.getConfigurationSection("spread_spawn")),
+                config.getInt("back.history_size", 10),
+                config.getLong("back.cooldown", 30),
+                JoinRouting.from(config.getConfigurationSection("join_routing")));
+    }
+
+    /**
+     * @return the settings used when the configuration cannot be read
+     */
+    public static Settings defaults() {
+        return from(new YamlConfiguration());
+    }
+
+    /**
+     * @return the names of every location whose chunks are kept loaded, the spawn included
+     */
+    public Set<String> chunkTicketLocations() {
+        Set<String> locations = new LinkedHashSet<>(hotLocations);
+        locations.add(spawnLocation);
+        return locations;
+    }
+}
@@ -0,0 +1,42 @@
+package akia.spawnManager.config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link Settings}. Commands and listeners keep a reference to the holder
+ * rather than to a snapshot, so that a reload is visible to them as soon as it is swapped in.
+ * The swap is atomic: a reader always sees either the old or the new settings as a whole.
+ */
+public class SettingsHolder {
+
+    /**
+     * The settings currently in use.
+     */
+    private final AtomicReference<Settings> current;
+
+    /**
+     * Constructs a new holder with the given initial settings.
+     *
+     * @param initial the settings in use until the first reload. Must not be null.
+     */
+    public SettingsHolder(Settings initial) {
+        this.current = new AtomicReference<>(initial);
+    }
+
+    /**
+     * @return the settings currently in use
+     */
+    public Settings get() {
+        return current.get();
+    }
+
+    /**
+     * Replaces the settings in use.
+     *
+     * @param settings the new settings. Must not be null.
+     * @return the settings that were in use before
+     */
+    public Settings swap(Settings settings) {
+        return current.getAndSet(settings);
+    }
+}
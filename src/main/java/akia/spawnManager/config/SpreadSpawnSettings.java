@@ -0,0 +1,76 @@
+package akia.spawnManager.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable view of the {@code spread_spawn} section of {@code config.yml}: the locations whose
+ * players are spread over safe spots around them instead of all landing on the same block.
+ *
+ * @param poolSize the number of safe spots kept ready for each of these locations
+ * @param radii    the radius of the spread around each location, in blocks, keyed by lower-case location name
+ */
+public record SpreadSpawnSettings(int poolSize, Map<String, Integer> radii) {
+
+    /**
+     * The largest radius accepted, in blocks, so that a refill never loads a whole region.
+     */
+    public static final int MAX_RADIUS = 256;
+
+    /**
+     * The settings of a configuration without {@code spread_spawn} section.
+     */
+    public static final SpreadSpawnSettings NONE = new SpreadSpawnSettings(64, Map.of());
+
+    /**
+     * Validates the values and freezes the map.
+     *
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public SpreadSpawnSettings {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("spread_spawn.pool_size doit être au moins 1.");
+        }
+        radii = Collections.unmodifiableMap(new HashMap<>(radii));
+    }
+
+    /**
+     * Retrieves the radius of the spread around a location.
+     *
+     * @param locationName the name of the location
+     * @return the radius in blocks, or 0 if the players of this location are not spread
+     */
+    public int radius(String locationName) {
+        return radii.getOrDefault(locationName.toLowerCase(Locale.ROOT), 0);
+    }
+
+    /**
+     * Reads the {@code spread_spawn} section.
+     *
+     * @param section the section, or {@code null} if it is missing
+     * @return the settings read from the section
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public static SpreadSpawnSettings from(ConfigurationSection section) {
+        if (section == null) {
+            return NONE;
+        }
+        Map<String, Integer> radii = new HashMap<>();
+        ConfigurationSection locations = section.getConfigurationSection("locations");
+        if (locations != null) {
+            for (String name : locations.getKeys(false)) {
+                int radius = locations.getInt(name);
+                if (radius < 1 || radius > MAX_RADIUS) {
+                    throw new IllegalArgumentException("spread_spawn.locations." + name
+                            + " doit être compris entre 1 et " + MAX_RADIUS + ".");
+                }
+                radii.put(name.toLowerCase(Locale.ROOT), radius);
+            }
+        }
+        return new SpreadSpawnSettings(section.getInt("pool_size", NONE.poolSize()), radii);
+    }
+}
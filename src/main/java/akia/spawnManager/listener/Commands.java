@@ -1,11 +1,11 @@
 package akia.spawnManager.listener;
 
 import akia.spawnManager.Main;
+import akia.spawnManager.command.LocationCommandTree;
 import akia.spawnManager.command.LocationCommands;
+import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Objects;
-
 public class Commands {
 
     /**
@@ -18,16 +18,20 @@ public class Commands {
     }
 
     /**
-     * Registers command executors for the specified main plugin instance. This method ensures that
-     * commands "spawn" and "location" are associated with their respective executors.
+     * Registers the Brigadier trees of the "spawn", "back" and "location" commands with Paper.
+     * The commands are served by a single {@link LocationCommands} instance, so they share the
+     * same cooldowns. The trees are registered again whenever Paper reloads its commands.
      *
      * @param main the main plugin instance, must not be null
-     * @throws NullPointerException if the main instance or its associated commands are null
      */
     private void registerCommands(@NotNull Main main) {
-        Objects.requireNonNull(main.getCommand("spawn")).setExecutor(new LocationCommands(Main.getInstance().getLocationManager()));
-        Objects.requireNonNull(main.getCommand("location")).setExecutor(new LocationCommands(Main.getInstance().getLocationManager()));
-
+        LocationCommands commands = new LocationCommands(main.getLocationManager(), main.getSettings());
+        main.getLifecycleManager().registerEventHandler(LifecycleEvents.COMMANDS, event -> {
+            LocationCommandTree tree = new LocationCommandTree(commands, main.getLocationManager(), main.getMetrics());
+            event.registrar().register(tree.spawn(), "Téléporte au spawn.");
+            event.registrar().register(tree.back(), "Retourne à une position précédente.");
+            event.registrar().register(tree.location(), "Gère les locations.");
+        });
     }
 
 }
@@ -1,6 +1,11 @@
 package akia.spawnManager.listener;
 
+import akia.spawnManager.Event.BlockChangeListener;
+import akia.spawnManager.Event.HistoryListener;
+import akia.spawnManager.Event.PermissionListener;
 import akia.spawnManager.Event.PlayerConnection;
+import akia.spawnManager.Event.WarmupListener;
+import akia.spawnManager.Event.WorldListener;
 import akia.spawnManager.Main;
 import org.bukkit.plugin.PluginManager;
 import org.jetbrains.annotations.NotNull;
@@ -24,17 +29,37 @@ public class Events {
     public Events(@NotNull Main main) {
         this.pluginManager = main.getServer().getPluginManager();
         registerPlayerEvents(main);
+        registerWorldEvents(main);
     }
 
     /**
      * Registers player-related events, linking them to the main plugin instance.
-     * This method uses the {@link PluginManager} to associate the {@link PlayerConnection} event listener
-     * with the provided plugin, enabling the plugin to respond to player events such as connections.
+     * This method uses the {@link PluginManager} to associate the {@link PlayerConnection},
+     * {@link WarmupListener}, {@link PermissionListener} and {@link HistoryListener} event listeners with
+     * the provided plugin, enabling the plugin to respond to player events such as connections, damage,
+     * deaths and world changes.
      *
      * @param main The instance of the {@link Main} plugin used to register event listeners. Must not be null.
      */
     private void registerPlayerEvents(Main main) {
-        getPluginManager().registerEvents(new PlayerConnection(Main.getInstance().getLocationManager()), main);
+        getPluginManager().registerEvents(new PlayerConnection(Main.getInstance().getLocationManager(),
+                Main.getInstance().getTeleportQueue(), Main.getInstance().getSettings(), Main.getInstance().getMetrics(),
+                Main.getInstance().getMessages(), Main.getInstance().getSafeSpawnPool(),
+                Main.getInstance().getDestinationSafety(), Main.getInstance().getPermissionCache()), main);
+        getPluginManager().registerEvents(new WarmupListener(Main.getInstance().getWarmupManager()), main);
+        getPluginManager().registerEvents(new PermissionListener(Main.getInstance().getPermissionCache()), main);
+        getPluginManager().registerEvents(new HistoryListener(Main.getInstance().getTeleportHistory()), main);
+    }
+
+    /**
+     * Registers world-related events, keeping the registered locations bound to the
+     * worlds currently loaded on the server and the safety of their surroundings up to date.
+     *
+     * @param main The instance of the {@link Main} plugin used to register event listeners. Must not be null.
+     */
+    private void registerWorldEvents(Main main) {
+        getPluginManager().registerEvents(new WorldListener(Main.getInstance().getLocationManager()), main);
+        getPluginManager().registerEvents(new BlockChangeListener(Main.getInstance().getDestinationSafety()), main);
     }
 
     /**
@@ -0,0 +1,58 @@
+package akia.spawnManager.manager;
+
+import org.bukkit.Material;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The rules deciding whether a player can stand on a block, shared by the safe spots of
+ * {@link SafeSpawnPool} and the destination checks of {@link DestinationSafety}. The rules
+ * only read materials, so they can be applied to chunk snapshots on any thread.
+ */
+final class BlockSafety {
+
+    /**
+     * The blocks a player must not stand on.
+     */
+    private static final Set<Material> UNSAFE_GROUND = EnumSet.of(Material.LAVA, Material.FIRE, Material.SOUL_FIRE,
+            Material.MAGMA_BLOCK, Material.CACTUS, Material.CAMPFIRE, Material.SOUL_CAMPFIRE, Material.POWDER_SNOW,
+            // Le plafond de bedrock du Nether n'est pas un point de spawn
+            Material.BEDROCK);
+    /**
+     * The non-solid blocks a player must not stand in.
+     */
+    private static final Set<Material> UNSAFE_SPACE = EnumSet.of(Material.LAVA, Material.WATER, Material.FIRE,
+            Material.SOUL_FIRE, Material.SWEET_BERRY_BUSH, Material.POWDER_SNOW, Material.WITHER_ROSE,
+            Material.CACTUS);
+    /**
+     * The blocks that hurt a player standing next to them.
+     */
+    private static final Set<Material> HAZARDS = EnumSet.of(Material.LAVA, Material.FIRE, Material.SOUL_FIRE,
+            Material.MAGMA_BLOCK, Material.CACTUS, Material.CAMPFIRE, Material.SOUL_CAMPFIRE,
+            Material.SWEET_BERRY_BUSH, Material.WITHER_ROSE, Material.POWDER_SNOW);
+
+    private BlockSafety() {
+    }
+
+    /**
+     * @return {@code true} if a player can stand on this block
+     */
+    static boolean isSafeGround(Material material) {
+        return material.isSolid() && !UNSAFE_GROUND.contains(material);
+    }
+
+    /**
+     * @return {@code true} if a player can stand in this block, at the feet or at the head
+     */
+    static boolean isFreeSpace(Material material) {
+        return !material.isSolid() && !UNSAFE_SPACE.contains(material);
+    }
+
+    /**
+     * @return {@code true} if this block hurts a player standing next to it
+     */
+    static boolean isHazard(Material material) {
+        return HAZARDS.contains(material);
+    }
+}
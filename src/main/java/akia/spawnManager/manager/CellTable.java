@@ -0,0 +1,155 @@
+package akia.spawnManager.manager;
+
+/**
+ * Open-addressing hash table mapping the packed coordinates of a grid cell to its content.
+ * Lookups neither box the key nor allocate.
+ *
+ * <p>Collisions are resolved by linear probing and removals use backward shifting, so there
+ * are no tombstones. A slot whose value is {@code null} is empty. This class is not thread-safe.</p>
+ *
+ * @param <V> the type of the content of a cell
+ */
+final class CellTable<V> {
+
+    /**
+     * Initial number of slots, always a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    CellTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @return the content of a cell, or {@code null} if the cell is empty
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int slot = find(key);
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    /**
+     * Inserts or replaces the content of a cell.
+     *
+     * @param value the content of the cell. Must not be null.
+     */
+    void put(long key, V value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Empties a cell.
+     *
+     * @return {@code true} if the cell held something
+     */
+    boolean remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        int mask = keys.length - 1;
+        // Décalage arrière : les entrées suivantes de la même chaîne reprennent la place libérée
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (values[next] != null) {
+            int ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[free] = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * @return the number of non-empty cells
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of slots, to iterate over the table with the slot accessors
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    boolean isUsed(int slot) {
+        return values[slot] != null;
+    }
+
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldValues[slot] != null) {
+                @SuppressWarnings("unchecked")
+                V value = (V) oldValues[slot];
+                put(oldKeys[slot], value);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * Mixes the packed coordinates: neighbouring cells differ only in their low bits.
+     */
+    private static int hash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
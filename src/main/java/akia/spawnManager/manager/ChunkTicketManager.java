@@ -0,0 +1,181 @@
+package akia.spawnManager.manager;
+
+import akia.spawnManager.builder.LocationBuilder;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the chunks around "hot" locations, such as the spawn, loaded with plugin chunk
+ * tickets, so that teleporting to them never waits for a chunk to load.
+ *
+ * <p>Tickets are reference counted per chunk, so two hot locations sharing chunks do not
+ * release each other's tickets. The area of each hot location is remembered by name, which
+ * allows releasing it when the location is moved or deleted. This class must only be used
+ * from the main thread.</p>
+ */
+public class ChunkTicketManager {
+
+    /**
+     * The plugin owning the chunk tickets.
+     */
+    private final Plugin plugin;
+    /**
+     * The names of the locations whose chunks are kept loaded.
+     */
+    private Set<String> hotLocations = Collections.emptySet();
+    /**
+     * The radius, in chunks, kept loaded around each hot location. Negative to disable the tickets.
+     */
+    private int radius = -1;
+    /**
+     * The area currently held for every hot location, keyed by location name.
+     */
+    private final Map<String, Area> areas = new HashMap<>();
+    /**
+     * The number of areas holding each chunk, keyed by world name then chunk key.
+     */
+    private final Map<String, Map<Long, Integer>> references = new HashMap<>();
+
+    /**
+     * Constructs a new {@code ChunkTicketManager} holding no ticket.
+     *
+     * @param plugin the plugin owning the chunk tickets. Must not be null.
+     */
+    public ChunkTicketManager(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Changes the hot locations and the radius kept loaded around them. Every ticket is
+     * released; the caller is expected to call {@link #update(LocationBuilder)} for the
+     * registered locations afterwards.
+     *
+     * @param radius        the radius in chunks, or a negative value to disable the tickets
+     * @param hotLocations  the names of the locations to keep loaded
+     */
+    public void configure(int radius, Set<String> hotLocations) {
+        releaseAll();
+        this.radius = radius;
+        this.hotLocations = new HashSet<>(hotLocations);
+    }
+
+    /**
+     * Indicates whether the chunks around a location are kept loaded.
+     *
+     * @param name the name of the location
+     * @return {@code true} if the location is hot and tickets are enabled
+     */
+    public boolean isHot(String name) {
+        return radius >= 0 && hotLocations.contains(name);
+    }
+
+    /**
+     * Acquires the tickets around a location if it is hot, releasing the area it held before.
+     * Must be called whenever a location is registered or moved.
+     *
+     * @param locationBuilder the location that was registered or moved
+     */
+    public void update(LocationBuilder locationBuilder) {
+        release(locationBuilder.getName());
+        if (!isHot(locationBuilder.getName()) || locationBuilder.getWorldName() == null) {
+            return;
+        }
+        World world = Bukkit.getWorld(locationBuilder.getWorldName());
+        if (world == null) {
+            // Les tickets seront posés au chargement du monde
+            return;
+        }
+        Area area = new Area(world.getName(), (int) Math.floor(locationBuilder.getX()) >> 4,
+                (int) Math.floor(locationBuilder.getZ()) >> 4, radius);
+        Map<Long, Integer> worldReferences = references.computeIfAbsent(area.worldName(), ignored -> new HashMap<>());
+        for (int x = area.chunkX() - area.radius(); x <= area.chunkX() + area.radius(); x++) {
+            for (int z = area.chunkZ() - area.radius(); z <= area.chunkZ() + area.radius(); z++) {
+                if (worldReferences.merge(key(x, z), 1, Integer::sum) == 1) {
+                    world.addPluginChunkTicket(x, z, plugin);
+                }
+            }
+        }
+        areas.put(locationBuilder.getName(), area);
+    }
+
+    /**
+     * Releases the tickets held for a location. Must be called when a location is deleted.
+     *
+     * @param name the name of the location
+     */
+    public void release(String name) {
+        Area area = areas.remove(name);
+        if (area == null) {
+            return;
+        }
+        Map<Long, Integer> worldReferences = references.get(area.worldName());
+        World world = Bukkit.getWorld(area.worldName());
+        for (int x = area.chunkX() - area.radius(); x <= area.chunkX() + area.radius(); x++) {
+            for (int z = area.chunkZ() - area.radius(); z <= area.chunkZ() + area.radius(); z++) {
+                long key = key(x, z);
+                Integer count = worldReferences.get(key);
+                if (count == null) {
+                    continue;
+                }
+                if (count > 1) {
+                    worldReferences.put(key, count - 1);
+                } else {
+                    worldReferences.remove(key);
+                    if (world != null) {
+                        world.removePluginChunkTicket(x, z, plugin);
+                    }
+                }
+            }
+        }
+        if (worldReferences.isEmpty()) {
+            references.remove(area.worldName());
+        }
+    }
+
+    /**
+     * Forgets the tickets of a world being unloaded. The server drops them with the world.
+     *
+     * @param worldName the name of the world being unloaded
+     */
+    public void forgetWorld(String worldName) {
+        references.remove(worldName);
+        Iterator<Area> iterator = areas.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().worldName().equals(worldName)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Releases every ticket held by the plugin.
+     */
+    public void releaseAll() {
+        for (String worldName : references.keySet()) {
+            World world = Bukkit.getWorld(worldName);
+            if (world != null) {
+                world.removePluginChunkTickets(plugin);
+            }
+        }
+        references.clear();
+        areas.clear();
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The square of chunks held around a hot location, with the radius in use when it was acquired.
+     */
+    private record Area(String worldName, int chunkX, int chunkZ, int radius) {
+    }
+}
@@ -0,0 +1,390 @@
+package akia.spawnManager.manager;
+
+import akia.spawnManager.storage.AsyncFileWriter;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks every cooldown of the plugin with a single repeating task and a hierarchical
+ * timing wheel, instead of one scheduled task per cooldown.
+ *
+ * <p>Cooldowns are identified by a player and a type name (for example {@code "spawn"}),
+ * so several features can share the engine. Starting, checking and cancelling a cooldown
+ * is O(1). Checks compare the wall clock with the expiry time and are therefore exact; the
+ * wheel is only used to drop expired entries so the tables do not grow. Each type has its own
+ * {@link CooldownTable}, keyed by the two halves of the player's UUID and holding primitive
+ * expiries, so checks do not box or allocate.</p>
+ *
+ * <p>Unexpired cooldowns can be written to a compact file with {@link #save(Path)} and read
+ * back with {@link #load(Path)}, so restarting the server does not reset them.</p>
+ *
+ * <p>The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. Level 0 has a
+ * resolution of one tick, each following level is {@value #SLOTS} times coarser. Entries of
+ * a coarse slot are cascaded to the finer levels when the wheel reaches them. This class must
+ * only be used from the main thread.</p>
+ */
+public class CooldownEngine {
+
+    /**
+     * Number of bits used to index a slot within a level.
+     */
+    private static final int SLOT_BITS = 6;
+    /**
+     * Number of slots per level.
+     */
+    private static final int SLOTS = 1 << SLOT_BITS;
+    /**
+     * Mask extracting a slot index.
+     */
+    private static final int SLOT_MASK = SLOTS - 1;
+    /**
+     * Number of levels of the wheel. Four levels of 64 slots cover about 9.7 days of ticks,
+     * longer cooldowns are cascaded several times through the last level.
+     */
+    private static final int LEVELS = 4;
+    /**
+     * Duration of a server tick in milliseconds.
+     */
+    private static final long TICK_MILLIS = 50;
+    /**
+     * The magic number opening the cooldown file, "SMCD" in ASCII.
+     */
+    private static final int FILE_MAGIC = 0x534D4344;
+    /**
+     * The version of the cooldown file layout.
+     */
+    private static final short FILE_VERSION = 1;
+
+    /**
+     * The slots of every level. Each slot is the sentinel of a circular doubly linked list.
+     */
+    private final Entry[][] wheel = new Entry[LEVELS][SLOTS];
+    /**
+     * The active cooldowns of every type, keyed by type name.
+     */
+    private final Map<String, CooldownTable<Entry>> cooldowns = new HashMap<>();
+    /**
+     * Number of ticks elapsed since the engine was created.
+     */
+    private long currentTick;
+    /**
+     * The repeating task advancing the wheel, or {@code null} when the engine is stopped.
+     */
+    private BukkitTask task;
+
+    /**
+     * Constructs a new, stopped {@code CooldownEngine}.
+     */
+    public CooldownEngine() {
+        for (Entry[] level : wheel) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Entry sentinel = new Entry(null, 0L, 0L);
+                sentinel.previous = sentinel;
+                sentinel.next = sentinel;
+                level[slot] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Starts the repeating task that advances the wheel every tick.
+     *
+     * @param plugin the plugin owning the task. Must not be null.
+     */
+    public void start(Plugin plugin) {
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stops the repeating task. Active cooldowns are kept and still checked against the clock.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Starts, or restarts, a cooldown.
+     *
+     * @param uuid           the player the cooldown applies to
+     * @param type           the name of the cooldown
+     * @param durationMillis the duration of the cooldown in milliseconds
+     */
+    public void start(UUID uuid, String type, long durationMillis) {
+        if (durationMillis <= 0) {
+            cancel(uuid, type);
+            return;
+        }
+        start(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), type,
+                System.currentTimeMillis() + durationMillis, durationMillis);
+    }
+
+    /**
+     * Starts, or restarts, a cooldown given the two halves of the player's UUID.
+     *
+     * @param most           the most significant bits of the player's UUID
+     * @param least          the least significant bits of the player's UUID
+     * @param type           the name of the cooldown
+     * @param expireMillis   the expiry of the cooldown in milliseconds since the epoch
+     * @param durationMillis the time left before the expiry, in milliseconds. Must be positive.
+     */
+    private void start(long most, long least, String type, long expireMillis, long durationMillis) {
+        CooldownTable<Entry> table = cooldowns.computeIfAbsent(type, ignored -> new CooldownTable<>());
+        Entry entry = table.getHandle(most, least);
+        if (entry != null) {
+            entry.unlink();
+        } else {
+            entry = new Entry(type, most, least);
+        }
+        table.put(most, least, expireMillis, entry);
+        entry.expireTick = currentTick + Math.max(1, (durationMillis + TICK_MILLIS - 1) / TICK_MILLIS);
+        schedule(entry);
+    }
+
+    /**
+     * Checks whether a cooldown is active.
+     *
+     * @param uuid the player the cooldown applies to
+     * @param type the name of the cooldown
+     * @return {@code true} if the cooldown has been started and has not expired yet
+     */
+    public boolean isActive(UUID uuid, String type) {
+        return getRemaining(uuid, type) > 0;
+    }
+
+    /**
+     * Retrieves the time left before a cooldown expires.
+     *
+     * @param uuid the player the cooldown applies to
+     * @param type the name of the cooldown
+     * @return the remaining time in milliseconds, or 0 if the cooldown is not active
+     */
+    public long getRemaining(UUID uuid, String type) {
+        CooldownTable<Entry> table = cooldowns.get(type);
+        if (table == null) {
+            return 0;
+        }
+        long remaining = table.getExpiry(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits())
+                - System.currentTimeMillis();
+        return remaining > 0 ? remaining : 0;
+    }
+
+    /**
+     * Cancels a cooldown.
+     *
+     * @param uuid the player the cooldown applies to
+     * @param type the name of the cooldown
+     */
+    public void cancel(UUID uuid, String type) {
+        CooldownTable<Entry> table = cooldowns.get(type);
+        Entry entry = table != null ? table.remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) : null;
+        if (entry != null) {
+            entry.unlink();
+        }
+    }
+
+    /**
+     * Writes every unexpired cooldown to the given file.
+     *
+     * <p>Layout, all values big-endian: magic (int) | version (short) | type count (int), then
+     * for each type: name (modified UTF-8) | entry count (int) | entries of uuid msb (long),
+     * uuid lsb (long) and expiry in milliseconds since the epoch (long).</p>
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        long now = System.currentTimeMillis();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FILE_MAGIC);
+            out.writeShort(FILE_VERSION);
+            out.writeInt(cooldowns.size());
+            for (Map.Entry<String, CooldownTable<Entry>> type : cooldowns.entrySet()) {
+                CooldownTable<Entry> table = type.getValue();
+                int count = 0;
+                for (int slot = 0; slot < table.capacity(); slot++) {
+                    if (table.isUsed(slot) && table.expiryAt(slot) > now) {
+                        count++;
+                    }
+                }
+                out.writeUTF(type.getKey());
+                out.writeInt(count);
+                for (int slot = 0; slot < table.capacity(); slot++) {
+                    if (table.isUsed(slot) && table.expiryAt(slot) > now) {
+                        out.writeLong(table.mostBitsAt(slot));
+                        out.writeLong(table.leastBitsAt(slot));
+                        out.writeLong(table.expiryAt(slot));
+                    }
+                }
+            }
+        }
+        AsyncFileWriter.writeAtomically(path, bytes.toByteArray());
+    }
+
+    /**
+     * Restores the cooldowns written by {@link #save(Path)}. Cooldowns that expired while
+     * the server was stopped are skipped. Does nothing if the file does not exist.
+     *
+     * @param path the file to read
+     * @throws IOException if the file cannot be read or is not a cooldown file
+     */
+    public void load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (InputStream stream = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != FILE_MAGIC || in.readShort() != FILE_VERSION) {
+                throw new IOException("Fichier de cooldowns invalide : " + path.getFileName());
+            }
+            int typeCount = in.readInt();
+            for (int i = 0; i < typeCount; i++) {
+                String type = in.readUTF();
+                int count = in.readInt();
+                for (int j = 0; j < count; j++) {
+                    long most = in.readLong();
+                    long least = in.readLong();
+                    long expireMillis = in.readLong();
+                    if (expireMillis > now) {
+                        start(most, least, type, expireMillis, expireMillis - now);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the cooldowns of a type still held by the engine, expired or not: an expired
+     * cooldown is only dropped when the wheel reaches it.
+     *
+     * @param type the name of the cooldown
+     * @return the number of cooldowns of this type held in memory
+     */
+    int tracked(String type) {
+        CooldownTable<Entry> table = cooldowns.get(type);
+        return table != null ? table.size() : 0;
+    }
+
+    /**
+     * Advances the wheel by one tick: cascades the coarse slots reached by the wheel,
+     * then drops the entries expiring during this tick. Run every tick by the task started
+     * with {@link #start(Plugin)}.
+     */
+    void tick() {
+        currentTick++;
+        for (int level = 1; level < LEVELS; level++) {
+            // Un niveau n'est redistribué que lorsque tous les niveaux inférieurs ont fait un tour complet
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                break;
+            }
+            cascade(level);
+        }
+
+        Entry sentinel = wheel[0][(int) (currentTick & SLOT_MASK)];
+        Entry entry = sentinel.next;
+        while (entry != sentinel) {
+            Entry next = entry.next;
+            entry.unlink();
+            if (entry.expireTick <= currentTick) {
+                CooldownTable<Entry> table = cooldowns.get(entry.type);
+                table.remove(entry.most, entry.least);
+                if (table.size() == 0) {
+                    cooldowns.remove(entry.type);
+                }
+            } else {
+                schedule(entry);
+            }
+            entry = next;
+        }
+    }
+
+    /**
+     * Moves every entry of the current slot of a coarse level down to the finer levels.
+     *
+     * @param level the level to cascade, at least 1
+     */
+    private void cascade(int level) {
+        Entry sentinel = wheel[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        Entry entry = sentinel.next;
+        while (entry != sentinel) {
+            Entry next = entry.next;
+            entry.unlink();
+            schedule(entry);
+            entry = next;
+        }
+    }
+
+    /**
+     * Places an entry in the slot matching its expiry tick.
+     *
+     * @param entry an unlinked entry whose expiry tick is in the future
+     */
+    private void schedule(Entry entry) {
+        long delta = entry.expireTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long tick = entry.expireTick;
+        long range = 1L << (SLOT_BITS * (level + 1));
+        if (delta >= range) {
+            // Au-delà de la portée de la roue : l'entrée sera redistribuée plusieurs fois
+            tick = currentTick + range - 1;
+        }
+        int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        entry.linkBefore(wheel[level][slot]);
+    }
+
+    /**
+     * A single cooldown, linked into one slot of the wheel.
+     */
+    private static final class Entry {
+
+        private final String type;
+        private final long most;
+        private final long least;
+        private long expireTick;
+        private Entry previous;
+        private Entry next;
+
+        private Entry(String type, long most, long least) {
+            this.type = type;
+            this.most = most;
+            this.least = least;
+        }
+
+        private void linkBefore(Entry sentinel) {
+            previous = sentinel.previous;
+            next = sentinel;
+            sentinel.previous.next = this;
+            sentinel.previous = this;
+        }
+
+        private void unlink() {
+            if (previous != null) {
+                previous.next = next;
+                next.previous = previous;
+                previous = null;
+                next = null;
+            }
+        }
+    }
+}
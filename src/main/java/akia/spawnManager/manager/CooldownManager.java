@@ -1,74 +1,84 @@
 package akia.spawnManager.manager;
 
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.function.LongSupplier;
 
+/**
+ * Enforces a named cooldown for players, and optionally other cooldowns named by the caller,
+ * such as the cooldown of a single location. The cooldowns themselves are stored and
+ * expired by a shared {@link CooldownEngine}, so several {@code CooldownManager} instances
+ * using the same type share the same state.
+ */
 public class CooldownManager {
 
     /**
-     * A map that manages cooldown timers for players identified by their unique UUIDs.
-     * The key represents the player's UUID, and the value is the timestamp (in milliseconds)
-     * at which the cooldown expires for the given player. This structure is used to track
-     * and enforce cooldowns in the system, ensuring that players cannot perform certain
-     * actions until their cooldown has elapsed.
+     * The engine storing the cooldowns and dropping them once they expire.
      */
-    private final Map<UUID, Long> cooldowns = new HashMap<>();
+    private final CooldownEngine engine;
     /**
-     * Represents the cooldown duration in milliseconds.
-     * This value determines the total time a player must wait
-     * between specific actions or events to prevent immediate repetition.
-     * Set during the initialization of the class by converting
-     * a given cooldown period in seconds to milliseconds.
+     * The name of the cooldown managed by this instance, used as its type in the engine.
      */
-    private final long cooldownMillis;
+    private final String type;
     /**
-     * Represents the plugin instance associated with this class.
-     * This reference is primarily used to schedule tasks, manage configuration files,
-     * and perform plugin-specific operations.
-     * Ensures that the class has access to the plugin's context within the Bukkit ecosystem.
+     * Supplies the cooldown duration in seconds.
+     * This value determines the total time a player must wait
+     * between specific actions or events to prevent immediate repetition.
+     * It is read each time a cooldown starts, so a configuration reload
+     * applies to the next cooldowns.
      */
-    private final Plugin plugin;
+    private final LongSupplier cooldownSeconds;
 
     /**
      * Constructs a new instance of {@code CooldownManager}.
      * This manager is responsible for handling cooldown periods for players.
      *
-     * @param plugin the plugin instance associated with this cooldown manager. Must not be null.
+     * @param engine the engine storing the cooldowns. Must not be null.
+     * @param type the name of the cooldown, shared by every manager enforcing the same cooldown
      * @param cooldownSeconds the cooldown duration in seconds. This value determines the time
      *                         players must wait before performing an action again.
      */
-    public CooldownManager(Plugin plugin, long cooldownSeconds) {
-        this.plugin = plugin;
-        this.cooldownMillis = cooldownSeconds * 1000;
+    public CooldownManager(CooldownEngine engine, String type, long cooldownSeconds) {
+        this(engine, type, () -> cooldownSeconds);
+    }
+
+    /**
+     * Constructs a new instance of {@code CooldownManager} whose duration may change over time.
+     *
+     * @param engine the engine storing the cooldowns. Must not be null.
+     * @param type the name of the cooldown, shared by every manager enforcing the same cooldown
+     * @param cooldownSeconds supplies the cooldown duration in seconds, read each time a cooldown starts
+     */
+    public CooldownManager(CooldownEngine engine, String type, LongSupplier cooldownSeconds) {
+        this.engine = engine;
+        this.type = type;
+        this.cooldownSeconds = cooldownSeconds;
     }
 
     /**
      * Checks if a {@link Player} is currently on cooldown.
      * A cooldown prevents the player from performing certain actions until a specified time has passed.
-     * If the cooldown has expired, the corresponding entry is removed from the internal cooldown tracking map.
      *
      * @param player the {@link Player} whose cooldown status is being checked
      * @return {@code true} if the player is still on cooldown, {@code false} if the cooldown has expired or does not exist
      */
     public boolean isOnCooldown(Player player) {
+        return isOnCooldown(player, type);
+    }
+
+    /**
+     * Checks if a {@link Player} is currently on the cooldown of the given type.
+     * Operators are never on cooldown.
+     *
+     * @param player the {@link Player} whose cooldown status is being checked
+     * @param type   the name of the cooldown
+     * @return {@code true} if the player is still on this cooldown
+     */
+    public boolean isOnCooldown(Player player, String type) {
         if (player.isOp()) {
             return false;
         }
-        UUID uuid = player.getUniqueId();
-        if (cooldowns.containsKey(uuid)) {
-            long expireTime = cooldowns.get(uuid);
-            if (System.currentTimeMillis() < expireTime) {
-                return true;
-            } else {
-                cooldowns.remove(uuid);
-            }
-        }
-        return false;
+        return engine.isActive(player.getUniqueId(), type);
     }
 
     /**
@@ -80,34 +90,51 @@ public class CooldownManager {
      *         no active cooldown or if the cooldown has expired
      */
     public long getRemainingTime(Player player) {
-        UUID uuid = player.getUniqueId();
-        if (cooldowns.containsKey(uuid)) {
-            long expireTime = cooldowns.get(uuid);
-            long remaining = expireTime - System.currentTimeMillis();
-            return remaining > 0 ? remaining : 0;
-        }
-        return 0;
+        return getRemainingTime(player, type);
+    }
+
+    /**
+     * Retrieves the remaining time in milliseconds of the cooldown of the given type.
+     *
+     * @param player the player for whom the remaining cooldown time is being queried
+     * @param type   the name of the cooldown
+     * @return the remaining cooldown time in milliseconds, or 0 if there is no active cooldown
+     */
+    public long getRemainingTime(Player player, String type) {
+        return engine.getRemaining(player.getUniqueId(), type);
     }
 
     /**
      * Starts a cooldown for the specified player. The cooldown period is determined
-     * by the pre-configured duration in milliseconds. During the cooldown, the player
+     * by the configured duration. During the cooldown, the player
      * cannot perform certain actions until the cooldown expires. Once the cooldown
-     * ends, the player is removed from the cooldown map automatically.
+     * ends, the engine drops the entry automatically.
      *
      * @param player the player for whom the cooldown should be started. Must not be null.
      */
     public void startCooldown(Player player) {
-        UUID uuid = player.getUniqueId();
-        long expireTime = System.currentTimeMillis() + cooldownMillis;
-        cooldowns.put(uuid, expireTime);
+        startCooldown(player, type, cooldownSeconds.getAsLong());
+    }
 
-        // Utilise le BukkitScheduler pour supprimer l'entrée après cooldownMillis (1 tick = 50 ms)
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                cooldowns.remove(uuid);
-            }
-        }.runTaskLater(plugin, cooldownMillis / 50);
+    /**
+     * Starts the cooldown of this manager with a duration resolved by the caller, for instance
+     * from the permission tier of the player, instead of the configured one.
+     *
+     * @param player  the player for whom the cooldown should be started. Must not be null.
+     * @param seconds the duration of the cooldown, in seconds. A duration of 0 clears the running cooldown.
+     */
+    public void startCooldown(Player player, long seconds) {
+        startCooldown(player, type, seconds);
+    }
+
+    /**
+     * Starts a cooldown of the given type.
+     *
+     * @param player  the player for whom the cooldown should be started. Must not be null.
+     * @param type    the name of the cooldown
+     * @param seconds the duration of the cooldown, in seconds. A duration of 0 clears the running cooldown.
+     */
+    public void startCooldown(Player player, String type, long seconds) {
+        engine.start(player.getUniqueId(), type, seconds * 1000);
     }
 }
@@ -0,0 +1,186 @@
+package akia.spawnManager.manager;
+
+/**
+ * Open-addressing hash table mapping a player's UUID, split in its two {@code long} halves,
+ * to a primitive expiry timestamp and an attached handle. Lookups neither box nor allocate.
+ *
+ * <p>Collisions are resolved by linear probing and removals use backward shifting, so there
+ * are no tombstones. A slot whose expiry is 0 is empty. This class is not thread-safe.</p>
+ *
+ * @param <H> the type of the handle attached to each entry
+ */
+final class CooldownTable<H> {
+
+    /**
+     * Initial number of slots, always a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] mostBits;
+    private long[] leastBits;
+    private long[] expiries;
+    private Object[] handles;
+    private int size;
+
+    CooldownTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Retrieves the expiry of an entry.
+     *
+     * @return the expiry in milliseconds since the epoch, or 0 if there is no entry for this key
+     */
+    long getExpiry(long most, long least) {
+        int slot = find(most, least);
+        return slot >= 0 ? expiries[slot] : 0L;
+    }
+
+    /**
+     * Retrieves the handle attached to an entry.
+     *
+     * @return the handle, or {@code null} if there is no entry for this key
+     */
+    @SuppressWarnings("unchecked")
+    H getHandle(long most, long least) {
+        int slot = find(most, least);
+        return slot >= 0 ? (H) handles[slot] : null;
+    }
+
+    /**
+     * Inserts or replaces an entry.
+     *
+     * @param expiry the expiry in milliseconds since the epoch. Must be positive.
+     * @param handle the handle attached to the entry
+     */
+    void put(long most, long least, long expiry, H handle) {
+        if ((size + 1) * 2 > expiries.length) {
+            resize();
+        }
+        int mask = expiries.length - 1;
+        int slot = hash(most, least) & mask;
+        while (expiries[slot] != 0L) {
+            if (mostBits[slot] == most && leastBits[slot] == least) {
+                expiries[slot] = expiry;
+                handles[slot] = handle;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        mostBits[slot] = most;
+        leastBits[slot] = least;
+        expiries[slot] = expiry;
+        handles[slot] = handle;
+        size++;
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @return the handle of the removed entry, or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    H remove(long most, long least) {
+        int slot = find(most, least);
+        if (slot < 0) {
+            return null;
+        }
+        H handle = (H) handles[slot];
+        int mask = expiries.length - 1;
+        // Décalage arrière : les entrées suivantes de la même chaîne reprennent la place libérée
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (expiries[next] != 0L) {
+            int ideal = hash(mostBits[next], leastBits[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - free) & mask)) {
+                mostBits[free] = mostBits[next];
+                leastBits[free] = leastBits[next];
+                expiries[free] = expiries[next];
+                handles[free] = handles[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        expiries[free] = 0L;
+        handles[free] = null;
+        size--;
+        return handle;
+    }
+
+    /**
+     * @return the number of entries in the table
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of slots, to iterate over the table with the slot accessors
+     */
+    int capacity() {
+        return expiries.length;
+    }
+
+    boolean isUsed(int slot) {
+        return expiries[slot] != 0L;
+    }
+
+    long mostBitsAt(int slot) {
+        return mostBits[slot];
+    }
+
+    long leastBitsAt(int slot) {
+        return leastBits[slot];
+    }
+
+    long expiryAt(int slot) {
+        return expiries[slot];
+    }
+
+    private int find(long most, long least) {
+        int mask = expiries.length - 1;
+        int slot = hash(most, least) & mask;
+        while (expiries[slot] != 0L) {
+            if (mostBits[slot] == most && leastBits[slot] == least) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize() {
+        long[] oldMostBits = mostBits;
+        long[] oldLeastBits = leastBits;
+        long[] oldExpiries = expiries;
+        Object[] oldHandles = handles;
+        allocate(oldExpiries.length * 2);
+        size = 0;
+        for (int slot = 0; slot < oldExpiries.length; slot++) {
+            if (oldExpiries[slot] != 0L) {
+                @SuppressWarnings("unchecked")
+                H handle = (H) oldHandles[slot];
+                put(oldMostBits[slot], oldLeastBits[slot], oldExpiries[slot], handle);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        mostBits = new long[capacity];
+        leastBits = new long[capacity];
+        expiries = new long[capacity];
+        handles = new Object[capacity];
+    }
+
+    /**
+     * Mixes both halves of the UUID. Random (version 4) UUIDs are already well distributed,
+     * the final mix protects against sequential or hand-crafted ids.
+     */
+    private static int hash(long most, long least) {
+        long h = most ^ least;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
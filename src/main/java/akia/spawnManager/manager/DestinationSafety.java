@@ -0,0 +1,387 @@
+package akia.spawnManager.manager;
+
+import akia.spawnManager.builder.LocationBuilder;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Tells whether the destination of a teleport is safe: solid and harmless ground, two free
+ * blocks for the player, and no hazard such as lava or fire in the 3x3x3 box around the feet.
+ *
+ * <p>The verdict of every location is cached, so that a teleport only reads a map. It is
+ * computed from {@link ChunkSnapshot}s on a background thread the first time the location is
+ * checked, and computed again when a block changes inside its box: the block listener reports
+ * every placed, broken, burnt, flowing, exploded or pushed block, and only the locations whose
+ * box contains it are looked at, through an index of the boxes by chunk. Until a verdict is
+ * known the destination is reported as {@link Status#UNKNOWN}, and the teleport goes ahead as
+ * it did before. Positions that are not registered locations, such as the destinations of
+ * {@code /back}, are checked one by one with {@link #checkPosition(LocationBuilder)}, without
+ * cache. This class must only be used from the main thread.</p>
+ */
+public class DestinationSafety {
+
+    /**
+     * The verdict on a destination.
+     */
+    public enum Status {
+        /**
+         * The player can stand at the destination.
+         */
+        SAFE,
+        /**
+         * The player would fall, suffocate, drown or burn at the destination.
+         */
+        UNSAFE,
+        /**
+         * The destination is being checked, or its world is not loaded.
+         */
+        UNKNOWN
+    }
+
+    private final Plugin plugin;
+    private final LocationManager locationManager;
+    /**
+     * The cached verdicts, keyed by lower-case location name.
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+    /**
+     * The entries whose box overlaps each chunk, keyed by world name then chunk key.
+     */
+    private final Map<String, Map<Long, List<Entry>>> boxesByChunk = new HashMap<>();
+    /**
+     * The entries invalidated during the current tick, checked again on the next one.
+     */
+    private final Set<Entry> invalidated = new LinkedHashSet<>();
+    private BukkitTask recheckTask;
+
+    /**
+     * Constructs a new {@code DestinationSafety} with an empty cache.
+     *
+     * @param plugin          the plugin owning the background tasks. Must not be null.
+     * @param locationManager the registry the checked locations come from. Must not be null.
+     */
+    public DestinationSafety(Plugin plugin, LocationManager locationManager) {
+        this.plugin = plugin;
+        this.locationManager = locationManager;
+    }
+
+    /**
+     * Reads the cached verdict on a destination. A location checked for the first time, or
+     * moved since its last check, is reported as unknown and checked in the background.
+     *
+     * @param destination the destination of the teleport. Must not be null.
+     * @return the verdict
+     */
+    public Status check(LocationBuilder destination) {
+        String key = destination.getName().toLowerCase(Locale.ROOT);
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.isAt(destination)) {
+            if (entry != null) {
+                unindex(entry);
+            }
+            entry = new Entry(destination);
+            entries.put(key, entry);
+            index(entry);
+        }
+        if (entry.status == Status.UNKNOWN && !entry.computing) {
+            compute(entry);
+        }
+        return entry.status;
+    }
+
+    /**
+     * Checks a position that is not a registered location, such as a position of the history of
+     * {@code /back}. Nothing is cached: the verdict is computed from fresh chunk snapshots on
+     * every call, since the name of such a destination does not identify its position.
+     *
+     * @param destination the destination of the teleport. Must not be null.
+     * @return a future completed on the main thread with the verdict, {@link Status#UNKNOWN}
+     *         if the world is not loaded or a chunk could not be read
+     */
+    public CompletableFuture<Status> checkPosition(LocationBuilder destination) {
+        CompletableFuture<Status> verdict = new CompletableFuture<>();
+        if (!evaluateAsync(new Entry(destination), verdict::complete)) {
+            verdict.complete(Status.UNKNOWN);
+        }
+        return verdict;
+    }
+
+    /**
+     * Invalidates the verdict of every location whose box contains a block that changed. The
+     * locations are checked again on the next tick, once the change has been applied.
+     *
+     * @param block the block that is about to change
+     */
+    public void blockChanged(Block block) {
+        Map<Long, List<Entry>> chunks = boxesByChunk.get(block.getWorld().getName());
+        if (chunks == null) {
+            return;
+        }
+        int x = block.getX();
+        int y = block.getY();
+        int z = block.getZ();
+        List<Entry> candidates = chunks.get(chunkKey(x >> 4, z >> 4));
+        if (candidates == null) {
+            return;
+        }
+        for (Entry entry : candidates) {
+            if (entry.contains(x, y, z)) {
+                invalidate(entry);
+            }
+        }
+    }
+
+    /**
+     * Drops every cached verdict, typically when the plugin is disabled.
+     */
+    public void clear() {
+        if (recheckTask != null) {
+            recheckTask.cancel();
+            recheckTask = null;
+        }
+        for (Entry entry : entries.values()) {
+            entry.generation++;
+        }
+        entries.clear();
+        boxesByChunk.clear();
+        invalidated.clear();
+    }
+
+    /**
+     * @return the number of cached verdicts
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void invalidate(Entry entry) {
+        // Un contrôle en cours a lu les blocs d'avant le changement : son résultat est ignoré
+        entry.generation++;
+        entry.computing = false;
+        entry.status = Status.UNKNOWN;
+        invalidated.add(entry);
+        if (recheckTask == null) {
+            recheckTask = plugin.getServer().getScheduler().runTask(plugin, this::recheck);
+        }
+    }
+
+    /**
+     * Checks again the locations invalidated during the previous tick, forgetting those deleted since.
+     */
+    private void recheck() {
+        recheckTask = null;
+        List<Entry> pending = new ArrayList<>(invalidated);
+        invalidated.clear();
+        for (Entry entry : pending) {
+            if (entries.get(entry.key) != entry) {
+                continue;
+            }
+            if (locationManager.getLocation(entry.location.getName()) == null) {
+                entries.remove(entry.key);
+                unindex(entry);
+            } else if (!entry.computing && entry.status == Status.UNKNOWN) {
+                compute(entry);
+            }
+        }
+    }
+
+    /**
+     * Computes the verdict of a cached entry in the background.
+     */
+    private void compute(Entry entry) {
+        int generation = entry.generation;
+        entry.computing = true;
+        boolean started = evaluateAsync(entry, status -> {
+            if (entry.generation == generation) {
+                entry.status = status;
+                entry.computing = false;
+            }
+        });
+        if (!started) {
+            // Monde non chargé : le verdict reste inconnu jusqu'au prochain contrôle
+            entry.computing = false;
+        }
+    }
+
+    /**
+     * Captures the chunks of the box of an entry and evaluates them in the background.
+     *
+     * @param entry the box to evaluate
+     * @param done  receives the verdict on the main thread, or {@link Status#UNKNOWN} if a chunk could not be loaded
+     * @return {@code false} if the world of the entry is not loaded, in which case {@code done} is never called
+     */
+    private boolean evaluateAsync(Entry entry, Consumer<Status> done) {
+        Location origin = entry.location.getLocation();
+        if (origin == null) {
+            return false;
+        }
+        World world = origin.getWorld();
+        List<CompletableFuture<ChunkSnapshot>> snapshots = new ArrayList<>(4);
+        for (int chunkX = entry.minX >> 4; chunkX <= entry.maxX >> 4; chunkX++) {
+            for (int chunkZ = entry.minZ >> 4; chunkZ <= entry.maxZ >> 4; chunkZ++) {
+                snapshots.add(world.getChunkAtAsync(chunkX, chunkZ)
+                        .thenApply(chunk -> chunk.getChunkSnapshot(false, false, false)));
+            }
+        }
+        int minHeight = world.getMinHeight();
+        int maxHeight = world.getMaxHeight();
+        CompletableFuture.allOf(snapshots.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.FINE, "Chargement du chunk de " + entry.location.getName() + " impossible.", error);
+                done.accept(Status.UNKNOWN);
+                return;
+            }
+            List<ChunkSnapshot> captured = new ArrayList<>(snapshots.size());
+            for (CompletableFuture<ChunkSnapshot> snapshot : snapshots) {
+                captured.add(snapshot.join());
+            }
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                Status status = evaluate(entry, captured, minHeight, maxHeight);
+                plugin.getServer().getScheduler().runTask(plugin, () -> done.accept(status));
+            });
+        });
+        return true;
+    }
+
+    /**
+     * Applies the safety rules to the box of an entry, on a background thread.
+     */
+    private static Status evaluate(Entry entry, List<ChunkSnapshot> snapshots, int minHeight, int maxHeight) {
+        if (entry.minY < minHeight || entry.maxY >= maxHeight) {
+            return Status.UNSAFE;
+        }
+        Map<Long, ChunkSnapshot> byChunk = new HashMap<>();
+        for (ChunkSnapshot snapshot : snapshots) {
+            byChunk.put(chunkKey(snapshot.getX(), snapshot.getZ()), snapshot);
+        }
+        int x = entry.minX + 1;
+        int z = entry.minZ + 1;
+        int ground = entry.minY;
+        if (!BlockSafety.isSafeGround(type(byChunk, x, ground, z))
+                || !BlockSafety.isFreeSpace(type(byChunk, x, ground + 1, z))
+                || !BlockSafety.isFreeSpace(type(byChunk, x, ground + 2, z))) {
+            return Status.UNSAFE;
+        }
+        for (int bx = entry.minX; bx <= entry.maxX; bx++) {
+            for (int by = entry.minY; by <= entry.maxY; by++) {
+                for (int bz = entry.minZ; bz <= entry.maxZ; bz++) {
+                    if (BlockSafety.isHazard(type(byChunk, bx, by, bz))) {
+                        return Status.UNSAFE;
+                    }
+                }
+            }
+        }
+        return Status.SAFE;
+    }
+
+    private static Material type(Map<Long, ChunkSnapshot> byChunk, int x, int y, int z) {
+        return byChunk.get(chunkKey(x >> 4, z >> 4)).getBlockType(x & 15, y, z & 15);
+    }
+
+    private void index(Entry entry) {
+        if (entry.worldName == null) {
+            return;
+        }
+        Map<Long, List<Entry>> chunks = boxesByChunk.computeIfAbsent(entry.worldName, world -> new HashMap<>());
+        for (int chunkX = entry.minX >> 4; chunkX <= entry.maxX >> 4; chunkX++) {
+            for (int chunkZ = entry.minZ >> 4; chunkZ <= entry.maxZ >> 4; chunkZ++) {
+                chunks.computeIfAbsent(chunkKey(chunkX, chunkZ), key -> new ArrayList<>(1)).add(entry);
+            }
+        }
+    }
+
+    private void unindex(Entry entry) {
+        entry.generation++;
+        invalidated.remove(entry);
+        Map<Long, List<Entry>> chunks = entry.worldName == null ? null : boxesByChunk.get(entry.worldName);
+        if (chunks == null) {
+            return;
+        }
+        for (int chunkX = entry.minX >> 4; chunkX <= entry.maxX >> 4; chunkX++) {
+            for (int chunkZ = entry.minZ >> 4; chunkZ <= entry.maxZ >> 4; chunkZ++) {
+                long key = chunkKey(chunkX, chunkZ);
+                List<Entry> list = chunks.get(key);
+                if (list != null && list.remove(entry) && list.isEmpty()) {
+                    chunks.remove(key);
+                }
+            }
+        }
+        if (chunks.isEmpty()) {
+            boxesByChunk.remove(entry.worldName);
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The cached verdict on a location, with the box of blocks it depends on.
+     */
+    private static final class Entry {
+
+        private final String key;
+        private final LocationBuilder location;
+        private final String worldName;
+        /**
+         * The box around the feet: one block around horizontally, from the ground to the head.
+         */
+        private final int minX;
+        private final int maxX;
+        private final int minY;
+        private final int maxY;
+        private final int minZ;
+        private final int maxZ;
+        private Status status = Status.UNKNOWN;
+        private boolean computing;
+        /**
+         * Incremented on every invalidation, so that a check started before is ignored when it ends.
+         */
+        private int generation;
+
+        private Entry(LocationBuilder location) {
+            this.key = location.getName().toLowerCase(Locale.ROOT);
+            this.location = location;
+            this.worldName = location.getWorldName();
+            int x = (int) Math.floor(location.getX());
+            int z = (int) Math.floor(location.getZ());
+            // Un joueur posé sur une dalle (y = 64.5) se tient sur le bloc 64, pas sur le 63
+            int ground = (int) Math.ceil(location.getY()) - 1;
+            this.minX = x - 1;
+            this.maxX = x + 1;
+            this.minY = ground;
+            this.maxY = ground + 2;
+            this.minZ = z - 1;
+            this.maxZ = z + 1;
+        }
+
+        /**
+         * @return {@code true} if the location still stands where this verdict was computed
+         */
+        private boolean isAt(LocationBuilder other) {
+            return other == location || (other.getX() == location.getX() && other.getY() == location.getY()
+                    && other.getZ() == location.getZ() && other.getWorldName() != null
+                    && other.getWorldName().equals(worldName));
+        }
+
+        private boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+    }
+}
@@ -1,35 +1,111 @@
 package akia.spawnManager.manager;
 
 import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.metrics.Metrics;
+import akia.spawnManager.storage.AsyncFileWriter;
+import akia.spawnManager.storage.LocationStorage;
+import akia.spawnManager.storage.StorageChanges;
+import akia.spawnManager.storage.StorageFormat;
+import akia.spawnManager.storage.StoredLocation;
 import org.bukkit.Location;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Manages {@link LocationBuilder} instances, enabling the registration, retrieval,
  * manipulation, and removal of named locations. Provides functionality to store and
  * retrieve locations from a persistent configuration file and to teleport players
  * to registered locations.
+ *
+ * <p>The registry is published as an immutable {@link LocationSnapshot}: every change,
+ * made from the main thread, derives a new snapshot and swaps it in. Other threads read
+ * the registry through {@link #getSnapshot()} without locking and never see a partial
+ * change. The spatial index and the chunk tickets are only maintained for the main thread.</p>
  */
 public class LocationManager {
 
     /**
-     * A cache for storing {@code LocationBuilder} instances, identified by their names.
-     * This map facilitates quick access, registration, retrieval, and manipulation
-     * of {@code LocationBuilder} objects within the {@code LocationManager} class.
-     * The key represents the name of the location, and the value is the associated
-     * {@code LocationBuilder} object. Ensures efficient management of named locations.
+     * The current snapshot of the registry. Replaced, never modified, on every change.
      */
-    private final Map<String, LocationBuilder> locationCache = new HashMap<>();
+    private volatile LocationSnapshot snapshot = LocationSnapshot.EMPTY;
+    /**
+     * Per-world spatial index of the registered locations, used to find the locations
+     * closest to a player.
+     */
+    private final SpatialIndex spatialIndex = new SpatialIndex();
+    /**
+     * The version of the last snapshot that was successfully written to disk. Compared
+     * against the current version to decide whether the registry needs to be written again.
+     * A later write succeeding does not mean an earlier one did: the changes of a failed
+     * write are tracked by {@link #pendingChanges} and {@link #pendingFullWrite} instead.
+     * Updated from the writer thread, hence volatile.
+     */
+    private volatile long savedVersion;
+    /**
+     * Background writer used by {@link #saveLocationsAsync(Plugin)}. Created on the first
+     * asynchronous save and shut down by {@link #shutdownPersistence(long, TimeUnit)}.
+     */
+    private AsyncFileWriter writer;
+    /**
+     * The queue through which the teleports requested by {@link #teleportPlayer(Player, String)}
+     * are spread over several ticks.
+     */
+    private final TeleportQueue teleportQueue;
+    /**
+     * Keeps the chunks around the hot locations loaded. Kept in sync with every change
+     * made to the registry.
+     */
+    private final ChunkTicketManager chunkTickets;
+    /**
+     * The format of the locations file, selected by {@code storage.format}.
+     */
+    private StorageFormat storageFormat = StorageFormat.YAML;
+    /**
+     * The backend of {@link #storageFormat}, opened on first use.
+     */
+    private LocationStorage storage;
+    /**
+     * The names of the locations created, modified or deleted since the last write. Whether a
+     * name was upserted or deleted is decided at write time, from the snapshot being written.
+     * Names are put back from the writer thread when a write fails, hence the concurrent set.
+     */
+    private final Set<String> pendingChanges = ConcurrentHashMap.newKeySet();
+    /**
+     * Whether the next write must replace the whole backend, because the registry was cleared,
+     * the backend was just selected, or a previous write failed.
+     */
+    private volatile boolean pendingFullWrite = true;
+    /**
+     * The metrics recording the duration of the saves and loads.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Constructs a new, empty {@code LocationManager}.
+     *
+     * @param teleportQueue the queue used to perform the teleports. Must not be null.
+     * @param chunkTickets  the manager of the chunk tickets held around hot locations. Must not be null.
+     * @param metrics       the metrics recording the duration of the saves and loads. Must not be null.
+     */
+    public LocationManager(TeleportQueue teleportQueue, ChunkTicketManager chunkTickets, Metrics metrics) {
+        this.teleportQueue = teleportQueue;
+        this.chunkTickets = chunkTickets;
+        this.metrics = metrics;
+    }
 
     /**
      * Registers a location using the provided {@code LocationBuilder}.
@@ -44,7 +120,93 @@ public class LocationManager {
         if (locationBuilder == null || locationBuilder.getName() == null) {
             throw new IllegalArgumentException("LocationBuilder et son nom ne peuvent être null.");
         }
-        locationCache.put(locationBuilder.getName(), locationBuilder);
+        LocationBuilder previous = snapshot.get(locationBuilder.getName());
+        snapshot = snapshot.with(locationBuilder);
+        pendingChanges.add(locationBuilder.getName());
+        if (previous != null) {
+            spatialIndex.remove(previous);
+        }
+        spatialIndex.add(locationBuilder);
+        chunkTickets.update(locationBuilder);
+    }
+
+    /**
+     * Registers several locations at once, replacing those with the same names. The
+     * registry is published once for the whole batch.
+     *
+     * @param locationBuilders the locations to register. Their names must not be null.
+     */
+    public void registerLocations(Collection<LocationBuilder> locationBuilders) {
+        LocationSnapshot current = snapshot;
+        for (LocationBuilder locationBuilder : locationBuilders) {
+            if (locationBuilder == null || locationBuilder.getName() == null) {
+                throw new IllegalArgumentException("LocationBuilder et son nom ne peuvent être null.");
+            }
+            LocationBuilder previous = current.get(locationBuilder.getName());
+            if (previous != null) {
+                spatialIndex.remove(previous);
+            }
+        }
+        LocationSnapshot updated = current.withAll(locationBuilders);
+        snapshot = updated;
+        // Seul le lot est parcouru : un import par lots reste proportionnel au lot, pas au registre
+        for (LocationBuilder locationBuilder : locationBuilders) {
+            // Un nom présent deux fois dans le lot n'est indexé que pour sa dernière occurrence
+            if (updated.get(locationBuilder.getName()) == locationBuilder) {
+                pendingChanges.add(locationBuilder.getName());
+                spatialIndex.add(locationBuilder);
+                chunkTickets.update(locationBuilder);
+            }
+        }
+    }
+
+    /**
+     * Renames a registered location.
+     *
+     * @param name    the current name of the location
+     * @param newName the new name of the location. Must not be used by another location.
+     * @return {@code true} if the location was renamed, {@code false} if it does not exist
+     *         or the new name is already taken
+     */
+    public boolean renameLocation(String name, String newName) {
+        LocationSnapshot current = snapshot;
+        LocationBuilder locationBuilder = current.get(name);
+        if (newName == null || locationBuilder == null || current.get(newName) != null) {
+            return false;
+        }
+        LocationBuilder renamed = locationBuilder.withName(newName);
+        // Une seule publication : les lecteurs voient l'ancien ou le nouveau nom, jamais les deux
+        snapshot = current.without(name).with(renamed);
+        pendingChanges.add(name);
+        pendingChanges.add(newName);
+        spatialIndex.remove(locationBuilder);
+        spatialIndex.add(renamed);
+        chunkTickets.release(name);
+        chunkTickets.update(renamed);
+        return true;
+    }
+
+    /**
+     * Moves an already registered location to a new position.
+     * The registered {@link LocationBuilder} is replaced by a moved copy, so the snapshots
+     * already handed out keep the old position.
+     *
+     * @param name     the name of the location to move
+     * @param location the new position of the location
+     * @return {@code true} if the location was found and updated, {@code false} otherwise
+     */
+    public boolean updateLocation(String name, Location location) {
+        LocationBuilder locationBuilder = snapshot.get(name);
+        if (locationBuilder == null) {
+            return false;
+        }
+        LocationBuilder moved = locationBuilder.withLocation(location);
+        snapshot = snapshot.with(moved);
+        pendingChanges.add(name);
+        spatialIndex.remove(locationBuilder);
+        spatialIndex.add(moved);
+        chunkTickets.update(moved);
+        return true;
     }
 
     /**
@@ -55,7 +217,75 @@ public class LocationManager {
      *         or {@code null} if no matching location is found
      */
     public LocationBuilder getLocation(String name) {
-        return locationCache.get(name);
+        return snapshot.get(name);
+    }
+
+    /**
+     * Retrieves the {@link LocationBuilder} associated with the specified name, optionally
+     * ignoring case. An exact match is always preferred over a case-insensitive one.
+     *
+     * @param name       the name of the location to retrieve
+     * @param ignoreCase whether a location whose name only differs by its case may be returned
+     * @return the matching {@code LocationBuilder}, or {@code null} if no matching location is found
+     */
+    public LocationBuilder getLocation(String name, boolean ignoreCase) {
+        LocationSnapshot current = snapshot;
+        return ignoreCase ? current.getIgnoreCase(name) : current.get(name);
+    }
+
+    /**
+     * Lists the names of the registered locations starting with the given prefix, ignoring
+     * case, in alphabetical order. Only the matching names are visited.
+     *
+     * @param prefix the beginning of the name typed by the user
+     * @param limit  the maximum number of names to return
+     * @return at most {@code limit} matching location names
+     */
+    public List<String> completeLocationNames(String prefix, int limit) {
+        return snapshot.complete(prefix, limit);
+    }
+
+    /**
+     * Completes a hierarchical name one segment at a time, as shown by
+     * {@link LocationSnapshot#completeSegment(String, int)}. Safe to call from any thread.
+     *
+     * @param prefix the prefix typed by the user
+     * @param limit  the maximum number of suggestions to return
+     * @return at most {@code limit} names and groups, in sorted order
+     */
+    public List<String> completeLocationPath(String prefix, int limit) {
+        return snapshot.completeSegment(prefix, limit);
+    }
+
+    /**
+     * Lists the locations of a group, such as {@code arena} for {@code arena/red} and
+     * {@code arena/blue/1}. The cost depends on the size of the group, not of the registry.
+     *
+     * @param group the path of the group, ignoring case
+     * @return the names of its locations, sorted case-insensitively. The list cannot be modified.
+     */
+    public List<String> getGroup(String group) {
+        return snapshot.group(group);
+    }
+
+    /**
+     * Picks a location of a group at random.
+     *
+     * @param group the path of the group, ignoring case
+     * @return the picked location, or {@code null} if the group is empty
+     */
+    public LocationBuilder getRandomMember(String group) {
+        return snapshot.randomMember(group, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Retrieves the current snapshot of the registry. The snapshot is immutable and may be
+     * read from any thread; it does not reflect the changes made after this call.
+     *
+     * @return the current snapshot of the registry
+     */
+    public LocationSnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -65,7 +295,30 @@ public class LocationManager {
      *         currently registered in the location cache.
      */
     public Collection<LocationBuilder> getAllLocations() {
-        return Collections.unmodifiableCollection(locationCache.values());
+        return snapshot.values();
+    }
+
+    /**
+     * Finds the registered location closest to the given position, in the same world.
+     *
+     * @param origin the position to search from. Its world must not be null.
+     * @param filter only the locations accepted by this filter are considered
+     * @return the closest accepted location, or {@code null} if there is none in this world
+     */
+    public LocationBuilder findNearest(Location origin, Predicate<LocationBuilder> filter) {
+        return spatialIndex.nearest(origin.getWorld().getName(), origin.getX(), origin.getY(), origin.getZ(), filter);
+    }
+
+    /**
+     * Finds the {@code count} registered locations closest to the given position, in the same world.
+     *
+     * @param origin the position to search from. Its world must not be null.
+     * @param count  the maximum number of locations to return
+     * @param filter only the locations accepted by this filter are considered
+     * @return at most {@code count} accepted locations, closest first
+     */
+    public List<LocationBuilder> findNearest(Location origin, int count, Predicate<LocationBuilder> filter) {
+        return spatialIndex.nearest(origin.getWorld().getName(), origin.getX(), origin.getY(), origin.getZ(), count, filter);
     }
 
     /**
@@ -74,26 +327,73 @@ public class LocationManager {
      * @param name the name of the location to be removed from the cache. Cannot be null.
      */
     public void unregisterLocation(String name) {
-        locationCache.remove(name);
+        LocationBuilder removed = snapshot.get(name);
+        if (removed != null) {
+            snapshot = snapshot.without(name);
+            pendingChanges.add(name);
+            spatialIndex.remove(removed);
+            chunkTickets.release(name);
+        }
+    }
+
+    /**
+     * Unregisters every location of a group in a single change of the registry.
+     *
+     * @param group the path of the group, ignoring case
+     * @return the number of locations removed
+     */
+    public int unregisterGroup(String group) {
+        LocationSnapshot current = snapshot;
+        List<String> names = current.group(group);
+        if (names.isEmpty()) {
+            return 0;
+        }
+        snapshot = current.withoutGroup(group);
+        for (String name : names) {
+            pendingChanges.add(name);
+            spatialIndex.remove(current.get(name));
+            chunkTickets.release(name);
+        }
+        return names.size();
     }
 
     /**
      * Teleports a player to a specific location based on the location name.
-     * The method looks up the location using the provided name and,
-     * if found, teleports the given player to that location.
+     * The method looks up the location using the provided name, ignoring case, and,
+     * if found, teleports the given player to that location through the {@link TeleportQueue}:
+     * the teleport may be delayed by a few ticks when many players are being teleported.
      *
      * @param player The player to be teleported. Must not be null.
      * @param locationName The name of the location to teleport the player to. Must not be null.
-     * @return {@code true} if the player was successfully teleported to the location,
-     *         {@code false} if the location with the specified name could not be found.
+     * @return {@code true} if the player is being teleported to the location,
+     *         {@code false} if the location with the specified name could not be found
+     *         or its world is not loaded.
      */
     public boolean teleportPlayer(Player player, String locationName) {
-        LocationBuilder locationBuilder = getLocation(locationName);
-        if (locationBuilder != null) {
-            locationBuilder.teleportLocation(player);
-            return true;
+        LocationBuilder locationBuilder = getLocation(locationName, true);
+        if (locationBuilder == null || locationBuilder.getLocation() == null) {
+            return false;
         }
-        return false;
+        teleportQueue.enqueue(player, locationBuilder);
+        return true;
+    }
+
+    /**
+     * Teleports a player to a location looked up by name, ignoring case, and reports when
+     * the teleport is done. The destination chunk is loaded asynchronously if needed.
+     *
+     * @param player       The player to be teleported. Must not be null.
+     * @param locationName The name of the location to teleport the player to. Must not be null.
+     * @return a future completed on the main thread with {@code true} once the player has been
+     *         teleported, or with {@code false} if the location does not exist, its world is not
+     *         loaded or the teleport failed
+     */
+    public CompletableFuture<Boolean> teleportPlayerAsync(Player player, String locationName) {
+        LocationBuilder locationBuilder = getLocation(locationName, true);
+        if (locationBuilder == null || locationBuilder.getLocation() == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return teleportQueue.enqueue(player, locationBuilder);
     }
 
     /**
@@ -101,69 +401,381 @@ public class LocationManager {
      * This operation will result in an empty cache, effectively resetting the managed locations.
      */
     public void clearLocations() {
-        locationCache.clear();
+        if (snapshot.size() > 0) {
+            snapshot = snapshot.cleared();
+            // Tout le support est réécrit : les changements en attente n'ont plus d'objet
+            pendingFullWrite = true;
+            pendingChanges.clear();
+            spatialIndex.clear();
+            chunkTickets.releaseAll();
+        }
+    }
+
+    /**
+     * Drops the cached {@link Location} of every location in the given world, so that the
+     * registry does not keep the world alive once it is unloaded.
+     *
+     * @param worldName the name of the world being unloaded
+     */
+    public void unbindWorld(String worldName) {
+        chunkTickets.forgetWorld(worldName);
+        for (LocationBuilder locationBuilder : snapshot.values()) {
+            if (worldName.equals(locationBuilder.getWorldName())) {
+                locationBuilder.unbind();
+            }
+        }
     }
 
     /**
-     * Saves the currently cached locations to a YAML configuration file named "locations.yml"
-     * within the data folder of the specified plugin. Each location is associated with a key
-     * representing its name in the cache and is serialized before being saved.
+     * Resolves the {@link Location} of every location in the given world, typically right
+     * after the world has been loaded.
+     *
+     * @param worldName the name of the world that was loaded
+     */
+    public void bindWorld(String worldName) {
+        for (LocationBuilder locationBuilder : snapshot.values()) {
+            if (worldName.equals(locationBuilder.getWorldName())) {
+                locationBuilder.unbind();
+                locationBuilder.getLocation();
+                chunkTickets.update(locationBuilder);
+            }
+        }
+    }
+
+    /**
+     * Changes the locations whose surrounding chunks are kept loaded, and acquires the
+     * tickets of those already registered.
+     *
+     * @param radius       the radius in chunks kept loaded around each hot location, or a
+     *                     negative value to disable the tickets
+     * @param hotLocations the names of the locations to keep loaded
+     */
+    public void configureChunkTickets(int radius, Set<String> hotLocations) {
+        chunkTickets.configure(radius, hotLocations);
+        for (String name : hotLocations) {
+            LocationBuilder locationBuilder = snapshot.get(name);
+            if (locationBuilder != null) {
+                chunkTickets.update(locationBuilder);
+            }
+        }
+    }
+
+    /**
+     * Releases every chunk ticket held around the hot locations.
+     */
+    public void releaseChunkTickets() {
+        chunkTickets.releaseAll();
+    }
+
+    /**
+     * Indicates whether the registry changed since the last successful save, or whether
+     * the changes of a failed save still have to be written again.
+     *
+     * @return {@code true} if there are changes that have not been written to disk yet
+     */
+    public boolean isDirty() {
+        return snapshot.version() != savedVersion || pendingFullWrite || !pendingChanges.isEmpty();
+    }
+
+    /**
+     * Saves the currently cached locations to the backend selected by {@code storage.format}
+     * ("locations.yml" by default) within the data folder of the specified plugin. File
+     * backends are rewritten entirely, while the database only receives the locations
+     * changed since the last save. The backend is written on the calling thread; prefer
+     * {@link #saveLocationsAsync(Plugin)} while the server is running.
      *
      * @param plugin the plugin instance whose data folder is used to save the locations file.
      *               Must not be null.
      */
     public void saveLocations(Plugin plugin) {
-        File dataFolder = plugin.getDataFolder();
-        if (!dataFolder.exists()) {
-            dataFolder.mkdirs();
-        }
-        File file = new File(dataFolder, "locations.yml");
-        YamlConfiguration config = new YamlConfiguration();
-
-        for (Map.Entry<String, LocationBuilder> entry : locationCache.entrySet()) {
-            String key = entry.getKey();
-            Location location = entry.getValue().getLocation();
-            if (location != null) {
-                // Bukkit se charge de sérialiser l'objet Location
-                config.set("locations." + key, location);
+        LocationStorage target = storage(plugin);
+        LocationSnapshot captured = snapshot;
+        StorageChanges changes = drainChanges(captured);
+        long start = System.nanoTime();
+        try {
+            target.write(changes);
+            savedVersion = captured.version();
+            metrics.saves.recordSince(start);
+        } catch (IOException e) {
+            restoreChanges(changes);
+            metrics.saveFailures.increment();
+            plugin.getLogger().log(Level.SEVERE, "Impossible de sauvegarder les locations.", e);
+        }
+    }
+
+    /**
+     * Saves the cached locations without blocking the main thread. The changes are collected
+     * from the current snapshot of the registry and written to the backend on a background
+     * thread; file backends go through a temporary file and an atomic rename, the database
+     * applies them in a single transaction.
+     *
+     * @param plugin the plugin instance whose data folder is used to save the locations file.
+     *               Must not be null.
+     * @return a future completed once the backend has been written
+     */
+    public CompletableFuture<Void> saveLocationsAsync(Plugin plugin) {
+        if (writer == null) {
+            writer = new AsyncFileWriter(plugin.getLogger());
+        }
+        LocationStorage target = storage(plugin);
+        LocationSnapshot captured = snapshot;
+        StorageChanges changes = drainChanges(captured);
+        long start = System.nanoTime();
+        return writer.submit("les locations", () -> target.write(changes))
+                .whenComplete((ignored, error) -> {
+                    if (error == null) {
+                        savedVersion = captured.version();
+                        metrics.saves.recordSince(start);
+                    } else {
+                        restoreChanges(changes);
+                        metrics.saveFailures.increment();
+                    }
+                });
+    }
+
+    /**
+     * Collects the changes journaled since the last write and resets the journal. Must be
+     * called from the main thread; the journaled names are resolved against the snapshot
+     * being written.
+     *
+     * @param captured the snapshot being written
+     * @return the changes to hand to the backend
+     */
+    private StorageChanges drainChanges(LocationSnapshot captured) {
+        boolean fullRewrite = pendingFullWrite;
+        pendingFullWrite = false;
+        List<StoredLocation> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        if (!fullRewrite) {
+            for (String name : pendingChanges) {
+                LocationBuilder locationBuilder = captured.get(name);
+                if (locationBuilder == null) {
+                    deletes.add(name);
+                } else if (locationBuilder.getWorldName() != null) {
+                    upserts.add(toStored(locationBuilder));
+                }
+            }
+        }
+        pendingChanges.clear();
+        return new StorageChanges(fullRewrite, () -> toStored(captured), upserts, deletes);
+    }
+
+    /**
+     * Puts the changes of a failed write back in the journal, so that the next write retries them.
+     *
+     * @param changes the changes that could not be written
+     */
+    private void restoreChanges(StorageChanges changes) {
+        if (changes.fullRewrite()) {
+            pendingFullWrite = true;
+            return;
+        }
+        for (StoredLocation upsert : changes.upserts()) {
+            pendingChanges.add(upsert.name());
+        }
+        pendingChanges.addAll(changes.deletes());
+    }
+
+    /**
+     * Retrieves the backend of the selected format, opening it on first use.
+     *
+     * @param plugin the plugin whose data folder contains the backend
+     * @return the backend of {@link #storageFormat}
+     */
+    private LocationStorage storage(Plugin plugin) {
+        if (storage == null) {
+            File dataFolder = plugin.getDataFolder();
+            if (!dataFolder.exists()) {
+                dataFolder.mkdirs();
             }
+            storage = storageFormat.open(dataFolder);
+        }
+        return storage;
+    }
+
+    /**
+     * Waits for the pending asynchronous saves to complete, stops the background writer and
+     * closes the backend. Must be called when the plugin is disabled.
+     *
+     * @param timeout the maximum time to wait for in-flight writes
+     * @param unit    the unit of {@code timeout}
+     * @return {@code true} if every pending write completed, {@code false} if the timeout elapsed first
+     */
+    public boolean shutdownPersistence(long timeout, TimeUnit unit) {
+        boolean completed = true;
+        if (writer != null) {
+            completed = writer.shutdown(timeout, unit);
+            writer = null;
         }
+        // Si une écriture est encore en cours, la base est fermée à la fin de celle-ci
+        closeStorage();
+        return completed;
+    }
 
+    /**
+     * Closes the current backend, if it was opened.
+     */
+    private void closeStorage() {
+        if (storage == null) {
+            return;
+        }
+        LocationStorage closing = storage;
+        storage = null;
         try {
-            config.save(file);
+            closing.close();
         } catch (IOException e) {
-            e.printStackTrace();
+            Logger.getLogger(LocationManager.class.getName()).log(Level.WARNING, "Impossible de fermer le stockage des locations.", e);
         }
     }
 
     /**
-     * Loads location data from a configuration file located in the plugin's data folder.
-     * If the file does not exist, the method exits without taking any action.
-     * If locations are found within the configuration, they are converted into
-     * {@link LocationBuilder} objects and registered into the system.
+     * Converts a snapshot of the registry into the records written by the storage codecs.
+     * Safe to call from any thread.
      *
-     * @param plugin the plugin whose data folder contains the locations configuration file
+     * @param snapshot the snapshot to convert
+     * @return the name and position of every location of the snapshot
      */
-    public void loadLocations(Plugin plugin) {
-        File dataFolder = plugin.getDataFolder();
-        if (!dataFolder.exists()) {
-            dataFolder.mkdirs();
+    private static List<StoredLocation> toStored(LocationSnapshot snapshot) {
+        List<StoredLocation> stored = new ArrayList<>(snapshot.size());
+        for (LocationBuilder lb : snapshot.values()) {
+            if (lb.getWorldName() != null) {
+                stored.add(toStored(lb));
+            }
         }
-        File file = new File(dataFolder, "locations.yml");
-        if (!file.exists()) {
+        return stored;
+    }
+
+    /**
+     * Converts a single location into the record written by the storage backends.
+     * Its world must not be null.
+     */
+    private static StoredLocation toStored(LocationBuilder lb) {
+        // Les coordonnées brutes suffisent, le monde n'a pas besoin d'être chargé
+        return new StoredLocation(lb.getName(), lb.getWorldName(), lb.getWorldId(),
+                lb.getX(), lb.getY(), lb.getZ(), lb.getYaw(), lb.getPitch());
+    }
+
+    /**
+     * Selects the format used by the next loads and saves. The existing data is not converted;
+     * use {@link #convertStorage(Plugin, StorageFormat, StorageFormat)} for that. The next save
+     * writes the whole registry to the new backend.
+     *
+     * @param storageFormat the format of the locations file. Must not be null.
+     */
+    public void setStorageFormat(StorageFormat storageFormat) {
+        if (this.storageFormat == storageFormat) {
             return;
         }
+        this.storageFormat = storageFormat;
+        LocationStorage previous = storage;
+        storage = null;
+        pendingFullWrite = true;
+        if (previous != null && writer != null) {
+            // L'ancien support est fermé après les écritures qui lui sont encore destinées
+            writer.submit("la fermeture du stockage", previous::close);
+        } else if (previous != null) {
+            storage = previous;
+            closeStorage();
+        }
+    }
 
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
-        if (config.contains("locations")) {
-            ConfigurationSection section = config.getConfigurationSection("locations");
-            for (String key : section.getKeys(false)) {
-                Location location = section.getLocation(key);
-                if (location != null) {
-                    LocationBuilder lb = new LocationBuilder(location, key);
-                    registerLocation(lb);
-                }
+    /**
+     * Loads location data from the backend located in the plugin's data folder.
+     * If the backend holds no data, the method exits without taking any action.
+     * If locations are found, they are converted into {@link LocationBuilder} objects
+     * and registered into the system.
+     *
+     * @param plugin the plugin whose data folder contains the locations file
+     * @return the number of loaded locations, or -1 if the backend could not be read
+     */
+    public int loadLocations(Plugin plugin) {
+        LocationStorage source = storage(plugin);
+        if (!source.exists()) {
+            return 0;
+        }
+        // Le remplacement complet attendu à la sélection du support ne compte pas : seules les modifications du registre
+        boolean wasClean = snapshot.version() == savedVersion && pendingChanges.isEmpty();
+        long start = System.nanoTime();
+
+        List<StoredLocation> storedLocations;
+        try {
+            storedLocations = source.loadAll();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Impossible de charger les locations.", e);
+            return -1;
+        }
+        registerStored(storedLocations);
+        metrics.loads.recordSince(start);
+        if (wasClean) {
+            // Le registre correspond de nouveau au support : rien n'est à réécrire
+            savedVersion = snapshot.version();
+            pendingChanges.clear();
+            pendingFullWrite = false;
+        }
+        return storedLocations.size();
+    }
+
+    /**
+     * Loads the locations of a single world from the backend, replacing the registered
+     * locations with the same names. The database reads them through its per-world index;
+     * the file backends read the whole file and filter it.
+     *
+     * @param plugin    the plugin whose data folder contains the locations file
+     * @param worldName the name of the world whose locations are loaded
+     * @return the number of loaded locations, or -1 if the backend could not be read
+     */
+    public int loadWorldLocations(Plugin plugin, String worldName) {
+        LocationStorage source = storage(plugin);
+        if (!source.exists()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<StoredLocation> storedLocations;
+        try {
+            storedLocations = source.loadWorld(worldName);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Impossible de charger les locations du monde " + worldName + ".", e);
+            return -1;
+        }
+        registerStored(storedLocations);
+        metrics.loads.recordSince(start);
+        return storedLocations.size();
+    }
+
+    /**
+     * Registers the locations read from a backend in a single batch.
+     */
+    private void registerStored(List<StoredLocation> storedLocations) {
+        List<LocationBuilder> loaded = new ArrayList<>(storedLocations.size());
+        for (StoredLocation storedLocation : storedLocations) {
+            // Le monde est résolu au premier usage : les mondes chargés plus tard sont conservés
+            loaded.add(new LocationBuilder(storedLocation.name(), storedLocation.worldName(),
+                    storedLocation.worldId(), storedLocation.x(), storedLocation.y(), storedLocation.z(),
+                    storedLocation.yaw(), storedLocation.pitch()));
+        }
+        registerLocations(loaded);
+    }
+
+    /**
+     * Converts the data of one backend into another, without going through the registry.
+     * The conversion is lossless, including for locations whose world is not loaded, which
+     * allows migrating to the binary format or the database and rolling back to YAML.
+     *
+     * @param plugin the plugin whose data folder contains the storage files
+     * @param source the format to read from
+     * @param target the format to write to
+     * @return the number of converted locations
+     * @throws IOException if the source does not exist or cannot be read, or the target cannot be written
+     */
+    public int convertStorage(Plugin plugin, StorageFormat source, StorageFormat target) throws IOException {
+        File dataFolder = plugin.getDataFolder();
+        try (LocationStorage from = source.open(dataFolder); LocationStorage to = target.open(dataFolder)) {
+            if (!from.exists()) {
+                throw new IOException("Fichier introuvable : " + source.getFile(dataFolder).getName());
             }
+            List<StoredLocation> storedLocations = from.loadAll();
+            to.write(new StorageChanges(true, () -> storedLocations, List.of(), List.of()));
+            return storedLocations.size();
         }
     }
 }
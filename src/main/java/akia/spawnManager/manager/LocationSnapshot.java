@@ -0,0 +1,434 @@
+package akia.spawnManager.manager;
+
+import akia.spawnManager.builder.LocationBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Immutable, versioned view of the registered locations. Every change to the registry
+ * publishes a new snapshot; a snapshot never changes once published, so it can be read
+ * from any thread without locking, for instance by a background save or an asynchronous
+ * tab completion.
+ *
+ * <p>Besides the map of locations by name, a snapshot holds the names sorted
+ * case-insensitively, under the key {@code normalized + '\0' + name}, which answers prefix
+ * and case-insensitive lookups by binary search. Deriving a snapshot from another copies
+ * these structures, which is linear in the number of locations: writes are rare compared
+ * to reads.</p>
+ *
+ * <p>Names are paths whose segments are separated by {@code /}, such as {@code world/arena/red}:
+ * every prefix ending with a separator is a group. Since a group shares the prefix of its
+ * members, its members are a contiguous range of the sorted names, so the sorted array is a
+ * flattened prefix tree: a group is found by two binary searches, and the children of a
+ * group are listed by skipping from one subtree to the next, without visiting the locations
+ * deeper in the tree.</p>
+ */
+public final class LocationSnapshot {
+
+    /**
+     * Separates the normalized name from the original name inside a key. It sorts before
+     * every other character, so all the keys of a given normalized name are contiguous.
+     */
+    private static final char SEPARATOR = '\0';
+    /**
+     * Separates the segments of a hierarchical name.
+     */
+    public static final char PATH_SEPARATOR = '/';
+    /**
+     * The character following {@link #PATH_SEPARATOR}: every key of a group sorts before the
+     * group path followed by this character.
+     */
+    private static final char AFTER_PATH_SEPARATOR = PATH_SEPARATOR + 1;
+
+    /**
+     * The snapshot of an empty registry that was never modified.
+     */
+    static final LocationSnapshot EMPTY = new LocationSnapshot(0L, Collections.emptyMap(), new String[0], new String[0]);
+
+    /**
+     * The number of changes made to the registry before this snapshot was published.
+     */
+    private final long version;
+    /**
+     * The locations, keyed by name. Never modified.
+     */
+    private final Map<String, LocationBuilder> locations;
+    /**
+     * The sorted keys of the names, in the same order as {@link #names}.
+     */
+    private final String[] keys;
+    /**
+     * The names of the locations, sorted case-insensitively.
+     */
+    private final String[] names;
+
+    private LocationSnapshot(long version, Map<String, LocationBuilder> locations, String[] keys, String[] names) {
+        this.version = version;
+        this.locations = locations;
+        this.keys = keys;
+        this.names = names;
+    }
+
+    /**
+     * @return the number of changes made to the registry before this snapshot was published
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return the number of locations
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Retrieves a location by its exact name.
+     *
+     * @param name the name of the location
+     * @return the location, or {@code null} if there is none with this name
+     */
+    public LocationBuilder get(String name) {
+        return locations.get(name);
+    }
+
+    /**
+     * Retrieves a location by name, ignoring case. When several names match, the first
+     * one in sorted order is returned.
+     *
+     * @param name the name of the location
+     * @return the location, or {@code null} if none matches
+     */
+    public LocationBuilder getIgnoreCase(String name) {
+        LocationBuilder locationBuilder = locations.get(name);
+        if (locationBuilder != null) {
+            return locationBuilder;
+        }
+        String normalizedKey = normalize(name) + SEPARATOR;
+        int index = lowerBound(normalizedKey);
+        if (index < keys.length && keys[index].startsWith(normalizedKey)) {
+            return locations.get(names[index]);
+        }
+        return null;
+    }
+
+    /**
+     * @return every location, in no particular order. The collection cannot be modified.
+     */
+    public Collection<LocationBuilder> values() {
+        return Collections.unmodifiableCollection(locations.values());
+    }
+
+    /**
+     * @return the names of every location, sorted case-insensitively. The list cannot be modified.
+     */
+    public List<String> sortedNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Finds the names starting with the given prefix, ignoring case, in sorted order.
+     *
+     * @param prefix the prefix typed by the user
+     * @param limit  the maximum number of names to return
+     * @return at most {@code limit} matching names
+     */
+    public List<String> complete(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        List<String> completions = new ArrayList<>(Math.min(limit, 16));
+        for (int i = lowerBound(normalizedPrefix); i < keys.length && completions.size() < limit; i++) {
+            if (!keys[i].startsWith(normalizedPrefix)) {
+                break;
+            }
+            completions.add(names[i]);
+        }
+        return completions;
+    }
+
+    /**
+     * Completes a hierarchical name one segment at a time: the locations and the groups found
+     * directly under the group already typed, whose segment starts with the rest of the prefix.
+     * A group is suggested once, followed by the separator, however many locations it holds.
+     *
+     * @param prefix the prefix typed by the user, such as {@code arena/r}
+     * @param limit  the maximum number of suggestions to return
+     * @return at most {@code limit} names and groups, in sorted order
+     */
+    public List<String> completeSegment(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        // Début du segment en cours de saisie et nombre de segments déjà complets
+        int segmentStart = normalizedPrefix.lastIndexOf(PATH_SEPARATOR) + 1;
+        int level = depth(normalizedPrefix);
+        List<String> completions = new ArrayList<>(Math.min(limit, 16));
+        int i = lowerBound(normalizedPrefix);
+        while (i < keys.length && completions.size() < limit && keys[i].startsWith(normalizedPrefix)) {
+            int child = keys[i].indexOf(PATH_SEPARATOR, segmentStart);
+            if (child < 0 || child > keys[i].indexOf(SEPARATOR)) {
+                completions.add(names[i]);
+                i++;
+            } else {
+                // Le nom d'origine garde sa casse : le groupe y est coupé au même séparateur
+                completions.add(names[i].substring(0, separatorIndex(names[i], level) + 1));
+                // Saute tout le sous-groupe d'un coup : ses locations sont contiguës
+                i = lowerBound(keys[i].substring(0, child) + AFTER_PATH_SEPARATOR);
+            }
+        }
+        return completions;
+    }
+
+    /**
+     * Checks that a name is a well-formed path: not empty, and made of non-empty segments, so
+     * that it neither starts nor ends with a separator nor holds two of them in a row.
+     *
+     * @param name the name to check
+     * @return {@code true} if the name can be registered
+     */
+    public static boolean isValidPath(String name) {
+        return !name.isEmpty() && name.charAt(0) != PATH_SEPARATOR && name.charAt(name.length() - 1) != PATH_SEPARATOR
+                && !name.contains("" + PATH_SEPARATOR + PATH_SEPARATOR);
+    }
+
+    /**
+     * Lists the locations of a group, at any depth below it.
+     *
+     * @param group the path of the group, with or without its trailing separator, ignoring case
+     * @return the names of its locations, sorted case-insensitively. The list cannot be modified.
+     */
+    public List<String> group(String group) {
+        int from = groupStart(group);
+        return Collections.unmodifiableList(Arrays.asList(names).subList(from, groupEnd(group, from)));
+    }
+
+    /**
+     * Picks a location of a group at random, each one with the same probability.
+     *
+     * @param group  the path of the group, with or without its trailing separator, ignoring case
+     * @param random the source of randomness
+     * @return the picked location, or {@code null} if the group is empty
+     */
+    public LocationBuilder randomMember(String group, Random random) {
+        int from = groupStart(group);
+        int to = groupEnd(group, from);
+        return from < to ? locations.get(names[from + random.nextInt(to - from)]) : null;
+    }
+
+    /**
+     * Derives the snapshot in which a location is added, or replaces the one with the same name.
+     *
+     * @param locationBuilder the location to add. Its name must not be null.
+     * @return the new snapshot, one version ahead
+     */
+    LocationSnapshot with(LocationBuilder locationBuilder) {
+        Map<String, LocationBuilder> copy = new HashMap<>(locations);
+        if (copy.put(locationBuilder.getName(), locationBuilder) != null) {
+            // Même nom : seules les valeurs changent, l'ordre des noms reste valable
+            return new LocationSnapshot(version + 1, Collections.unmodifiableMap(copy), keys, names);
+        }
+        String key = key(locationBuilder.getName());
+        int index = lowerBound(key);
+        return new LocationSnapshot(version + 1, Collections.unmodifiableMap(copy),
+                insert(keys, index, key), insert(names, index, locationBuilder.getName()));
+    }
+
+    /**
+     * Derives the snapshot in which several locations are added at once, replacing those with
+     * the same names. Cheaper than chaining {@link #with(LocationBuilder)} for a bulk load: only
+     * the new names are sorted, then merged in a single pass with the names already sorted,
+     * whose keys are reused as they are.
+     *
+     * @param locationBuilders the locations to add. Their names must not be null.
+     * @return the new snapshot, one version ahead
+     */
+    LocationSnapshot withAll(Collection<LocationBuilder> locationBuilders) {
+        Map<String, LocationBuilder> copy = new HashMap<>(locations);
+        List<String> addedKeys = new ArrayList<>();
+        for (LocationBuilder locationBuilder : locationBuilders) {
+            // Un nom remplacé, ou déjà vu dans le lot, garde sa place dans l'ordre des noms
+            if (copy.put(locationBuilder.getName(), locationBuilder) == null) {
+                addedKeys.add(key(locationBuilder.getName()));
+            }
+        }
+        if (addedKeys.isEmpty()) {
+            return new LocationSnapshot(version + 1, Collections.unmodifiableMap(copy), keys, names);
+        }
+        String[] added = addedKeys.toArray(new String[0]);
+        Arrays.sort(added);
+        String[] mergedKeys = new String[keys.length + added.length];
+        String[] mergedNames = new String[mergedKeys.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < mergedKeys.length; k++) {
+            if (j == added.length || (i < keys.length && keys[i].compareTo(added[j]) < 0)) {
+                mergedKeys[k] = keys[i];
+                mergedNames[k] = names[i++];
+            } else {
+                mergedKeys[k] = added[j];
+                mergedNames[k] = added[j].substring(added[j].indexOf(SEPARATOR) + 1);
+                j++;
+            }
+        }
+        return new LocationSnapshot(version + 1, Collections.unmodifiableMap(copy), mergedKeys, mergedNames);
+    }
+
+    /**
+     * Derives the snapshot in which a location is removed.
+     *
+     * @param name the name of the location to remove
+     * @return the new snapshot, one version ahead, or this snapshot if there is no such location
+     */
+    LocationSnapshot without(String name) {
+        if (!locations.containsKey(name)) {
+            return this;
+        }
+        Map<String, LocationBuilder> copy = new HashMap<>(locations);
+        copy.remove(name);
+        int index = lowerBound(key(name));
+        return new LocationSnapshot(version + 1, Collections.unmodifiableMap(copy),
+                delete(keys, index), delete(names, index));
+    }
+
+    /**
+     * Derives the snapshot in which every location of a group is removed.
+     *
+     * @param group the path of the group, with or without its trailing separator, ignoring case
+     * @return the new snapshot, one version ahead, or this snapshot if the group is empty
+     */
+    LocationSnapshot withoutGroup(String group) {
+        int from = groupStart(group);
+        int to = groupEnd(group, from);
+        if (from == to) {
+            return this;
+        }
+        Map<String, LocationBuilder> copy = new HashMap<>(locations);
+        for (int i = from; i < to; i++) {
+            copy.remove(names[i]);
+        }
+        return new LocationSnapshot(version + 1, Collections.unmodifiableMap(copy),
+                delete(keys, from, to), delete(names, from, to));
+    }
+
+    /**
+     * Derives the snapshot of an empty registry.
+     *
+     * @return the new snapshot, one version ahead
+     */
+    LocationSnapshot cleared() {
+        return new LocationSnapshot(version + 1, Collections.emptyMap(), new String[0], new String[0]);
+    }
+
+    /**
+     * @return the index of the first key greater than or equal to the given one
+     */
+    private int lowerBound(String key) {
+        return lowerBound(key, 0);
+    }
+
+    /**
+     * @return the index of the first key greater than or equal to the given one, searching from {@code low}
+     */
+    private int lowerBound(String key, int low) {
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String[] insert(String[] array, int index, String value) {
+        String[] result = new String[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static String[] delete(String[] array, int index) {
+        return delete(array, index, index + 1);
+    }
+
+    private static String[] delete(String[] array, int from, int to) {
+        String[] result = new String[array.length - (to - from)];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(array, to, result, from, array.length - to);
+        return result;
+    }
+
+    /**
+     * @return the number of separators in a name, that is the depth of its last segment
+     */
+    private static int depth(String name) {
+        int depth = 0;
+        for (int i = name.indexOf(PATH_SEPARATOR); i >= 0; i = name.indexOf(PATH_SEPARATOR, i + 1)) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * @return the index of the separator ending the segment at the given depth of a name
+     */
+    private static int separatorIndex(String name, int depth) {
+        int index = name.indexOf(PATH_SEPARATOR);
+        for (int i = 0; i < depth; i++) {
+            index = name.indexOf(PATH_SEPARATOR, index + 1);
+        }
+        return index;
+    }
+
+    /**
+     * @return the index of the first key of a group
+     */
+    private int groupStart(String group) {
+        return lowerBound(groupPrefix(group));
+    }
+
+    /**
+     * @return the index following the last key of a group whose first key is at {@code from}
+     */
+    private int groupEnd(String group, int from) {
+        String prefix = groupPrefix(group);
+        return lowerBound(prefix.substring(0, prefix.length() - 1) + AFTER_PATH_SEPARATOR, from);
+    }
+
+    /**
+     * Normalizes the path of a group and appends the separator shared by all its members.
+     */
+    private static String groupPrefix(String group) {
+        String normalized = normalize(group);
+        return normalized.endsWith(String.valueOf(PATH_SEPARATOR)) ? normalized : normalized + PATH_SEPARATOR;
+    }
+
+    /**
+     * Builds the key under which a name is sorted.
+     *
+     * @param name the original name
+     * @return the normalized name followed by the separator and the original name
+     */
+    private static String key(String name) {
+        return normalize(name) + SEPARATOR + name;
+    }
+
+    /**
+     * Normalizes a name for case-insensitive comparisons.
+     *
+     * @param name the name to normalize
+     * @return the name in lower case
+     */
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,166 @@
+package akia.spawnManager.manager;
+
+import akia.spawnManager.config.CooldownSettings;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers, for every online player, the result of the permission checks made by the commands
+ * and the cooldown tier the player belongs to, so that a command does not walk the permission
+ * tree of the player again for a node it already checked.
+ *
+ * <p>Each permission node checked is given a bit, the first time it is seen; the results of a
+ * player are kept in two bit sets, one telling which nodes were checked and one which were
+ * granted. Beyond 64 distinct nodes, the extra nodes are checked on the player directly.</p>
+ *
+ * <p>Bukkit fires no event when the permissions of a player are recalculated, so the entry of a
+ * player is dropped when they join, leave or change world, when the configuration is reloaded,
+ * and at the latest {@link #ENTRY_TTL_SECONDS} seconds after it was created, which bounds how
+ * long a permission change made by another plugin goes unnoticed. This class must only be used
+ * from the main thread.</p>
+ */
+public class PermissionCache {
+
+    /**
+     * How long the permissions of a player are trusted, in seconds.
+     */
+    public static final long ENTRY_TTL_SECONDS = 60;
+
+    /**
+     * The number of nodes a bit set can hold.
+     */
+    private static final int MAX_NODES = Long.SIZE;
+
+    /**
+     * The bit given to every permission node, in the order they were first checked.
+     */
+    private final Map<String, Integer> nodes = new HashMap<>();
+    /**
+     * The cached permissions of the players, by unique id.
+     */
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    /**
+     * Checks a permission of a player, walking the permission tree only the first time the
+     * node is checked for this player.
+     *
+     * @param player the player whose permission is checked. Must not be null.
+     * @param node   the permission node
+     * @return {@code true} if the player has the permission
+     */
+    public boolean has(Player player, String node) {
+        Integer bit = nodes.get(node);
+        if (bit == null) {
+            if (nodes.size() == MAX_NODES) {
+                return player.hasPermission(node);
+            }
+            bit = nodes.size();
+            nodes.put(node, bit);
+        }
+        Entry entry = entry(player);
+        long mask = 1L << bit;
+        if ((entry.known & mask) == 0) {
+            entry.known |= mask;
+            if (player.hasPermission(node)) {
+                entry.granted |= mask;
+            }
+        }
+        return (entry.granted & mask) != 0;
+    }
+
+    /**
+     * Resolves the cooldown tier of a player: the first tier, in the order of the
+     * configuration, whose permission the player holds.
+     *
+     * @param player    the player. Must not be null.
+     * @param cooldowns the cooldown settings declaring the tiers
+     * @return the index of the tier in {@link CooldownSettings#tiers()}, or -1 if the player has none
+     */
+    public int tier(Player player, CooldownSettings cooldowns) {
+        Entry entry = entry(player);
+        // Le palier est recalculé si les paliers ont changé depuis qu'il a été résolu
+        if (entry.tierSource != cooldowns) {
+            List<CooldownSettings.Tier> tiers = cooldowns.tiers();
+            int tier = -1;
+            for (int i = 0; i < tiers.size() && tier < 0; i++) {
+                if (has(player, tiers.get(i).permission())) {
+                    tier = i;
+                }
+            }
+            entry.tier = tier;
+            entry.tierSource = cooldowns;
+        }
+        return entry.tier;
+    }
+
+    /**
+     * Forgets the permissions of a player, which are checked again on next use.
+     *
+     * @param uuid the unique id of the player
+     */
+    public void invalidate(UUID uuid) {
+        entries.remove(uuid);
+    }
+
+    /**
+     * Forgets the permissions of every player.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of players whose permissions are cached
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retrieves the entry of a player, replacing it if it expired.
+     */
+    private Entry entry(Player player) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(player.getUniqueId());
+        if (entry == null || now - entry.createdAt > TimeUnit.SECONDS.toNanos(ENTRY_TTL_SECONDS)) {
+            entry = new Entry(now);
+            entries.put(player.getUniqueId(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * The cached permissions of a player.
+     */
+    private static final class Entry {
+        /**
+         * When the entry was created, from {@link System#nanoTime()}.
+         */
+        private final long createdAt;
+        /**
+         * One bit per node already checked for the player.
+         */
+        private long known;
+        /**
+         * One bit per node granted to the player, among the checked ones.
+         */
+        private long granted;
+        /**
+         * The cooldown tier of the player, valid for {@link #tierSource} only.
+         */
+        private int tier = -1;
+        /**
+         * The settings the tier was resolved against, or {@code null} if it was not resolved yet.
+         */
+        private CooldownSettings tierSource;
+
+        private Entry(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package akia.spawnManager.manager;
+
+import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.config.SpreadSpawnSettings;
+import akia.spawnManager.metrics.Metrics;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Spreads the players sent to a location over safe standing spots around it, so that a join
+ * storm does not stack hundreds of players on a single block.
+ *
+ * <p>For every location listed under {@code spread_spawn.locations}, a pool of spots is kept
+ * ready in a ring buffer: taking a spot is a constant-time read, done by the join teleports and
+ * {@code /spawn}. When a pool falls below half of its size, a few random chunks within the
+ * radius are loaded asynchronously, captured as {@link ChunkSnapshot}s, and scanned on a
+ * background thread for columns whose ground is solid and harmless with two free blocks above.
+ * The spots found are handed back to the main thread and appended to the pool; refills go on
+ * until the pool is full again or a scan finds nothing.</p>
+ *
+ * <p>When the pool is empty, the location itself is used, as without spreading. A spot is
+ * dropped after a few minutes, since the blocks around it may have changed, and the whole pool
+ * is dropped when its location moves. This class must only be used from the main thread.</p>
+ */
+public class SafeSpawnPool {
+
+    /**
+     * The number of chunks loaded and scanned by a refill.
+     */
+    private static final int CHUNKS_PER_REFILL = 4;
+    /**
+     * The maximum number of spots kept from a single chunk, so that a refill spreads its spots
+     * over several chunks.
+     */
+    private static final int SPOTS_PER_CHUNK = 16;
+    /**
+     * How long a spot is trusted after its chunk was scanned.
+     */
+    private static final long SPOT_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private final Plugin plugin;
+    private final LocationManager locationManager;
+    private final Metrics metrics;
+    /**
+     * The pool of every spread location, keyed by lower-case location name.
+     */
+    private final Map<String, Pool> pools = new HashMap<>();
+    private SpreadSpawnSettings settings = SpreadSpawnSettings.NONE;
+
+    /**
+     * Constructs a new {@code SafeSpawnPool} spreading no location.
+     *
+     * @param plugin          the plugin owning the background tasks. Must not be null.
+     * @param locationManager the registry of the spread locations. Must not be null.
+     * @param metrics         the metrics counting the teleports that found the pool empty. Must not be null.
+     */
+    public SafeSpawnPool(Plugin plugin, LocationManager locationManager, Metrics metrics) {
+        this.plugin = plugin;
+        this.locationManager = locationManager;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Changes the spread locations, drops every pool and starts filling the new ones, so that
+     * the first joins after a restart or a reload already find spots.
+     *
+     * @param settings the spread locations and the size of their pools
+     */
+    public void configure(SpreadSpawnSettings settings) {
+        clear();
+        this.settings = settings;
+        for (String name : settings.radii().keySet()) {
+            LocationBuilder center = locationManager.getLocation(name, true);
+            if (center != null) {
+                take(center, false);
+            }
+        }
+    }
+
+    /**
+     * Indicates whether the players sent to a location are spread around it. The spots of a
+     * spread location are checked when they are found, so the location itself needs no check.
+     *
+     * @param locationName the name of the location
+     * @return {@code true} if the location has a pool of safe spots
+     */
+    public boolean isSpread(String locationName) {
+        return settings.radius(locationName) > 0;
+    }
+
+    /**
+     * Picks the destination of a player sent to a location: a safe spot around it if the
+     * location is spread and its pool holds one, or the location itself otherwise.
+     *
+     * @param center the location the player is sent to. Must not be null.
+     * @return the destination, which has the name, world and orientation of the location
+     */
+    public LocationBuilder take(LocationBuilder center) {
+        return take(center, true);
+    }
+
+    private LocationBuilder take(LocationBuilder center, boolean consume) {
+        int radius = settings.radius(center.getName());
+        if (radius == 0) {
+            return center;
+        }
+        Pool pool = pools.computeIfAbsent(center.getName().toLowerCase(Locale.ROOT), key -> new Pool(settings.poolSize()));
+        if (!pool.isCenteredOn(center, radius)) {
+            // La location a été déplacée : les points trouvés autour de l'ancienne position ne valent plus
+            pool.reset(center, radius);
+        }
+        LocationBuilder spot = null;
+        if (consume) {
+            long now = System.nanoTime();
+            long packed;
+            while (spot == null && (packed = pool.poll(now)) != Pool.EMPTY) {
+                spot = new LocationBuilder(center.getName(), center.getWorldName(), center.getWorldId(),
+                        unpackX(packed) + 0.5, unpackY(packed), unpackZ(packed) + 0.5, center.getYaw(), center.getPitch());
+            }
+            if (spot == null) {
+                metrics.spreadSpawnFallbacks.increment();
+            }
+        }
+        if (pool.size < pool.spots.length / 2) {
+            refill(pool);
+        }
+        return spot != null ? spot : center;
+    }
+
+    /**
+     * Drops every pool, typically when the plugin is disabled. The scans still running are ignored.
+     */
+    public void clear() {
+        for (Pool pool : pools.values()) {
+            pool.reset(null, 0);
+        }
+        pools.clear();
+    }
+
+    /**
+     * Loads a few random chunks within the radius of a pool and scans them in the background,
+     * unless a scan of this pool is already running.
+     */
+    private void refill(Pool pool) {
+        if (pool.scanning) {
+            return;
+        }
+        Location origin = pool.center.getLocation();
+        if (origin == null) {
+            // Monde non chargé : le prochain tirage réessaiera
+            return;
+        }
+        World world = origin.getWorld();
+        int generation = pool.generation;
+        int radius = pool.radius;
+        double centerX = origin.getX();
+        double centerZ = origin.getZ();
+        int wanted = pool.spots.length - pool.size;
+        pool.scanning = true;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Long> chunks = new HashSet<>();
+        List<CompletableFuture<ChunkSnapshot>> snapshots = new ArrayList<>(CHUNKS_PER_REFILL);
+        for (int i = 0; i < CHUNKS_PER_REFILL; i++) {
+            // Tirage uniforme dans le disque : la racine compense la surface des anneaux extérieurs
+            double distance = radius * Math.sqrt(random.nextDouble());
+            double angle = random.nextDouble() * 2 * Math.PI;
+            int chunkX = (int) Math.floor(centerX + distance * Math.cos(angle)) >> 4;
+            int chunkZ = (int) Math.floor(centerZ + distance * Math.sin(angle)) >> 4;
+            if (chunks.add(((long) chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL))) {
+                // La capture a lieu sur le thread principal, où Paper complète le chargement
+                snapshots.add(world.getChunkAtAsync(chunkX, chunkZ)
+                        .thenApply(chunk -> chunk.getChunkSnapshot(true, false, false)));
+            }
+        }
+        int minHeight = world.getMinHeight();
+        int maxHeight = world.getMaxHeight();
+        CompletableFuture.allOf(snapshots.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.FINE, "Chargement des chunks de " + pool.center.getName() + " impossible.", error);
+                if (pool.generation == generation) {
+                    pool.scanning = false;
+                }
+                return;
+            }
+            List<ChunkSnapshot> captured = new ArrayList<>(snapshots.size());
+            for (CompletableFuture<ChunkSnapshot> snapshot : snapshots) {
+                captured.add(snapshot.join());
+            }
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                long[] found = scan(captured, centerX, centerZ, radius, minHeight, maxHeight, wanted);
+                long scannedAt = System.nanoTime();
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    if (pool.generation != generation) {
+                        return;
+                    }
+                    pool.scanning = false;
+                    pool.addAll(found, scannedAt);
+                    // Une zone sans point sûr n'est pas rescannée en boucle
+                    if (found.length > 0 && pool.size < pool.spots.length / 2) {
+                        refill(pool);
+                    }
+                });
+            });
+        });
+    }
+
+    /**
+     * Finds the safe spots of some chunks within a radius, on a background thread.
+     *
+     * @return at most {@code wanted} packed block positions of the feet, in random order
+     */
+    private static long[] scan(List<ChunkSnapshot> snapshots, double centerX, double centerZ, int radius,
+                               int minHeight, int maxHeight, int wanted) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long radiusSquared = (long) radius * radius;
+        long[] found = new long[snapshots.size() * SPOTS_PER_CHUNK];
+        int count = 0;
+        long[] chunkSpots = new long[256];
+        for (ChunkSnapshot snapshot : snapshots) {
+            int chunkSpotCount = 0;
+            for (int localX = 0; localX < 16; localX++) {
+                for (int localZ = 0; localZ < 16; localZ++) {
+                    int x = (snapshot.getX() << 4) + localX;
+                    int z = (snapshot.getZ() << 4) + localZ;
+                    double dx = x + 0.5 - centerX;
+                    double dz = z + 0.5 - centerZ;
+                    if (dx * dx + dz * dz > radiusSquared) {
+                        continue;
+                    }
+                    int ground = snapshot.getHighestBlockYAt(localX, localZ);
+                    if (ground < minHeight || ground + 2 >= maxHeight) {
+                        continue;
+                    }
+                    if (BlockSafety.isSafeGround(snapshot.getBlockType(localX, ground, localZ))
+                            && BlockSafety.isFreeSpace(snapshot.getBlockType(localX, ground + 1, localZ))
+                            && BlockSafety.isFreeSpace(snapshot.getBlockType(localX, ground + 2, localZ))) {
+                        chunkSpots[chunkSpotCount++] = pack(x, ground + 1, z);
+                    }
+                }
+            }
+            // Tirage sans remise des colonnes retenues dans ce chunk
+            for (int i = 0; i < chunkSpotCount && i < SPOTS_PER_CHUNK; i++) {
+                int pick = i + random.nextInt(chunkSpotCount - i);
+                long spot = chunkSpots[pick];
+                chunkSpots[pick] = chunkSpots[i];
+                found[count++] = spot;
+            }
+        }
+        // Mélange : deux joueurs consécutifs n'atterrissent pas dans le même chunk
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long spot = found[i];
+            found[i] = found[j];
+            found[j] = spot;
+        }
+        long[] result = new long[Math.min(count, wanted)];
+        System.arraycopy(found, 0, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Packs a block position into a long: 26 bits for x and z, 12 bits for y, as Minecraft does.
+     */
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    private static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    private static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    private static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    /**
+     * The safe spots of a location, in a fixed-size ring buffer of packed positions.
+     */
+    private static final class Pool {
+
+        /**
+         * Returned by {@link #poll(long)} when the pool holds no valid spot. No spot packs to this
+         * value, which stands for x = -2^25, far beyond the world border.
+         */
+        static final long EMPTY = Long.MIN_VALUE;
+
+        private final long[] spots;
+        /**
+         * When the chunk of each spot was scanned, in the same slots as {@link #spots}.
+         */
+        private final long[] scannedAt;
+        private int head;
+        private int size;
+        /**
+         * Incremented on every reset, so that a scan started before is ignored when it ends.
+         */
+        private int generation;
+        private boolean scanning;
+        private LocationBuilder center;
+        private String worldName;
+        private double centerX;
+        private double centerZ;
+        private int radius;
+
+        private Pool(int capacity) {
+            this.spots = new long[capacity];
+            this.scannedAt = new long[capacity];
+        }
+
+        private boolean isCenteredOn(LocationBuilder location, int radius) {
+            return center != null && this.radius == radius && location.getX() == centerX && location.getZ() == centerZ
+                    && location.getWorldName() != null && location.getWorldName().equals(worldName);
+        }
+
+        private void reset(LocationBuilder location, int radius) {
+            generation++;
+            scanning = false;
+            head = 0;
+            size = 0;
+            center = location;
+            this.radius = radius;
+            if (location != null) {
+                worldName = location.getWorldName();
+                centerX = location.getX();
+                centerZ = location.getZ();
+            }
+        }
+
+        /**
+         * Takes the oldest spot still valid, dropping the expired ones on the way.
+         *
+         * @return the packed spot, or {@link #EMPTY}
+         */
+        private long poll(long now) {
+            while (size > 0) {
+                long spot = spots[head];
+                long scanned = scannedAt[head];
+                head = (head + 1) % spots.length;
+                size--;
+                if (now - scanned < SPOT_TTL_NANOS) {
+                    return spot;
+                }
+            }
+            return EMPTY;
+        }
+
+        private void addAll(long[] found, long scanned) {
+            for (int i = 0; i < found.length && size < spots.length; i++) {
+                int tail = (head + size) % spots.length;
+                spots[tail] = found[i];
+                scannedAt[tail] = scanned;
+                size++;
+            }
+        }
+    }
+}
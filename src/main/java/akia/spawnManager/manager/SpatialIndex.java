@@ -0,0 +1,330 @@
+package akia.spawnManager.manager;
+
+import akia.spawnManager.builder.LocationBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Per-world uniform grid over the registered locations, answering nearest-neighbour queries
+ * by only visiting the grid cells around the queried point.
+ *
+ * <p>Cells are {@value #CELL_SIZE} blocks wide on the X and Z axes, and kept in a
+ * {@link CellTable} keyed by their packed coordinates. A k-nearest query visits square rings
+ * of cells around the origin and stops as soon as no unvisited cell can hold a closer location
+ * than the k-th best one found so far. Far from every location, most rings are empty: once the
+ * rings have looked up as many cells as there are occupied ones, the remaining occupied cells
+ * are visited directly, nearest first, so the cost of a query is bounded by the number of
+ * occupied cells rather than by the distance to them. The index uses the raw
+ * coordinates of each {@link LocationBuilder}, so the world of a location does not need to
+ * be loaded. It must only be used from the main thread.</p>
+ */
+public class SpatialIndex {
+
+    /**
+     * Number of bits to shift a block coordinate by to obtain its cell coordinate.
+     */
+    private static final int CELL_SHIFT = 6;
+    /**
+     * Width of a cell in blocks.
+     */
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    /**
+     * The grid of every world, keyed by world name.
+     */
+    private final Map<String, WorldGrid> worlds = new HashMap<>();
+
+    /**
+     * Adds a location to the index. Locations without a world are ignored.
+     *
+     * @param locationBuilder the location to add
+     */
+    public void add(LocationBuilder locationBuilder) {
+        if (locationBuilder.getWorldName() == null) {
+            return;
+        }
+        worlds.computeIfAbsent(locationBuilder.getWorldName(), ignored -> new WorldGrid())
+                .add(locationBuilder);
+    }
+
+    /**
+     * Removes a location from the index. Must be called before the coordinates of the
+     * location change, since they are used to find its cell.
+     *
+     * @param locationBuilder the location to remove
+     */
+    public void remove(LocationBuilder locationBuilder) {
+        if (locationBuilder.getWorldName() == null) {
+            return;
+        }
+        WorldGrid grid = worlds.get(locationBuilder.getWorldName());
+        if (grid != null && grid.remove(locationBuilder) && grid.size == 0) {
+            worlds.remove(locationBuilder.getWorldName());
+        }
+    }
+
+    /**
+     * Removes every location from the index.
+     */
+    public void clear() {
+        worlds.clear();
+    }
+
+    /**
+     * Finds the location closest to the given point.
+     *
+     * @param worldName the world to search in
+     * @param x         the x coordinate of the point
+     * @param y         the y coordinate of the point
+     * @param z         the z coordinate of the point
+     * @param filter    only the locations accepted by this filter are considered
+     * @return the closest accepted location, or {@code null} if there is none in this world
+     */
+    public LocationBuilder nearest(String worldName, double x, double y, double z, Predicate<LocationBuilder> filter) {
+        List<LocationBuilder> nearest = nearest(worldName, x, y, z, 1, filter);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    /**
+     * Finds the {@code k} locations closest to the given point, closest first.
+     *
+     * @param worldName the world to search in
+     * @param x         the x coordinate of the point
+     * @param y         the y coordinate of the point
+     * @param z         the z coordinate of the point
+     * @param k         the maximum number of locations to return
+     * @param filter    only the locations accepted by this filter are considered
+     * @return at most {@code k} accepted locations, sorted by increasing distance
+     */
+    public List<LocationBuilder> nearest(String worldName, double x, double y, double z, int k,
+                                         Predicate<LocationBuilder> filter) {
+        WorldGrid grid = worlds.get(worldName);
+        if (grid == null || k <= 0) {
+            return Collections.emptyList();
+        }
+        LocationBuilder[] best = new LocationBuilder[k];
+        double[] bestDistances = new double[k];
+        int found = 0;
+
+        int originX = cell(x);
+        int originZ = cell(z);
+        int maxRing = Math.max(
+                Math.max(Math.abs(originX - grid.minCellX), Math.abs(grid.maxCellX - originX)),
+                Math.max(Math.abs(originZ - grid.minCellZ), Math.abs(grid.maxCellZ - originZ)));
+        int occupied = grid.cells.size();
+        long lookups = 0;
+        int ring = 0;
+        for (; ring <= maxRing; ring++) {
+            // Aucune cellule au-delà de cet anneau ne peut être plus proche que le k-ième résultat
+            if (found == k) {
+                double reach = (double) (ring - 1) * CELL_SIZE;
+                if (ring > 0 && bestDistances[k - 1] <= reach * reach) {
+                    return toList(best, found);
+                }
+            }
+            if (lookups >= occupied) {
+                // Les anneaux restants sont surtout vides : les cellules occupées sont parcourues directement
+                found = scanOccupied(grid, ring, x, y, z, filter, best, bestDistances, found);
+                return toList(best, found);
+            }
+            lookups += ring == 0 ? 1 : 8L * ring;
+            for (int cellX = originX - ring; cellX <= originX + ring; cellX++) {
+                boolean edgeColumn = cellX == originX - ring || cellX == originX + ring;
+                int step = edgeColumn ? 1 : Math.max(1, 2 * ring);
+                for (int cellZ = originZ - ring; cellZ <= originZ + ring; cellZ += step) {
+                    List<LocationBuilder> cell = grid.cells.get(key(cellX, cellZ));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0, size = cell.size(); i < size; i++) {
+                        LocationBuilder candidate = cell.get(i);
+                        double distance = distanceSquared(candidate, x, y, z);
+                        if ((found < k || distance < bestDistances[k - 1]) && filter.test(candidate)) {
+                            found = insert(best, bestDistances, found, candidate, distance);
+                        }
+                    }
+                }
+            }
+        }
+        return toList(best, found);
+    }
+
+    /**
+     * Visits the occupied cells outside the first {@code ring} rings, by increasing distance
+     * from the point, until none can hold a closer location than the k-th best one.
+     *
+     * @return the new number of results
+     */
+    private static int scanOccupied(WorldGrid grid, int ring, double x, double y, double z,
+                                    Predicate<LocationBuilder> filter, LocationBuilder[] best,
+                                    double[] bestDistances, int found) {
+        int originX = cell(x);
+        int originZ = cell(z);
+        CellTable<List<LocationBuilder>> cells = grid.cells;
+        // Distance minimale en blocs (tronquée, donc un minorant) dans les 32 bits hauts, emplacement dans les bas
+        long[] order = new long[cells.size()];
+        int count = 0;
+        for (int slot = 0; slot < cells.capacity(); slot++) {
+            if (!cells.isUsed(slot)) {
+                continue;
+            }
+            long key = cells.keyAt(slot);
+            int cellX = (int) (key >> 32);
+            int cellZ = (int) key;
+            if (Math.max(Math.abs(cellX - originX), Math.abs(cellZ - originZ)) < ring) {
+                continue;
+            }
+            long distance = (long) Math.sqrt(cellDistanceSquared(cellX, cellZ, x, z));
+            order[count++] = distance << 32 | slot;
+        }
+        Arrays.sort(order, 0, count);
+        int k = best.length;
+        for (int i = 0; i < count; i++) {
+            double reach = (double) (order[i] >>> 32);
+            if (found == k && bestDistances[k - 1] <= reach * reach) {
+                break;
+            }
+            List<LocationBuilder> cell = cells.valueAt((int) order[i]);
+            for (int j = 0, size = cell.size(); j < size; j++) {
+                LocationBuilder candidate = cell.get(j);
+                double distance = distanceSquared(candidate, x, y, z);
+                if ((found < k || distance < bestDistances[k - 1]) && filter.test(candidate)) {
+                    found = insert(best, bestDistances, found, candidate, distance);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the squared horizontal distance between a point and the closest block of a cell
+     */
+    private static double cellDistanceSquared(int cellX, int cellZ, double x, double z) {
+        double minX = (double) cellX * CELL_SIZE;
+        double minZ = (double) cellZ * CELL_SIZE;
+        double dx = Math.max(0, Math.max(minX - x, x - (minX + CELL_SIZE)));
+        double dz = Math.max(0, Math.max(minZ - z, z - (minZ + CELL_SIZE)));
+        return dx * dx + dz * dz;
+    }
+
+    private static List<LocationBuilder> toList(LocationBuilder[] best, int found) {
+        List<LocationBuilder> result = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            result.add(best[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Inserts a candidate into the sorted arrays of best results, dropping the farthest one
+     * when they are full.
+     *
+     * @return the new number of results
+     */
+    private static int insert(LocationBuilder[] best, double[] bestDistances, int found,
+                              LocationBuilder candidate, double distance) {
+        int position = Math.min(found, best.length - 1);
+        while (position > 0 && bestDistances[position - 1] > distance) {
+            best[position] = best[position - 1];
+            bestDistances[position] = bestDistances[position - 1];
+            position--;
+        }
+        best[position] = candidate;
+        bestDistances[position] = distance;
+        return Math.min(found + 1, best.length);
+    }
+
+    private static double distanceSquared(LocationBuilder locationBuilder, double x, double y, double z) {
+        double dx = locationBuilder.getX() - x;
+        double dy = locationBuilder.getY() - y;
+        double dz = locationBuilder.getZ() - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static int cell(double coordinate) {
+        return (int) Math.floor(coordinate) >> CELL_SHIFT;
+    }
+
+    private static long key(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The cells of a single world, along with the bounds of the occupied area which limit
+     * how far a nearest-neighbour query has to look.
+     */
+    private static final class WorldGrid {
+
+        private final CellTable<List<LocationBuilder>> cells = new CellTable<>();
+        private int size;
+        private int minCellX = Integer.MAX_VALUE, maxCellX = Integer.MIN_VALUE;
+        private int minCellZ = Integer.MAX_VALUE, maxCellZ = Integer.MIN_VALUE;
+
+        private void add(LocationBuilder locationBuilder) {
+            int cellX = cell(locationBuilder.getX());
+            int cellZ = cell(locationBuilder.getZ());
+            long key = key(cellX, cellZ);
+            List<LocationBuilder> cell = cells.get(key);
+            if (cell == null) {
+                cell = new ArrayList<>(2);
+                cells.put(key, cell);
+            }
+            cell.add(locationBuilder);
+            size++;
+            minCellX = Math.min(minCellX, cellX);
+            maxCellX = Math.max(maxCellX, cellX);
+            minCellZ = Math.min(minCellZ, cellZ);
+            maxCellZ = Math.max(maxCellZ, cellZ);
+        }
+
+        private boolean remove(LocationBuilder locationBuilder) {
+            int cellX = cell(locationBuilder.getX());
+            int cellZ = cell(locationBuilder.getZ());
+            long key = key(cellX, cellZ);
+            List<LocationBuilder> cell = cells.get(key);
+            if (cell == null) {
+                return false;
+            }
+            // Comparaison par identité : equals() ne compare que les noms
+            for (int i = 0; i < cell.size(); i++) {
+                if (cell.get(i) == locationBuilder) {
+                    cell.remove(i);
+                    size--;
+                    if (cell.isEmpty()) {
+                        cells.remove(key);
+                        // Une cellule vidée sur le bord laisse des bornes trop larges : elles sont recalculées
+                        if (cellX == minCellX || cellX == maxCellX || cellZ == minCellZ || cellZ == maxCellZ) {
+                            recomputeBounds();
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void recomputeBounds() {
+            minCellX = Integer.MAX_VALUE;
+            maxCellX = Integer.MIN_VALUE;
+            minCellZ = Integer.MAX_VALUE;
+            maxCellZ = Integer.MIN_VALUE;
+            for (int slot = 0; slot < cells.capacity(); slot++) {
+                if (cells.isUsed(slot)) {
+                    long key = cells.keyAt(slot);
+                    int cellX = (int) (key >> 32);
+                    int cellZ = (int) key;
+                    minCellX = Math.min(minCellX, cellX);
+                    maxCellX = Math.max(maxCellX, cellX);
+                    minCellZ = Math.min(minCellZ, cellZ);
+                    maxCellZ = Math.max(maxCellZ, cellZ);
+                }
+            }
+        }
+    }
+}
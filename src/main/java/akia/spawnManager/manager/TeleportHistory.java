@@ -0,0 +1,414 @@
+package akia.spawnManager.manager;
+
+import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.storage.AsyncFileWriter;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Remembers where each player stood before the teleports of the plugin and where they died,
+ * for {@code /back}.
+ *
+ * <p>The history of a player is a fixed-size ring buffer of primitive coordinates and world
+ * indexes: recording a position overwrites the oldest one and allocates nothing, and no
+ * {@link Location} is kept, so an unloaded world is never held in memory. The names of the
+ * worlds are interned once in a table shared by every history.</p>
+ *
+ * <p>Only the histories of the online players are kept in memory. When a player leaves, their
+ * history is written to a small file of the {@code history} folder; it is read again in the
+ * background when they join. Reads and writes go through a single writer thread, so a player
+ * who comes back at once reads the file written when they left. This class must only be used
+ * from the main thread.</p>
+ */
+public class TeleportHistory {
+
+    /**
+     * The magic number opening a history file, "SMBH" in ASCII.
+     */
+    private static final int FILE_MAGIC = 0x534D4248;
+    /**
+     * The version of the history file layout.
+     */
+    private static final short FILE_VERSION = 1;
+    /**
+     * The name given to the destinations built from the history.
+     */
+    private static final String DESTINATION_NAME = "back";
+
+    private final Plugin plugin;
+    /**
+     * The histories of the online players.
+     */
+    private final Map<UUID, Ring> histories = new HashMap<>();
+    /**
+     * The players whose file is being read. Their history is not written before the read ends,
+     * so that the positions on disk are never overwritten by the few recorded since the join.
+     */
+    private final Set<UUID> loading = new HashSet<>();
+    /**
+     * The names of the worlds, indexed by the world indexes stored in the rings.
+     */
+    private final List<String> worldNames = new ArrayList<>();
+    private final Map<String, Integer> worldIndexes = new HashMap<>();
+    /**
+     * The number of positions kept per player.
+     */
+    private int size = 10;
+    private Path folder;
+    private AsyncFileWriter writer;
+
+    /**
+     * Constructs a new, stopped {@code TeleportHistory}.
+     *
+     * @param plugin the plugin owning the background tasks. Must not be null.
+     */
+    public TeleportHistory(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts the writer thread of the history files.
+     *
+     * @param folder the folder of the history files
+     * @param size   the number of positions kept per player, at least 1
+     */
+    public void start(Path folder, int size) {
+        this.folder = folder;
+        this.size = Math.max(1, size);
+        if (writer == null) {
+            writer = new AsyncFileWriter(plugin.getLogger());
+        }
+    }
+
+    /**
+     * Changes the number of positions kept per player. The histories in memory keep their most
+     * recent positions.
+     *
+     * @param size the number of positions kept per player, at least 1
+     */
+    public void configure(int size) {
+        this.size = Math.max(1, size);
+        for (Map.Entry<UUID, Ring> entry : histories.entrySet()) {
+            entry.setValue(entry.getValue().resize(this.size));
+        }
+    }
+
+    /**
+     * Records the position a player is leaving.
+     *
+     * @param uuid     the unique id of the player
+     * @param location the position of the player. Locations without world are ignored.
+     */
+    public void record(UUID uuid, Location location) {
+        World world = location.getWorld();
+        if (world == null) {
+            return;
+        }
+        Ring ring = histories.get(uuid);
+        if (ring == null) {
+            ring = new Ring(size);
+            histories.put(uuid, ring);
+        }
+        ring.push(worldIndex(world.getName()), location.getX(), location.getY(), location.getZ(),
+                location.getYaw(), location.getPitch());
+    }
+
+    /**
+     * @param uuid the unique id of the player
+     * @return the number of positions a player can go back to
+     */
+    public int count(UUID uuid) {
+        Ring ring = histories.get(uuid);
+        return ring != null ? ring.count : 0;
+    }
+
+    /**
+     * Builds the destination of {@code /back}.
+     *
+     * @param uuid  the unique id of the player
+     * @param steps how far to go back, 1 being the last position recorded
+     * @return the position, or {@code null} if the history of the player is shorter
+     */
+    public LocationBuilder get(UUID uuid, int steps) {
+        Ring ring = histories.get(uuid);
+        if (ring == null || steps < 1 || steps > ring.count) {
+            return null;
+        }
+        int slot = ring.slot(steps);
+        int offset = slot * 3;
+        return new LocationBuilder(DESTINATION_NAME, worldNames.get(ring.worlds[slot]), null,
+                ring.coordinates[offset], ring.coordinates[offset + 1], ring.coordinates[offset + 2],
+                ring.rotations[slot * 2], ring.rotations[slot * 2 + 1]);
+    }
+
+    /**
+     * Reads the history of a player who joined, in the background. The positions recorded
+     * before the read ends are kept as the most recent ones.
+     *
+     * @param uuid the unique id of the player
+     */
+    public void load(UUID uuid) {
+        if (writer == null || !loading.add(uuid)) {
+            return;
+        }
+        writer.read(file(uuid)).whenComplete((bytes, error) -> {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            plugin.getServer().getScheduler().runTask(plugin, () -> loaded(uuid, bytes, error));
+        });
+    }
+
+    /**
+     * Writes the history of a player who left and drops it from memory. If the file of the
+     * player is still being read, the history is written once the read ends.
+     *
+     * @param uuid the unique id of the player
+     */
+    public void evict(UUID uuid) {
+        if (loading.contains(uuid)) {
+            return;
+        }
+        Ring ring = histories.remove(uuid);
+        if (ring != null && writer != null) {
+            write(uuid, ring);
+        }
+    }
+
+    /**
+     * Writes the histories of the online players and waits for the writer thread to finish.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of {@code timeout}
+     * @return {@code true} if every history was written in time
+     */
+    public boolean stop(long timeout, TimeUnit unit) {
+        if (writer == null) {
+            return true;
+        }
+        for (Map.Entry<UUID, Ring> entry : histories.entrySet()) {
+            // Une lecture inachevée garde le fichier tel quel plutôt que de l'écraser
+            if (!loading.contains(entry.getKey())) {
+                write(entry.getKey(), entry.getValue());
+            }
+        }
+        histories.clear();
+        loading.clear();
+        boolean done = writer.shutdown(timeout, unit);
+        writer = null;
+        return done;
+    }
+
+    /**
+     * Merges the history read from disk with the positions recorded since the join.
+     */
+    private void loaded(UUID uuid, byte[] bytes, Throwable error) {
+        loading.remove(uuid);
+        Ring ring = new Ring(size);
+        if (error != null) {
+            plugin.getLogger().log(Level.WARNING, "Impossible de lire l'historique de " + uuid + ".", error);
+        } else if (bytes != null) {
+            try {
+                decode(bytes, ring);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Historique de " + uuid + " invalide, il est ignoré.", e);
+                ring = new Ring(size);
+            }
+        }
+        Ring recent = histories.get(uuid);
+        if (recent != null) {
+            recent.copyInto(ring);
+        }
+        histories.put(uuid, ring);
+        if (Bukkit.getPlayer(uuid) == null) {
+            // Le joueur est reparti pendant la lecture
+            evict(uuid);
+        }
+    }
+
+    private void write(UUID uuid, Ring ring) {
+        Path path = file(uuid);
+        if (ring.count == 0) {
+            writer.submit(path.getFileName().toString(), () -> Files.deleteIfExists(path));
+            return;
+        }
+        // Encodé sur le thread principal : la table des mondes n'est modifiée que là
+        byte[] bytes = encode(ring);
+        writer.write(path, () -> bytes);
+    }
+
+    /**
+     * Encodes a history, oldest position first.
+     *
+     * <p>Layout, all values big-endian: magic (int) | version (short) | world count (short) |
+     * world names (modified UTF-8) | position count (short), then for each position: world
+     * (short, index in the names of the file) | x, y, z (double) | yaw, pitch (float).</p>
+     */
+    private byte[] encode(Ring ring) {
+        // Les index de la table partagée changent d'un démarrage à l'autre : le fichier a sa propre table
+        Map<Integer, Integer> local = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (int i = ring.count; i >= 1; i--) {
+            int world = ring.worlds[ring.slot(i)];
+            if (!local.containsKey(world)) {
+                local.put(world, names.size());
+                names.add(worldNames.get(world));
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + names.size() * 16 + ring.count * 34);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FILE_MAGIC);
+            out.writeShort(FILE_VERSION);
+            out.writeShort(names.size());
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+            out.writeShort(ring.count);
+            for (int i = ring.count; i >= 1; i--) {
+                int slot = ring.slot(i);
+                out.writeShort(local.get(ring.worlds[slot]));
+                out.writeDouble(ring.coordinates[slot * 3]);
+                out.writeDouble(ring.coordinates[slot * 3 + 1]);
+                out.writeDouble(ring.coordinates[slot * 3 + 2]);
+                out.writeFloat(ring.rotations[slot * 2]);
+                out.writeFloat(ring.rotations[slot * 2 + 1]);
+            }
+        } catch (IOException e) {
+            // Impossible avec un ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Pushes the positions of an encoded history into a ring, oldest first.
+     */
+    private void decode(byte[] bytes, Ring ring) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readInt() != FILE_MAGIC || in.readShort() != FILE_VERSION) {
+                throw new IOException("Fichier d'historique invalide.");
+            }
+            int[] worlds = new int[in.readUnsignedShort()];
+            for (int i = 0; i < worlds.length; i++) {
+                worlds[i] = worldIndex(in.readUTF());
+            }
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                int world = in.readUnsignedShort();
+                if (world >= worlds.length) {
+                    throw new IOException("Monde inconnu dans l'historique : " + world);
+                }
+                ring.push(worlds[world], in.readDouble(), in.readDouble(), in.readDouble(),
+                        in.readFloat(), in.readFloat());
+            }
+        }
+    }
+
+    private int worldIndex(String worldName) {
+        Integer index = worldIndexes.get(worldName);
+        if (index == null) {
+            index = worldNames.size();
+            worldNames.add(worldName);
+            worldIndexes.put(worldName, index);
+        }
+        return index;
+    }
+
+    private Path file(UUID uuid) {
+        return folder.resolve(uuid + ".dat");
+    }
+
+    /**
+     * The positions of one player, in parallel primitive arrays used as a ring buffer.
+     */
+    private static final class Ring {
+
+        /**
+         * The x, y and z of every slot.
+         */
+        private final double[] coordinates;
+        /**
+         * The yaw and pitch of every slot.
+         */
+        private final float[] rotations;
+        /**
+         * The world index of every slot.
+         */
+        private final int[] worlds;
+        /**
+         * The slot written by the next push.
+         */
+        private int head;
+        private int count;
+
+        private Ring(int capacity) {
+            this.coordinates = new double[capacity * 3];
+            this.rotations = new float[capacity * 2];
+            this.worlds = new int[capacity];
+        }
+
+        private int capacity() {
+            return worlds.length;
+        }
+
+        private void push(int world, double x, double y, double z, float yaw, float pitch) {
+            worlds[head] = world;
+            coordinates[head * 3] = x;
+            coordinates[head * 3 + 1] = y;
+            coordinates[head * 3 + 2] = z;
+            rotations[head * 2] = yaw;
+            rotations[head * 2 + 1] = pitch;
+            head = (head + 1) % capacity();
+            if (count < capacity()) {
+                count++;
+            }
+        }
+
+        /**
+         * @param steps how far to go back, between 1 and {@link #count}
+         * @return the slot of the position
+         */
+        private int slot(int steps) {
+            return (head - steps + capacity()) % capacity();
+        }
+
+        /**
+         * Pushes every position of this ring into another one, oldest first.
+         */
+        private void copyInto(Ring target) {
+            for (int i = count; i >= 1; i--) {
+                int slot = slot(i);
+                target.push(worlds[slot], coordinates[slot * 3], coordinates[slot * 3 + 1],
+                        coordinates[slot * 3 + 2], rotations[slot * 2], rotations[slot * 2 + 1]);
+            }
+        }
+
+        private Ring resize(int capacity) {
+            if (capacity == capacity()) {
+                return this;
+            }
+            Ring resized = new Ring(capacity);
+            copyInto(resized);
+            return resized;
+        }
+    }
+}
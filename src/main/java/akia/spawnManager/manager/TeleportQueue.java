@@ -0,0 +1,267 @@
+package akia.spawnManager.manager;
+
+import akia.spawnManager.builder.LocationBuilder;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Spreads the plugin's teleports over several ticks. At most a configured number of
+ * teleports is performed per tick; the others wait in a first-in, first-out queue. When
+ * the queue is empty and the budget of the current tick is not used up, a teleport is
+ * performed immediately, so the queue only adds latency during bursts such as a join storm
+ * after a restart. Teleports are performed with Paper's asynchronous teleport, so a cold
+ * destination chunk is loaded without stalling the main thread.
+ *
+ * <p>Players who leave before their turn are dropped. The queue keeps statistics on its
+ * depth and on the time spent waiting, to tune the budget against the tick duration. The
+ * position a player leaves is recorded in the {@link TeleportHistory} once the teleport
+ * succeeds. This class must only be used from the main thread.</p>
+ */
+public class TeleportQueue {
+
+    /**
+     * The history the positions left by the teleported players are recorded in, for {@code /back}.
+     */
+    private final TeleportHistory history;
+
+    /**
+     * The pending requests, oldest first. Cancelled requests stay in the deque and are
+     * skipped when they reach its head.
+     */
+    private final ArrayDeque<Request> queue = new ArrayDeque<>();
+    /**
+     * The pending request of every queued player.
+     */
+    private final Map<UUID, Request> pending = new HashMap<>();
+    /**
+     * The maximum number of teleports performed per tick.
+     */
+    private int budgetPerTick = 5;
+    /**
+     * The number of teleports performed during the current tick.
+     */
+    private int usedThisTick;
+    /**
+     * The repeating task draining the queue, or {@code null} when the queue is stopped.
+     */
+    private BukkitTask task;
+
+    /**
+     * Statistics: teleports performed in total and after waiting in the queue, requests
+     * dropped, and time spent waiting.
+     */
+    private long teleported;
+    private long queuedTeleported;
+    private long dropped;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    /**
+     * Constructs a new, stopped {@code TeleportQueue}.
+     *
+     * @param history the history the positions left by the teleported players are recorded in. Must not be null.
+     */
+    public TeleportQueue(TeleportHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Starts the repeating task draining the queue.
+     *
+     * @param plugin        the plugin owning the task. Must not be null.
+     * @param budgetPerTick the maximum number of teleports performed per tick, at least 1
+     */
+    public void start(Plugin plugin, int budgetPerTick) {
+        this.budgetPerTick = Math.max(1, budgetPerTick);
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stops the repeating task and fails every pending request.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (Request request : pending.values()) {
+            request.result.complete(false);
+        }
+        queue.clear();
+        pending.clear();
+    }
+
+    /**
+     * Teleports a player to a location, right away if the budget of the current tick allows
+     * it and nobody is waiting, or as soon as the player's turn comes otherwise. If the player
+     * is already waiting, the destination is replaced, the player keeps their place and the
+     * future of the pending request is returned.
+     *
+     * @param player      the player to teleport. Must not be null.
+     * @param destination the location to teleport the player to. Must not be null.
+     * @return a future completed with {@code true} once the player has been teleported, or with
+     *         {@code false} if the teleport failed or the player left before their turn
+     */
+    public CompletableFuture<Boolean> enqueue(Player player, LocationBuilder destination) {
+        Request request = pending.get(player.getUniqueId());
+        if (request != null) {
+            request.destination = destination;
+            return request.result;
+        }
+        if (queue.isEmpty() && usedThisTick < budgetPerTick) {
+            usedThisTick++;
+            teleported++;
+            return teleport(player, destination);
+        }
+        request = new Request(player.getUniqueId(), destination, System.nanoTime());
+        pending.put(request.uuid, request);
+        queue.addLast(request);
+        return request.result;
+    }
+
+    /**
+     * Drops the pending request of a player, typically when the player leaves the server.
+     *
+     * @param uuid the unique id of the player
+     */
+    public void remove(UUID uuid) {
+        Request request = pending.remove(uuid);
+        if (request != null) {
+            request.cancelled = true;
+            request.result.complete(false);
+            dropped++;
+        }
+    }
+
+    /**
+     * Performs the teleports of the players at the head of the queue, within the budget of the tick.
+     */
+    private void tick() {
+        usedThisTick = 0;
+        while (usedThisTick < budgetPerTick && !queue.isEmpty()) {
+            Request request = queue.pollFirst();
+            if (request.cancelled) {
+                continue;
+            }
+            pending.remove(request.uuid);
+            Player player = Bukkit.getPlayer(request.uuid);
+            if (player == null || !player.isOnline()) {
+                request.result.complete(false);
+                dropped++;
+                continue;
+            }
+            long waitNanos = System.nanoTime() - request.enqueuedAt;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            usedThisTick++;
+            teleported++;
+            queuedTeleported++;
+            CompletableFuture<Boolean> result = request.result;
+            teleport(player, request.destination).thenAccept(result::complete);
+        }
+    }
+
+    /**
+     * Starts the asynchronous teleport of a player, turning failures into a {@code false} result,
+     * and records the position the player left if the teleport succeeds.
+     */
+    private CompletableFuture<Boolean> teleport(Player player, LocationBuilder destination) {
+        Location from = player.getLocation();
+        return destination.teleportLocationAsync(player).exceptionally(error -> false).thenApply(success -> {
+            // Paper termine la téléportation sur le thread principal
+            if (success) {
+                history.record(player.getUniqueId(), from);
+            }
+            return success;
+        });
+    }
+
+    /**
+     * @return the number of players currently waiting for their teleport
+     */
+    public int getDepth() {
+        return pending.size();
+    }
+
+    /**
+     * @return the maximum number of teleports performed per tick
+     */
+    public int getBudgetPerTick() {
+        return budgetPerTick;
+    }
+
+    /**
+     * @return the number of teleports performed, immediately or from the queue
+     */
+    public long getTeleportedCount() {
+        return teleported;
+    }
+
+    /**
+     * @return the number of teleports performed after waiting in the queue
+     */
+    public long getQueuedTeleportedCount() {
+        return queuedTeleported;
+    }
+
+    /**
+     * @return the number of requests dropped because the player left before their turn
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * @return the average time spent in the queue by the players who had to wait, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        return queuedTeleported > 0 ? totalWaitNanos / 1_000_000.0 / queuedTeleported : 0;
+    }
+
+    /**
+     * @return the longest time a player spent in the queue, in milliseconds
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+
+    /**
+     * Resets the teleport, drop and wait statistics.
+     */
+    public void resetStatistics() {
+        teleported = 0;
+        dropped = 0;
+        queuedTeleported = 0;
+        totalWaitNanos = 0;
+        maxWaitNanos = 0;
+    }
+
+    /**
+     * A teleport waiting for its turn.
+     */
+    private static final class Request {
+
+        private final UUID uuid;
+        private final long enqueuedAt;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private LocationBuilder destination;
+        private boolean cancelled;
+
+        private Request(UUID uuid, LocationBuilder destination, long enqueuedAt) {
+            this.uuid = uuid;
+            this.destination = destination;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
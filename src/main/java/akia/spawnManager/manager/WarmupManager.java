@@ -0,0 +1,273 @@
+package akia.spawnManager.manager;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Delays teleports by a warmup, during which the player must neither move to another block
+ * nor take damage.
+ *
+ * <p>Every pending warmup lives in a compact table of parallel arrays, packed at the front
+ * and walked by a single repeating task, which only runs while at least one warmup is
+ * pending. Each tick, the block position of every pending player is read into a reused
+ * {@link Location} and compared, coordinate by coordinate, with the block the warmup
+ * started in. Lookups by player scan the table, which holds a handful of entries at most.
+ * This class must only be used from the main thread.</p>
+ */
+public class WarmupManager {
+
+    /**
+     * The reasons a warmup can be cancelled for.
+     */
+    public enum CancelReason {
+        /**
+         * The player moved to another block.
+         */
+        MOVED,
+        /**
+         * The player took damage.
+         */
+        DAMAGED,
+        /**
+         * The player left the server.
+         */
+        QUIT,
+        /**
+         * A new warmup was started for the same player.
+         */
+        REPLACED,
+        /**
+         * The plugin is being disabled.
+         */
+        STOPPED
+    }
+
+    /**
+     * Initial number of slots of the table.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The plugin owning the repeating task.
+     */
+    private final Plugin plugin;
+    /**
+     * Scratch location the position of the players is copied into, to avoid allocating one per check.
+     */
+    private final Location scratch = new Location(null, 0, 0, 0);
+
+    private long[] mostBits = new long[INITIAL_CAPACITY];
+    private long[] leastBits = new long[INITIAL_CAPACITY];
+    private Player[] players = new Player[INITIAL_CAPACITY];
+    private World[] worlds = new World[INITIAL_CAPACITY];
+    private int[] blockX = new int[INITIAL_CAPACITY];
+    private int[] blockY = new int[INITIAL_CAPACITY];
+    private int[] blockZ = new int[INITIAL_CAPACITY];
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    private Runnable[] completions = new Runnable[INITIAL_CAPACITY];
+    @SuppressWarnings("unchecked")
+    private Consumer<CancelReason>[] cancellations = new Consumer[INITIAL_CAPACITY];
+    /**
+     * The number of pending warmups, stored in the first slots of the arrays.
+     */
+    private int size;
+
+    /**
+     * The number of ticks elapsed since the task was first started.
+     */
+    private long currentTick;
+    /**
+     * The repeating task checking the warmups, or {@code null} while none is pending.
+     */
+    private BukkitTask task;
+
+    /**
+     * Constructs a new {@code WarmupManager} with no pending warmup.
+     *
+     * @param plugin the plugin owning the repeating task. Must not be null.
+     */
+    public WarmupManager(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts a warmup. If the player already has one, it is cancelled with
+     * {@link CancelReason#REPLACED} first.
+     *
+     * @param player     the player who must stay still. Must not be null.
+     * @param ticks      the duration of the warmup, in ticks. The action runs immediately if not positive.
+     * @param onComplete the action to run once the warmup ends, typically the teleport
+     * @param onCancel   notified if the warmup is cancelled; the action is not run then
+     */
+    public void start(Player player, long ticks, Runnable onComplete, Consumer<CancelReason> onCancel) {
+        cancel(player.getUniqueId(), CancelReason.REPLACED);
+        if (ticks <= 0) {
+            onComplete.run();
+            return;
+        }
+        if (size == deadlines.length) {
+            grow();
+        }
+        UUID uuid = player.getUniqueId();
+        Location location = player.getLocation(scratch);
+        int slot = size++;
+        mostBits[slot] = uuid.getMostSignificantBits();
+        leastBits[slot] = uuid.getLeastSignificantBits();
+        players[slot] = player;
+        worlds[slot] = location.getWorld();
+        blockX[slot] = location.getBlockX();
+        blockY[slot] = location.getBlockY();
+        blockZ[slot] = location.getBlockZ();
+        deadlines[slot] = currentTick + ticks;
+        completions[slot] = onComplete;
+        cancellations[slot] = onCancel;
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Cancels the warmup of a player, if any.
+     *
+     * @param uuid   the unique id of the player
+     * @param reason the reason passed to the cancellation callback
+     * @return {@code true} if a warmup was pending
+     */
+    public boolean cancel(UUID uuid, CancelReason reason) {
+        if (size == 0) {
+            return false;
+        }
+        int slot = find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (slot < 0) {
+            return false;
+        }
+        Consumer<CancelReason> onCancel = cancellations[slot];
+        remove(slot);
+        if (onCancel != null) {
+            onCancel.accept(reason);
+        }
+        return true;
+    }
+
+    /**
+     * Indicates whether a player is warming up.
+     *
+     * @param uuid the unique id of the player
+     * @return {@code true} if a warmup is pending for this player
+     */
+    public boolean isWarmingUp(UUID uuid) {
+        return size > 0 && find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >= 0;
+    }
+
+    /**
+     * @return the number of pending warmups
+     */
+    public int getPendingCount() {
+        return size;
+    }
+
+    /**
+     * Cancels every pending warmup with {@link CancelReason#STOPPED} and stops the task.
+     */
+    public void stop() {
+        while (size > 0) {
+            Consumer<CancelReason> onCancel = cancellations[size - 1];
+            remove(size - 1);
+            if (onCancel != null) {
+                onCancel.accept(CancelReason.STOPPED);
+            }
+        }
+        stopTask();
+    }
+
+    /**
+     * Completes the warmups whose deadline is reached and cancels those of the players who moved.
+     */
+    private void tick() {
+        currentTick++;
+        // Parcours à rebours : un retrait déplace la dernière entrée, déjà vérifiée, dans la case libérée
+        for (int slot = size - 1; slot >= 0; slot--) {
+            if (slot >= size) {
+                // Des rappels ont retiré plusieurs entrées pendant ce tick
+                continue;
+            }
+            Location location = players[slot].getLocation(scratch);
+            if (location.getWorld() != worlds[slot] || location.getBlockX() != blockX[slot]
+                    || location.getBlockY() != blockY[slot] || location.getBlockZ() != blockZ[slot]) {
+                Consumer<CancelReason> onCancel = cancellations[slot];
+                remove(slot);
+                if (onCancel != null) {
+                    onCancel.accept(CancelReason.MOVED);
+                }
+            } else if (deadlines[slot] <= currentTick) {
+                Runnable onComplete = completions[slot];
+                remove(slot);
+                onComplete.run();
+            }
+        }
+        if (size == 0) {
+            stopTask();
+        }
+    }
+
+    private void stopTask() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private int find(long most, long least) {
+        for (int slot = 0; slot < size; slot++) {
+            if (mostBits[slot] == most && leastBits[slot] == least) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes an entry by moving the last entry into its slot.
+     */
+    private void remove(int slot) {
+        int last = --size;
+        if (slot != last) {
+            mostBits[slot] = mostBits[last];
+            leastBits[slot] = leastBits[last];
+            players[slot] = players[last];
+            worlds[slot] = worlds[last];
+            blockX[slot] = blockX[last];
+            blockY[slot] = blockY[last];
+            blockZ[slot] = blockZ[last];
+            deadlines[slot] = deadlines[last];
+            completions[slot] = completions[last];
+            cancellations[slot] = cancellations[last];
+        }
+        // Libère les références pour ne pas retenir de joueur déconnecté
+        players[last] = null;
+        worlds[last] = null;
+        completions[last] = null;
+        cancellations[last] = null;
+    }
+
+    private void grow() {
+        int capacity = deadlines.length * 2;
+        mostBits = Arrays.copyOf(mostBits, capacity);
+        leastBits = Arrays.copyOf(leastBits, capacity);
+        players = Arrays.copyOf(players, capacity);
+        worlds = Arrays.copyOf(worlds, capacity);
+        blockX = Arrays.copyOf(blockX, capacity);
+        blockY = Arrays.copyOf(blockY, capacity);
+        blockZ = Arrays.copyOf(blockZ, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        completions = Arrays.copyOf(completions, capacity);
+        cancellations = Arrays.copyOf(cancellations, capacity);
+    }
+}
@@ -0,0 +1,158 @@
+package akia.spawnManager.message;
+
+/**
+ * Every message the plugin sends, with its key in the {@code lang/*.yml} files and the names
+ * of its placeholders. A placeholder is written {@code {name}} in the files; the values are
+ * passed to {@link Messages} in the order declared here.
+ */
+public enum Message {
+
+    PLAYER_ONLY("command.player_only"),
+
+    SPAWN_COOLDOWN("spawn.cooldown", "seconds"),
+    SPAWN_UNDEFINED("spawn.undefined"),
+    SPAWN_WORLD_NOT_LOADED("spawn.world_not_loaded"),
+    SPAWN_TELEPORTING("spawn.teleporting"),
+    SPAWN_UNSAFE("spawn.unsafe"),
+
+    BACK_EMPTY("back.empty"),
+    BACK_TOO_FAR("back.too_far", "count"),
+    BACK_WORLD_NOT_LOADED("back.world_not_loaded"),
+    BACK_TELEPORTING("back.teleporting"),
+    BACK_COOLDOWN("back.cooldown", "seconds"),
+    BACK_UNSAFE("back.unsafe"),
+
+    WARMUP_STARTED("warmup.started", "seconds"),
+    WARMUP_CANCELLED_MOVE("warmup.cancelled_move"),
+    WARMUP_CANCELLED_DAMAGE("warmup.cancelled_damage"),
+
+    JOIN_TELEPORTED("join.teleported"),
+    JOIN_WORLD_NOT_LOADED("join.world_not_loaded"),
+    JOIN_SPAWN_UNDEFINED("join.spawn_undefined"),
+    JOIN_UNSAFE("join.unsafe"),
+
+    NO_PERMISSION_USE("permission.use"),
+    NO_PERMISSION_ADMIN("permission.admin"),
+    NO_PERMISSION_SAVE("permission.save"),
+    NO_PERMISSION_LOAD("permission.load"),
+    NO_PERMISSION_RELOAD("permission.reload"),
+    NO_PERMISSION_CONVERT("permission.convert"),
+    NO_PERMISSION_STATS("permission.stats"),
+    NO_PERMISSION_QUEUE("permission.queue"),
+    NO_PERMISSION_IMPORT("permission.import"),
+    NO_PERMISSION_EXPORT("permission.export"),
+    NO_PERMISSION_CREATE("permission.create"),
+    NO_PERMISSION_SET("permission.set"),
+    NO_PERMISSION_RENAME("permission.rename"),
+    NO_PERMISSION_DELETE("permission.delete"),
+    NO_PERMISSION_TELEPORT("permission.teleport"),
+    NO_PERMISSION_LIST("permission.list"),
+    NO_PERMISSION_BACK("permission.back"),
+
+    ADMIN_USAGE("admin.usage"),
+    SAVE_DONE("admin.save.done"),
+    SAVE_FAILED("admin.save.failed"),
+    LOAD_DONE("admin.load.done"),
+    LOAD_WORLD_DONE("admin.load.world_done", "count", "world"),
+    LOAD_FAILED("admin.load.failed"),
+    RELOAD_DONE("admin.reload.done"),
+    RELOAD_FAILED("admin.reload.failed"),
+    CONVERT_USAGE("admin.convert.usage"),
+    CONVERT_DONE("admin.convert.done", "count", "source", "target"),
+    CONVERT_FAILED("admin.convert.failed", "error"),
+    IMPORT_USAGE("admin.import.usage"),
+    IMPORT_RUNNING("admin.import.running"),
+    IMPORT_STARTED("admin.import.started", "file", "policy"),
+    IMPORT_PROGRESS("admin.import.progress", "applied", "invalid"),
+    IMPORT_DONE("admin.import.done", "added", "overwritten", "renamed", "skipped", "invalid", "seconds"),
+    IMPORT_FAILED("admin.import.failed", "error"),
+    EXPORT_USAGE("admin.export.usage"),
+    EXPORT_STARTED("admin.export.started", "file"),
+    EXPORT_DONE("admin.export.done", "count", "file"),
+    EXPORT_FAILED("admin.export.failed", "error"),
+    TRANSFER_INVALID_PATH("admin.transfer_invalid_path", "file"),
+    STATISTICS_RESET("admin.statistics_reset"),
+    QUEUE_HEADER("admin.queue.header"),
+    QUEUE_DEPTH("admin.queue.depth", "depth", "budget"),
+    QUEUE_TELEPORTED("admin.queue.teleported", "teleported", "queued", "dropped"),
+    QUEUE_WAIT("admin.queue.wait", "average", "max"),
+    STATS_HEADER("admin.stats.header"),
+    STATS_HISTOGRAM("admin.stats.histogram", "name", "count", "average", "p50", "p99", "max"),
+    STATS_COUNTER("admin.stats.counter", "name", "value"),
+
+    LOCATION_EXISTS("location.exists"),
+    LOCATION_NOT_FOUND("location.not_found"),
+    LOCATION_INVALID_NAME("location.invalid_name"),
+    LOCATION_UNSAFE("location.unsafe", "name"),
+    LOCATION_COOLDOWN("location.cooldown", "name", "seconds"),
+    CREATE_USAGE("location.create.usage"),
+    CREATE_DONE("location.create.done", "name"),
+    SET_USAGE("location.set.usage"),
+    SET_DONE("location.set.done", "name"),
+    RENAME_USAGE("location.rename.usage"),
+    RENAME_DONE("location.rename.done", "name", "new_name"),
+    DELETE_USAGE("location.delete.usage"),
+    DELETE_DONE("location.delete.done", "name"),
+    TELEPORT_USAGE("location.teleport.usage"),
+    TELEPORT_DONE("location.teleport.done", "name"),
+    GROUP_USAGE("location.group.usage"),
+    GROUP_NOT_FOUND("location.group.not_found", "group"),
+    GROUP_DELETE_DONE("location.group.deleted", "count", "group"),
+
+    LIST_EMPTY("location.list.empty"),
+    LIST_EMPTY_WORLD("location.list.empty_world", "world"),
+    LIST_HEADER("location.list.header", "page", "pages"),
+    LIST_HEADER_WORLD("location.list.header_world", "world", "page", "pages"),
+    LIST_HEADER_GROUP("location.list.header_group", "group", "page", "pages"),
+    LIST_ENTRY("location.list.entry", "name"),
+    LIST_ENTRY_WORLD("location.list.entry_world", "name", "world"),
+    LIST_HOVER("location.list.hover", "name"),
+    LIST_PREVIOUS("location.list.previous"),
+    LIST_PAGE("location.list.page", "page", "pages"),
+    LIST_NEXT("location.list.next"),
+
+    HELP("location.help", "cooldown");
+
+    /**
+     * The key of the message in the language files.
+     */
+    private final String key;
+    /**
+     * The names of the placeholders, in the order their values are passed.
+     */
+    private final String[] parameters;
+
+    Message(String key, String... parameters) {
+        this.key = key;
+        this.parameters = parameters;
+    }
+
+    /**
+     * @return the key of the message in the language files
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the number of values the message expects
+     */
+    public int getParameterCount() {
+        return parameters.length;
+    }
+
+    /**
+     * Finds the position of a placeholder among the values passed with the message.
+     *
+     * @param name the name of the placeholder
+     * @return its position, or -1 if the message has no such placeholder
+     */
+    int indexOf(String name) {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,150 @@
+package akia.spawnManager.message;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message of a language file, compiled once when the file is loaded.
+ *
+ * <p>The text is split into spans at every color tag, such as {@code <green>}, and every span
+ * into its literal parts and the positions of its placeholders. A message without placeholder
+ * is turned into a {@link Component} right away and that same instance is returned on every
+ * use; otherwise only the placeholders are filled in when the message is sent. Unknown tags
+ * and placeholders are kept as they are written. Instances are immutable.</p>
+ */
+final class MessageTemplate {
+
+    /**
+     * The spans of the message, in order.
+     */
+    private final Span[] spans;
+    /**
+     * The rendered message if it has no placeholder, {@code null} otherwise.
+     */
+    private final Component constant;
+
+    private MessageTemplate(Span[] spans) {
+        this.spans = spans;
+        boolean hasPlaceholder = false;
+        for (Span span : spans) {
+            hasPlaceholder |= span.slots.length > 0;
+        }
+        this.constant = hasPlaceholder ? null : render(null);
+    }
+
+    /**
+     * Compiles the text of a message.
+     *
+     * @param message the message, which gives the names of the placeholders
+     * @param raw     the text read from the language file
+     * @return the compiled message
+     */
+    static MessageTemplate compile(Message message, String raw) {
+        List<Span> spans = new ArrayList<>(2);
+        TextColor color = null;
+        List<String> literals = new ArrayList<>(2);
+        List<Integer> slots = new ArrayList<>(2);
+        StringBuilder literal = new StringBuilder(raw.length());
+        int i = 0;
+        while (i < raw.length()) {
+            char c = raw.charAt(i);
+            int end = c == '<' ? raw.indexOf('>', i) : c == '{' ? raw.indexOf('}', i) : -1;
+            if (end > i) {
+                String name = raw.substring(i + 1, end);
+                if (c == '<') {
+                    NamedTextColor tagColor = NamedTextColor.NAMES.value(name);
+                    if (tagColor != null) {
+                        // Une balise de couleur termine le segment en cours
+                        if (literal.length() > 0 || !slots.isEmpty()) {
+                            literals.add(literal.toString());
+                            spans.add(new Span(color, literals, slots));
+                            literals = new ArrayList<>(2);
+                            slots = new ArrayList<>(2);
+                            literal.setLength(0);
+                        }
+                        color = tagColor;
+                        i = end + 1;
+                        continue;
+                    }
+                } else {
+                    int slot = message.indexOf(name);
+                    if (slot >= 0) {
+                        literals.add(literal.toString());
+                        slots.add(slot);
+                        literal.setLength(0);
+                        i = end + 1;
+                        continue;
+                    }
+                }
+            }
+            literal.append(c);
+            i++;
+        }
+        literals.add(literal.toString());
+        spans.add(new Span(color, literals, slots));
+        return new MessageTemplate(spans.toArray(new Span[0]));
+    }
+
+    /**
+     * Renders the message.
+     *
+     * @param values the values of the placeholders, in the order declared by the {@link Message};
+     *               ignored if the message has no placeholder
+     * @return the rendered message
+     */
+    Component format(Object[] values) {
+        return constant != null ? constant : render(values);
+    }
+
+    private Component render(Object[] values) {
+        Component root = null;
+        for (Span span : spans) {
+            String text = span.fill(values);
+            Component part = span.color == null ? Component.text(text) : Component.text(text, span.color);
+            root = root == null ? part : root.append(part);
+        }
+        return root;
+    }
+
+    /**
+     * A part of the message sharing one color: {@code literals[0] + value + literals[1] + ...}.
+     */
+    private static final class Span {
+
+        private final TextColor color;
+        private final String[] literals;
+        private final int[] slots;
+        private final int literalLength;
+
+        private Span(TextColor color, List<String> literals, List<Integer> slots) {
+            this.color = color;
+            this.literals = literals.toArray(new String[0]);
+            this.slots = new int[slots.size()];
+            for (int i = 0; i < this.slots.length; i++) {
+                this.slots[i] = slots.get(i);
+            }
+            int length = 0;
+            for (String literal : this.literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        private String fill(Object[] values) {
+            if (slots.length == 0) {
+                return literals[0];
+            }
+            StringBuilder text = new StringBuilder(literalLength + 16 * slots.length);
+            text.append(literals[0]);
+            for (int i = 0; i < slots.length; i++) {
+                text.append(values != null && slots[i] < values.length ? values[slots[i]] : "");
+                text.append(literals[i + 1]);
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package akia.spawnManager.message;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * The catalog of the messages sent by the plugin, read from the {@code lang/<language>.yml}
+ * files of the data folder and compiled into {@link MessageTemplate}s.
+ *
+ * <p>Each player receives the messages of the language of their client when a file exists for
+ * it, and the console and the other players those of the default language. A key missing from
+ * a file is taken from the file bundled with the plugin, then from the default language. The
+ * catalogs are replaced as a whole by {@link #load(Plugin, String)}, so they can be read from
+ * any thread.</p>
+ */
+public class Messages {
+
+    /**
+     * The languages whose file is bundled with the plugin and written to the data folder.
+     */
+    private static final List<String> BUNDLED_LANGUAGES = List.of("fr", "en");
+
+    /**
+     * The compiled messages of every language, indexed by {@link Message#ordinal()}.
+     */
+    private volatile Map<String, MessageTemplate[]> catalogs = Collections.emptyMap();
+    /**
+     * The language used by the console and by the players whose language has no file.
+     */
+    private volatile String defaultLanguage = "fr";
+    /**
+     * The compiled messages of the default language.
+     */
+    private volatile MessageTemplate[] defaultCatalog = keysOnly();
+    /**
+     * The number of times the catalogs were loaded, which lets caches of rendered messages
+     * notice a reload.
+     */
+    private volatile int revision;
+
+    /**
+     * Reads and compiles the language files, writing the bundled ones to the data folder first
+     * if they are missing. The previous catalogs stay in use until the new ones are ready.
+     *
+     * @param plugin          the plugin whose data folder contains the {@code lang} folder
+     * @param defaultLanguage the language used by the console and the players whose language has no file
+     */
+    public void load(Plugin plugin, String defaultLanguage) {
+        File folder = new File(plugin.getDataFolder(), "lang");
+        for (String language : BUNDLED_LANGUAGES) {
+            if (!new File(folder, language + ".yml").exists()) {
+                plugin.saveResource("lang/" + language + ".yml", false);
+            }
+        }
+
+        Map<String, String[]> texts = new HashMap<>();
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files != null) {
+            for (File file : files) {
+                String language = file.getName().substring(0, file.getName().length() - 4).toLowerCase(Locale.ROOT);
+                YamlConfiguration config = new YamlConfiguration();
+                try {
+                    config.load(file);
+                } catch (IOException | InvalidConfigurationException e) {
+                    plugin.getLogger().log(Level.WARNING, "Fichier de langue invalide, ignoré : " + file.getName(), e);
+                    continue;
+                }
+                texts.put(language, read(config, bundled(plugin, language)));
+            }
+        }
+
+        // Les clés absentes d'une langue sont reprises de la langue par défaut, puis de la clé elle-même
+        String[] fallback = texts.get(defaultLanguage);
+        Map<String, MessageTemplate[]> compiled = new HashMap<>();
+        for (Map.Entry<String, String[]> entry : texts.entrySet()) {
+            compiled.put(entry.getKey(), compile(entry.getValue(), fallback));
+        }
+        MessageTemplate[] compiledDefault = compiled.get(defaultLanguage);
+        if (compiledDefault == null) {
+            plugin.getLogger().warning("Aucun fichier lang/" + defaultLanguage + ".yml, les clés des messages sont affichées.");
+            compiledDefault = keysOnly();
+        }
+
+        this.catalogs = compiled;
+        this.defaultLanguage = defaultLanguage;
+        this.defaultCatalog = compiledDefault;
+        revision++;
+    }
+
+    /**
+     * @return a number changed every time the catalogs are loaded
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Renders a message without placeholder. The same instance is returned on every call.
+     *
+     * @param sender  the recipient, whose language is used
+     * @param message the message to render
+     * @return the rendered message
+     */
+    public Component get(CommandSender sender, Message message) {
+        return catalog(sender)[message.ordinal()].format(null);
+    }
+
+    /**
+     * Renders a message, filling in its placeholders.
+     *
+     * @param sender  the recipient, whose language is used
+     * @param message the message to render
+     * @param values  the values of the placeholders, in the order declared by the message
+     * @return the rendered message
+     */
+    public Component get(CommandSender sender, Message message, Object... values) {
+        return catalog(sender)[message.ordinal()].format(values);
+    }
+
+    /**
+     * Renders a message in the given language.
+     *
+     * @param language the language, as returned by {@link #language(CommandSender)}
+     * @param message  the message to render
+     * @param values   the values of the placeholders, in the order declared by the message
+     * @return the rendered message
+     */
+    public Component get(String language, Message message, Object... values) {
+        MessageTemplate[] catalog = catalogs.get(language);
+        return (catalog != null ? catalog : defaultCatalog)[message.ordinal()].format(values);
+    }
+
+    /**
+     * Sends a message without placeholder.
+     *
+     * @param sender  the recipient
+     * @param message the message to send
+     */
+    public void send(CommandSender sender, Message message) {
+        sender.sendMessage(get(sender, message));
+    }
+
+    /**
+     * Sends a message, filling in its placeholders.
+     *
+     * @param sender  the recipient
+     * @param message the message to send
+     * @param values  the values of the placeholders, in the order declared by the message
+     */
+    public void send(CommandSender sender, Message message, Object... values) {
+        sender.sendMessage(get(sender, message, values));
+    }
+
+    /**
+     * Determines the language of the messages sent to a recipient.
+     *
+     * @param sender the recipient
+     * @return the language of the client of a player if a file exists for it, the default language otherwise
+     */
+    public String language(CommandSender sender) {
+        if (sender instanceof Player player) {
+            String language = player.locale().getLanguage();
+            if (catalogs.containsKey(language)) {
+                return language;
+            }
+        }
+        return defaultLanguage;
+    }
+
+    private MessageTemplate[] catalog(CommandSender sender) {
+        if (sender instanceof Player player) {
+            // getLanguage() renvoie une chaîne déjà construite : la recherche n'alloue rien
+            MessageTemplate[] catalog = catalogs.get(player.locale().getLanguage());
+            if (catalog != null) {
+                return catalog;
+            }
+        }
+        return defaultCatalog;
+    }
+
+    /**
+     * Reads the text of every message from a language file, falling back to the bundled file.
+     */
+    private static String[] read(YamlConfiguration config, YamlConfiguration bundled) {
+        Message[] messages = Message.values();
+        String[] texts = new String[messages.length];
+        for (Message message : messages) {
+            String text = config.getString(message.getKey());
+            if (text == null && bundled != null) {
+                text = bundled.getString(message.getKey());
+            }
+            texts[message.ordinal()] = text;
+        }
+        return texts;
+    }
+
+    /**
+     * Reads the file of a language bundled with the plugin.
+     *
+     * @return the bundled file, or {@code null} if the plugin does not provide this language
+     */
+    private static YamlConfiguration bundled(Plugin plugin, String language) {
+        InputStream stream = plugin.getResource("lang/" + language + ".yml");
+        if (stream == null) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return YamlConfiguration.loadConfiguration(reader);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static MessageTemplate[] compile(String[] texts, String[] fallback) {
+        Message[] messages = Message.values();
+        MessageTemplate[] templates = new MessageTemplate[messages.length];
+        for (Message message : messages) {
+            String text = texts[message.ordinal()];
+            if (text == null && fallback != null) {
+                text = fallback[message.ordinal()];
+            }
+            templates[message.ordinal()] = MessageTemplate.compile(message, text != null ? text : message.getKey());
+        }
+        return templates;
+    }
+
+    /**
+     * @return a catalog showing the key of every message, used until the files are loaded
+     */
+    private static MessageTemplate[] keysOnly() {
+        return compile(new String[Message.values().length], null);
+    }
+}
@@ -0,0 +1,51 @@
+package akia.spawnManager.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonic counter, exported to Prometheus as a {@code counter}. Incrementing it does
+ * not allocate and does not contend between threads.
+ */
+public final class Counter {
+
+    /**
+     * The name of the metric, without the {@code _total} suffix.
+     */
+    private final String name;
+    /**
+     * The description of the metric.
+     */
+    private final String help;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    /**
+     * Adds one to the counter.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * @return the current value of the counter
+     */
+    public long get() {
+        return value.sum();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    void reset() {
+        value.reset();
+    }
+}
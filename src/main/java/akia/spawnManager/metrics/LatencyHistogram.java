@@ -0,0 +1,165 @@
+package akia.spawnManager.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with fixed, exponential buckets, exported to Prometheus as a
+ * {@code histogram}. Recording a value only increments a few counters: it does not
+ * allocate and costs a handful of nanoseconds, so it can stay enabled in production.
+ *
+ * <p>Bucket {@code i} counts the durations of at most {@code 2^i} microseconds, from 1 µs
+ * to about 33 s; longer durations only count in the {@code +Inf} bucket. Percentiles are
+ * estimated from the buckets and are therefore only accurate to a factor of two.</p>
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of finite buckets.
+     */
+    static final int BUCKETS = 26;
+
+    /**
+     * The name of the metric, without the {@code _seconds} suffix.
+     */
+    private final String name;
+    /**
+     * The description of the metric.
+     */
+    private final String help;
+    /**
+     * The number of durations in each bucket, the last slot holding those above every bound.
+     * The counts are not cumulative.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS + 1);
+    private final LongAdder sumNanos = new LongAdder();
+    private volatile long maxNanos;
+
+    LatencyHistogram(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds, typically the difference of two {@link System#nanoTime()}
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucket(nanos));
+        sumNanos.add(nanos);
+        if (nanos > maxNanos) {
+            // Course possible entre threads, sans conséquence pour un maximum indicatif
+            maxNanos = nanos;
+        }
+    }
+
+    /**
+     * Records the time elapsed since the given instant.
+     *
+     * @param startNanos the instant the measured operation started, from {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return the number of recorded durations
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the sum of the recorded durations, in nanoseconds
+     */
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * @return the longest recorded duration, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Estimates a percentile of the recorded durations.
+     *
+     * @param quantile the quantile, between 0 and 1
+     * @return the upper bound of the bucket holding the quantile, in nanoseconds, or 0 if nothing was recorded
+     */
+    public long estimateNanos(double quantile) {
+        long[] snapshot = snapshotCounts();
+        long total = 0;
+        for (long count : snapshot) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(upperBoundNanos(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * @return a copy of the count of every bucket, the last slot holding the durations above every bound
+     */
+    long[] snapshotCounts() {
+        long[] snapshot = new long[BUCKETS + 1];
+        for (int i = 0; i <= BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return the inclusive upper bound of a finite bucket, in nanoseconds
+     */
+    static long upperBoundNanos(int bucket) {
+        return (1L << bucket) * 1000L;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    void reset() {
+        for (int i = 0; i <= BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        sumNanos.reset();
+        maxNanos = 0;
+    }
+
+    /**
+     * @return the index of the smallest bucket whose bound is greater than or equal to the duration
+     */
+    private static int bucket(long nanos) {
+        long micros = (nanos + 999) / 1000;
+        if (micros <= 1) {
+            return 0;
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(micros - 1);
+        return Math.min(bucket, BUCKETS);
+    }
+}
@@ -0,0 +1,125 @@
+package akia.spawnManager.metrics;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The counters and latency histograms of the plugin's hot paths. Each instrumented point
+ * holds a direct reference to its metric, so recording never looks anything up by name.
+ *
+ * <p>The metrics can be rendered in the Prometheus text exposition format with
+ * {@link #toPrometheus()}, which is safe to call from any thread.</p>
+ */
+public class Metrics {
+
+    /**
+     * The prefix of every exported metric name.
+     */
+    private static final String PREFIX = "spawnmanager_";
+
+    /**
+     * Time between the join of a player and the end of their teleport to the spawn.
+     */
+    public final LatencyHistogram joinTeleports = new LatencyHistogram("join_teleport",
+            "Temps entre la connexion d'un joueur et la fin de sa téléportation au spawn.");
+    /**
+     * Time spent executing {@code /spawn} on the main thread.
+     */
+    public final LatencyHistogram spawnCommands = new LatencyHistogram("spawn_command",
+            "Durée d'exécution de /spawn sur le thread principal.");
+    /**
+     * Time spent executing {@code /location teleport} on the main thread.
+     */
+    public final LatencyHistogram locationTeleports = new LatencyHistogram("location_teleport_command",
+            "Durée d'exécution de /location teleport sur le thread principal.");
+    /**
+     * Time spent computing tab completions.
+     */
+    public final LatencyHistogram tabCompletions = new LatencyHistogram("tab_complete",
+            "Durée du calcul des complétions.");
+    /**
+     * Time taken by the saves of the locations, from the request to the end of the write.
+     */
+    public final LatencyHistogram saves = new LatencyHistogram("save",
+            "Durée des sauvegardes des locations, de la demande à la fin de l'écriture.");
+    /**
+     * Time taken by the loads of the locations.
+     */
+    public final LatencyHistogram loads = new LatencyHistogram("load",
+            "Durée des chargements des locations.");
+    /**
+     * Number of {@code /spawn} executions rejected because the player was on cooldown.
+     */
+    public final Counter cooldownRejections = new Counter("cooldown_rejections",
+            "Nombre d'utilisations de /spawn refusées à cause du cooldown.");
+    /**
+     * Number of saves that failed.
+     */
+    public final Counter saveFailures = new Counter("save_failures",
+            "Nombre de sauvegardes des locations en échec.");
+    /**
+     * Number of teleports to a spread location that found its pool of safe spots empty.
+     */
+    public final Counter spreadSpawnFallbacks = new Counter("spread_spawn_fallbacks",
+            "Nombre de téléportations vers une location étalée faites sur la location faute de point sûr prêt.");
+
+    /**
+     * @return every histogram, in a stable order
+     */
+    public List<LatencyHistogram> getHistograms() {
+        return List.of(joinTeleports, spawnCommands, locationTeleports, tabCompletions, saves, loads);
+    }
+
+    /**
+     * @return every counter, in a stable order
+     */
+    public List<Counter> getCounters() {
+        return List.of(cooldownRejections, saveFailures, spreadSpawnFallbacks);
+    }
+
+    /**
+     * Resets every metric to zero.
+     */
+    public void reset() {
+        getHistograms().forEach(LatencyHistogram::reset);
+        getCounters().forEach(Counter::reset);
+    }
+
+    /**
+     * Renders every metric in the Prometheus text exposition format. Durations are
+     * exported in seconds, as Prometheus recommends.
+     *
+     * @return the metrics, one sample per line
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Counter counter : getCounters()) {
+            String name = PREFIX + counter.getName() + "_total";
+            out.append("# HELP ").append(name).append(' ').append(counter.getHelp()).append('\n');
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(counter.get()).append('\n');
+        }
+        for (LatencyHistogram histogram : getHistograms()) {
+            String name = PREFIX + histogram.getName() + "_seconds";
+            out.append("# HELP ").append(name).append(' ').append(histogram.getHelp()).append('\n');
+            out.append("# TYPE ").append(name).append(" histogram\n");
+            long[] counts = histogram.snapshotCounts();
+            long cumulative = 0;
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                cumulative += counts[i];
+                out.append(name).append("_bucket{le=\"")
+                        .append(seconds(LatencyHistogram.upperBoundNanos(i))).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            cumulative += counts[LatencyHistogram.BUCKETS];
+            out.append(name).append("_bucket{le=\"+Inf\"} ").append(cumulative).append('\n');
+            out.append(name).append("_sum ").append(seconds(histogram.getSumNanos())).append('\n');
+            out.append(name).append("_count ").append(cumulative).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.6f", nanos / 1_000_000_000.0);
+    }
+}
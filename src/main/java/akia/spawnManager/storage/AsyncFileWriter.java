@@ -0,0 +1,168 @@
+package akia.spawnManager.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes files on a single background thread so that serialization and disk I/O never
+ * run on the server's main thread. Every write goes to a temporary file in the target
+ * directory which is then atomically renamed over the destination, so a crash in the
+ * middle of a save can never leave a truncated file behind.
+ */
+public class AsyncFileWriter {
+
+    /**
+     * The single-threaded executor running the writes. Using one thread keeps the writes
+     * ordered: a later snapshot can never be overwritten by an older one.
+     */
+    private final ExecutorService executor;
+    /**
+     * The logger used to report failed writes.
+     */
+    private final Logger logger;
+
+    /**
+     * Constructs a new {@code AsyncFileWriter} backed by a dedicated daemon thread.
+     *
+     * @param logger the logger used to report I/O failures. Must not be null.
+     */
+    public AsyncFileWriter(Logger logger) {
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SpawnManager-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Serializes content on the writer thread and atomically replaces the target file with it.
+     *
+     * @param target     the file to replace
+     * @param serializer produces the bytes to write; invoked on the writer thread
+     * @return a future completed once the file has been replaced, or completed exceptionally on failure
+     */
+    public CompletableFuture<Void> write(Path target, Supplier<byte[]> serializer) {
+        return submit(target.getFileName().toString(), () -> writeAtomically(target, serializer.get()));
+    }
+
+    /**
+     * Runs an arbitrary I/O task on the writer thread, ordered with the other writes.
+     *
+     * @param description what the task writes, used in the error message if it fails
+     * @param task        the task to run on the writer thread
+     * @return a future completed once the task has run, or completed exceptionally on failure
+     */
+    public CompletableFuture<Void> submit(String description, IOTask task) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                task.run();
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Impossible d'écrire " + description, e);
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Reads a whole file on the writer thread. The read is ordered with the writes, so a file
+     * whose write was submitted before is read complete.
+     *
+     * @param source the file to read
+     * @return a future completed with the content of the file, or with {@code null} if it does
+     *         not exist, or completed exceptionally if it cannot be read
+     */
+    public CompletableFuture<byte[]> read(Path source) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return Files.exists(source) ? Files.readAllBytes(source) : null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Stops accepting new writes and waits for the queued ones to finish.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of {@code timeout}
+     * @return {@code true} if every pending write completed, {@code false} if the timeout elapsed first
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Writes the given bytes to a temporary sibling of {@code target}, forces them to the
+     * device and renames the file over {@code target}. Without the flush, a power loss right
+     * after the rename could leave an empty file in place of both versions. Falls back to a
+     * plain replacing move on file systems that do not support atomic moves.
+     *
+     * @param target the file to replace
+     * @param data   the new content of the file
+     * @throws IOException if the temporary file cannot be written or moved
+     */
+    public static void writeAtomically(Path target, byte[] data) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            moveAtomically(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Renames a complete file over {@code target}, atomically when the file system supports it,
+     * so that readers see either the old content or the new one.
+     *
+     * @param source the complete file, in the same directory as {@code target}
+     * @param target the file to replace
+     * @throws IOException if the file cannot be moved
+     */
+    public static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * A write performed on the writer thread.
+     */
+    @FunctionalInterface
+    public interface IOTask {
+
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,165 @@
+package akia.spawnManager.storage;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads and writes the compact binary "locations.bin" format. The file is read through a
+ * memory-mapped {@link FileChannel}, which avoids the YAML parsing and the Bukkit
+ * serialization round trip of "locations.yml".
+ *
+ * <p>Layout, all values big-endian:</p>
+ * <pre>
+ * header   : magic (int) | version (short) | record count (int) | string count (int) | string table offset (long)
+ * records  : world uid msb (long) | world uid lsb (long) | world name index (int) | name index (int)
+ *            | x (double) | y (double) | z (double) | yaw (float) | pitch (float)
+ * strings  : length (int) | UTF-8 bytes, repeated string count times
+ * </pre>
+ * Records have a fixed width of {@value #RECORD_SIZE} bytes. World names and location names
+ * are shared through the string table. An unknown world uid is written as zero.
+ */
+public final class BinaryLocationCodec {
+
+    /**
+     * The magic number opening every file, "SMLB" in ASCII.
+     */
+    private static final int MAGIC = 0x534D4C42;
+    /**
+     * The version of the layout written by this codec.
+     */
+    private static final short VERSION = 1;
+    /**
+     * The size of the header in bytes.
+     */
+    private static final int HEADER_SIZE = 4 + 2 + 4 + 4 + 8;
+    /**
+     * The size of a single location record in bytes.
+     */
+    private static final int RECORD_SIZE = 8 + 8 + 4 + 4 + 8 + 8 + 8 + 4 + 4;
+
+    private BinaryLocationCodec() {
+    }
+
+    /**
+     * Serializes the given locations into the binary format.
+     *
+     * @param locations the locations to serialize
+     * @return the content of the binary file
+     */
+    public static byte[] encode(List<StoredLocation> locations) {
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int stringBytes = 0;
+        int[] worldIndexes = new int[locations.size()];
+        int[] nameIndexes = new int[locations.size()];
+        for (int i = 0; i < locations.size(); i++) {
+            StoredLocation location = locations.get(i);
+            for (String value : new String[]{location.worldName(), location.name()}) {
+                if (!stringIndexes.containsKey(value)) {
+                    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    stringIndexes.put(value, strings.size());
+                    strings.add(encoded);
+                    stringBytes += 4 + encoded.length;
+                }
+            }
+            worldIndexes[i] = stringIndexes.get(location.worldName());
+            nameIndexes[i] = stringIndexes.get(location.name());
+        }
+
+        long stringTableOffset = HEADER_SIZE + (long) RECORD_SIZE * locations.size();
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(stringTableOffset + stringBytes));
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putInt(locations.size());
+        buffer.putInt(strings.size());
+        buffer.putLong(stringTableOffset);
+        for (int i = 0; i < locations.size(); i++) {
+            StoredLocation location = locations.get(i);
+            UUID worldId = location.worldId();
+            buffer.putLong(worldId != null ? worldId.getMostSignificantBits() : 0L);
+            buffer.putLong(worldId != null ? worldId.getLeastSignificantBits() : 0L);
+            buffer.putInt(worldIndexes[i]);
+            buffer.putInt(nameIndexes[i]);
+            buffer.putDouble(location.x());
+            buffer.putDouble(location.y());
+            buffer.putDouble(location.z());
+            buffer.putFloat(location.yaw());
+            buffer.putFloat(location.pitch());
+        }
+        for (byte[] value : strings) {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Reads every location stored in the given binary file.
+     *
+     * @param path the file to read
+     * @return the locations found in the file
+     * @throws IOException if the file cannot be read or is not a valid location file
+     */
+    public static List<StoredLocation> decode(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException("Fichier de locations binaire invalide : " + path.getFileName());
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Version de fichier de locations non supportée : " + version);
+            }
+            int recordCount = buffer.getInt();
+            int stringCount = buffer.getInt();
+            long stringTableOffset = buffer.getLong();
+            // Chaque chaîne occupe au moins sa longueur : un compte plus grand ne tient pas dans le fichier
+            if (recordCount < 0 || stringCount < 0
+                    || stringTableOffset != HEADER_SIZE + (long) RECORD_SIZE * recordCount
+                    || stringTableOffset > buffer.limit()
+                    || stringCount > (buffer.limit() - stringTableOffset) / 4) {
+                throw new IOException("Fichier de locations binaire corrompu : " + path.getFileName());
+            }
+
+            // La table des chaînes est lue en premier pour résoudre les index des enregistrements
+            String[] strings = new String[stringCount];
+            buffer.position((int) stringTableOffset);
+            for (int i = 0; i < stringCount; i++) {
+                int length = buffer.getInt();
+                if (length > buffer.remaining()) {
+                    throw new IOException("Fichier de locations binaire corrompu : " + path.getFileName());
+                }
+                byte[] value = new byte[length];
+                buffer.get(value);
+                strings[i] = new String(value, StandardCharsets.UTF_8);
+            }
+
+            List<StoredLocation> locations = new ArrayList<>(recordCount);
+            buffer.position(HEADER_SIZE);
+            for (int i = 0; i < recordCount; i++) {
+                long worldMost = buffer.getLong();
+                long worldLeast = buffer.getLong();
+                String worldName = strings[buffer.getInt()];
+                String name = strings[buffer.getInt()];
+                UUID worldId = worldMost == 0L && worldLeast == 0L ? null : new UUID(worldMost, worldLeast);
+                locations.add(new StoredLocation(name, worldName, worldId,
+                        buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                        buffer.getFloat(), buffer.getFloat()));
+            }
+            return locations;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("Fichier de locations binaire corrompu : " + path.getFileName(), e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package akia.spawnManager.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A backend storing the whole registry in a single file, rewritten atomically on every write.
+ */
+abstract class FileLocationStorage implements LocationStorage {
+
+    /**
+     * The storage file.
+     */
+    protected final File file;
+
+    FileLocationStorage(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public boolean exists() {
+        return file.exists();
+    }
+
+    @Override
+    public List<StoredLocation> loadAll() throws IOException {
+        return decode(file);
+    }
+
+    @Override
+    public void write(StorageChanges changes) throws IOException {
+        // Un fichier ne se modifie pas en place : il est toujours réécrit en entier
+        AsyncFileWriter.writeAtomically(file.toPath(), encode(changes.all().get()));
+    }
+
+    /**
+     * Serializes the given locations into the content of the file.
+     */
+    protected abstract byte[] encode(List<StoredLocation> locations);
+
+    /**
+     * Reads the locations stored in the given file, which exists.
+     */
+    protected abstract List<StoredLocation> decode(File file) throws IOException;
+
+    /**
+     * The human-readable YAML file.
+     */
+    static final class Yaml extends FileLocationStorage {
+
+        Yaml(File file) {
+            super(file);
+        }
+
+        @Override
+        protected byte[] encode(List<StoredLocation> locations) {
+            return YamlLocationCodec.encode(locations);
+        }
+
+        @Override
+        protected List<StoredLocation> decode(File file) {
+            return YamlLocationCodec.decode(file);
+        }
+    }
+
+    /**
+     * The compact, memory-mapped binary file.
+     */
+    static final class Binary extends FileLocationStorage {
+
+        Binary(File file) {
+            super(file);
+        }
+
+        @Override
+        protected byte[] encode(List<StoredLocation> locations) {
+            return BinaryLocationCodec.encode(locations);
+        }
+
+        @Override
+        protected List<StoredLocation> decode(File file) throws IOException {
+            return BinaryLocationCodec.decode(file.toPath());
+        }
+    }
+}
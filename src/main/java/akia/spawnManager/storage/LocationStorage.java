@@ -0,0 +1,67 @@
+package akia.spawnManager.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A backend the registry of locations is persisted through. Implementations are obtained
+ * with {@link StorageFormat#open(java.io.File)}.
+ *
+ * <p>Writes receive both the changes made since the previous write and a lazy view of the
+ * whole registry: file backends rewrite the whole file, while a database only applies the
+ * changes. Implementations must tolerate being read from the main thread while a write
+ * runs on the writer thread.</p>
+ */
+public interface LocationStorage extends AutoCloseable {
+
+    /**
+     * Indicates whether the backend holds data that can be loaded.
+     *
+     * @return {@code false} if nothing was ever written to this backend
+     */
+    boolean exists();
+
+    /**
+     * Reads every stored location.
+     *
+     * @return the stored locations
+     * @throws IOException if the backend cannot be read
+     */
+    List<StoredLocation> loadAll() throws IOException;
+
+    /**
+     * Reads the locations of a single world. Backends able to index the locations by world
+     * should override this method; by default every location is read and filtered.
+     *
+     * @param worldName the name of the world
+     * @return the stored locations of this world
+     * @throws IOException if the backend cannot be read
+     */
+    default List<StoredLocation> loadWorld(String worldName) throws IOException {
+        List<StoredLocation> locations = new ArrayList<>();
+        for (StoredLocation location : loadAll()) {
+            if (worldName.equals(location.worldName())) {
+                locations.add(location);
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Persists the changes made to the registry since the previous write.
+     *
+     * @param changes the changes to persist
+     * @throws IOException if the changes cannot be written; the backend is left as it was before the call
+     */
+    void write(StorageChanges changes) throws IOException;
+
+    /**
+     * Releases the resources held by the backend. Does nothing by default.
+     *
+     * @throws IOException if the backend cannot be closed cleanly
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,212 @@
+package akia.spawnManager.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A backend storing the locations in an embedded SQLite database, one row per location.
+ * A write only touches the rows of the locations that changed, in a single transaction,
+ * and the locations of a world are read through an index on the world name. After a failed
+ * write, the next one replaces the whole table rather than trusting the rows left behind.
+ *
+ * <p>The SQLite JDBC driver is provided by the server. A single connection is opened
+ * lazily and shared between the main thread and the writer thread, every access being
+ * synchronized on this object.</p>
+ */
+final class SqliteLocationStorage implements LocationStorage {
+
+    private static final String SELECT = "SELECT name, world, world_uid, x, y, z, yaw, pitch FROM locations";
+    private static final String UPSERT = "INSERT INTO locations (name, world, world_uid, x, y, z, yaw, pitch) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT(name) DO UPDATE SET world = excluded.world, "
+            + "world_uid = excluded.world_uid, x = excluded.x, y = excluded.y, z = excluded.z, "
+            + "yaw = excluded.yaw, pitch = excluded.pitch";
+    private static final String DELETE = "DELETE FROM locations WHERE name = ?";
+
+    /**
+     * The database file.
+     */
+    private final File file;
+    /**
+     * The connection to the database, or {@code null} until it is first needed.
+     */
+    private Connection connection;
+    /**
+     * Whether the last write failed, in which case the next one rewrites every row.
+     */
+    private boolean failed;
+
+    SqliteLocationStorage(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public boolean exists() {
+        return file.exists();
+    }
+
+    @Override
+    public synchronized List<StoredLocation> loadAll() throws IOException {
+        try (Statement statement = connection().createStatement();
+             ResultSet rows = statement.executeQuery(SELECT)) {
+            return read(rows);
+        } catch (SQLException e) {
+            throw new IOException("Impossible de lire " + file.getName(), e);
+        }
+    }
+
+    @Override
+    public synchronized List<StoredLocation> loadWorld(String worldName) throws IOException {
+        try (PreparedStatement statement = connection().prepareStatement(SELECT + " WHERE world = ?")) {
+            statement.setString(1, worldName);
+            try (ResultSet rows = statement.executeQuery()) {
+                return read(rows);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Impossible de lire " + file.getName(), e);
+        }
+    }
+
+    @Override
+    public synchronized void write(StorageChanges changes) throws IOException {
+        try {
+            Connection connection = connection();
+            connection.setAutoCommit(false);
+            try {
+                // Après un échec, les lignes déjà en base ne sont plus fiables : tout est réécrit
+                if (changes.fullRewrite() || failed) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate("DELETE FROM locations");
+                    }
+                    upsert(connection, changes.all().get());
+                } else {
+                    upsert(connection, changes.upserts());
+                    delete(connection, changes.deletes());
+                }
+                connection.commit();
+                failed = false;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            failed = true;
+            discardConnection();
+            throw new IOException("Impossible d'écrire dans " + file.getName(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException("Impossible de fermer " + file.getName(), e);
+        } finally {
+            connection = null;
+        }
+    }
+
+    /**
+     * Closes a connection left in an unknown state by a failed write; the next access opens a new one.
+     */
+    private void discardConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // La connexion est abandonnée de toute façon
+        } finally {
+            connection = null;
+        }
+    }
+
+    /**
+     * Opens the connection and creates the schema on first use.
+     */
+    private Connection connection() throws SQLException {
+        if (connection == null) {
+            try {
+                // Le driver est fourni par le serveur mais n'est pas toujours enregistré automatiquement
+                Class.forName("org.sqlite.JDBC");
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("Driver SQLite introuvable.", e);
+            }
+            file.getAbsoluteFile().getParentFile().mkdirs();
+            Connection opened = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+            try (Statement statement = opened.createStatement()) {
+                statement.execute("PRAGMA journal_mode = WAL");
+                statement.execute("CREATE TABLE IF NOT EXISTS locations (name TEXT PRIMARY KEY, world TEXT NOT NULL, "
+                        + "world_uid TEXT, x REAL NOT NULL, y REAL NOT NULL, z REAL NOT NULL, "
+                        + "yaw REAL NOT NULL, pitch REAL NOT NULL)");
+                statement.execute("CREATE INDEX IF NOT EXISTS locations_world ON locations (world)");
+            } catch (SQLException e) {
+                opened.close();
+                throw e;
+            }
+            connection = opened;
+        }
+        return connection;
+    }
+
+    private static void upsert(Connection connection, Collection<StoredLocation> locations) throws SQLException {
+        if (locations.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+            for (StoredLocation location : locations) {
+                statement.setString(1, location.name());
+                statement.setString(2, location.worldName());
+                statement.setString(3, location.worldId() != null ? location.worldId().toString() : null);
+                statement.setDouble(4, location.x());
+                statement.setDouble(5, location.y());
+                statement.setDouble(6, location.z());
+                statement.setFloat(7, location.yaw());
+                statement.setFloat(8, location.pitch());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void delete(Connection connection, Collection<String> names) throws SQLException {
+        if (names.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(DELETE)) {
+            for (String name : names) {
+                statement.setString(1, name);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static List<StoredLocation> read(ResultSet rows) throws SQLException {
+        List<StoredLocation> locations = new ArrayList<>();
+        while (rows.next()) {
+            String worldId = rows.getString(3);
+            locations.add(new StoredLocation(rows.getString(1), rows.getString(2),
+                    worldId != null ? UUID.fromString(worldId) : null,
+                    rows.getDouble(4), rows.getDouble(5), rows.getDouble(6),
+                    rows.getFloat(7), rows.getFloat(8)));
+        }
+        return locations;
+    }
+}
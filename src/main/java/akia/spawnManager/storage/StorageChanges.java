@@ -0,0 +1,19 @@
+package akia.spawnManager.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The changes made to the registry since the previous write, handed to a {@link LocationStorage}.
+ *
+ * @param fullRewrite {@code true} if the backend must be replaced by the whole registry, for
+ *                    instance after it was cleared or when the backend was just selected
+ * @param all         supplies every location of the registry; only evaluated by the backends
+ *                    that need it, on the writer thread
+ * @param upserts     the locations created or modified since the previous write
+ * @param deletes     the names of the locations deleted since the previous write
+ */
+public record StorageChanges(boolean fullRewrite, Supplier<List<StoredLocation>> all,
+                             Collection<StoredLocation> upserts, Collection<String> deletes) {
+}
@@ -0,0 +1,76 @@
+package akia.spawnManager.storage;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * The backends the locations can be persisted in, selected with {@code storage.format}
+ * in the configuration.
+ */
+public enum StorageFormat {
+
+    /**
+     * The human-readable "locations.yml" file.
+     */
+    YAML("locations.yml"),
+    /**
+     * The compact, memory-mapped "locations.bin" file.
+     */
+    BINARY("locations.bin"),
+    /**
+     * The embedded SQLite database "locations.db", written incrementally.
+     */
+    SQLITE("locations.db");
+
+    /**
+     * The name of the file, relative to the plugin's data folder.
+     */
+    private final String fileName;
+
+    StorageFormat(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Resolves the file used by this format inside the given data folder.
+     *
+     * @param dataFolder the plugin's data folder
+     * @return the storage file, which may not exist yet
+     */
+    public File getFile(File dataFolder) {
+        return new File(dataFolder, fileName);
+    }
+
+    /**
+     * Opens the backend of this format inside the given data folder. Nothing is read or
+     * created until the backend is first used.
+     *
+     * @param dataFolder the plugin's data folder
+     * @return the backend, to be closed once it is no longer used
+     */
+    public LocationStorage open(File dataFolder) {
+        File file = getFile(dataFolder);
+        return switch (this) {
+            case YAML -> new FileLocationStorage.Yaml(file);
+            case BINARY -> new FileLocationStorage.Binary(file);
+            case SQLITE -> new SqliteLocationStorage(file);
+        };
+    }
+
+    /**
+     * Parses a format name as written in the configuration or typed in a command.
+     *
+     * @param name the name of the format, case-insensitive
+     * @return the matching format, or {@code null} if the name is unknown
+     */
+    public static StorageFormat fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
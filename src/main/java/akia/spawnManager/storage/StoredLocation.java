@@ -0,0 +1,37 @@
+package akia.spawnManager.storage;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.UUID;
+
+/**
+ * Detached, immutable copy of a named location as it is written to and read from storage.
+ * It only holds primitive coordinates and the identity of the world, so it can be handed
+ * to a background thread and does not keep any {@link World} alive.
+ *
+ * @param name      the name of the location
+ * @param worldName the name of the world the location belongs to
+ * @param worldId   the unique id of the world, or {@code null} when it is not known
+ * @param x         the x coordinate
+ * @param y         the y coordinate
+ * @param z         the z coordinate
+ * @param yaw       the yaw rotation
+ * @param pitch     the pitch rotation
+ */
+public record StoredLocation(String name, String worldName, UUID worldId,
+                             double x, double y, double z, float yaw, float pitch) {
+
+    /**
+     * Creates a {@code StoredLocation} from a live Bukkit {@link Location}.
+     *
+     * @param name     the name of the location
+     * @param location the position to copy. Its world must not be null.
+     * @return the detached copy of the location
+     */
+    public static StoredLocation of(String name, Location location) {
+        World world = location.getWorld();
+        return new StoredLocation(name, world.getName(), world.getUID(),
+                location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+    }
+}
@@ -0,0 +1,104 @@
+package akia.spawnManager.storage;
+
+import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads and writes the "locations.yml" format. Each location is stored under
+ * {@code locations.<name>} with its world and coordinates as plain values, which keeps
+ * the file readable even when the world is not loaded. Files written by older versions,
+ * where Bukkit serialized the whole {@link Location}, are still accepted.
+ */
+public final class YamlLocationCodec {
+
+    /**
+     * The root section holding every location.
+     */
+    private static final String ROOT = "locations";
+
+    private YamlLocationCodec() {
+    }
+
+    /**
+     * Serializes the given locations into a YAML document.
+     *
+     * @param locations the locations to serialize
+     * @return the YAML document encoded in UTF-8
+     */
+    public static byte[] encode(List<StoredLocation> locations) {
+        YamlConfiguration config = new YamlConfiguration();
+        for (StoredLocation location : locations) {
+            ConfigurationSection section = config.createSection(ROOT + "." + location.name());
+            section.set("world", location.worldName());
+            if (location.worldId() != null) {
+                section.set("world-uid", location.worldId().toString());
+            }
+            section.set("x", location.x());
+            section.set("y", location.y());
+            section.set("z", location.z());
+            section.set("yaw", (double) location.yaw());
+            section.set("pitch", (double) location.pitch());
+        }
+        return config.saveToString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads every location stored in the given YAML file.
+     *
+     * @param file the file to read
+     * @return the locations found in the file; entries that cannot be understood are skipped, and
+     *         a malformed {@code world-uid} is dropped with a warning, the world being found by name
+     */
+    public static List<StoredLocation> decode(File file) {
+        List<StoredLocation> locations = new ArrayList<>();
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection root = config.getConfigurationSection(ROOT);
+        if (root == null) {
+            return locations;
+        }
+        for (String key : root.getKeys(false)) {
+            if (root.get(key) instanceof Location location) {
+                // Ancien format : Location sérialisée par Bukkit
+                if (location.getWorld() != null) {
+                    locations.add(StoredLocation.of(key, location));
+                }
+                continue;
+            }
+            ConfigurationSection section = root.getConfigurationSection(key);
+            if (section == null || section.getString("world") == null) {
+                continue;
+            }
+            locations.add(new StoredLocation(key, section.getString("world"),
+                    worldId(key, section.getString("world-uid")),
+                    section.getDouble("x"), section.getDouble("y"), section.getDouble("z"),
+                    (float) section.getDouble("yaw"), (float) section.getDouble("pitch")));
+        }
+        return locations;
+    }
+
+    /**
+     * Parses the {@code world-uid} of an entry, edited by hand or corrupted.
+     */
+    private static UUID worldId(String key, String worldUid) {
+        if (worldUid == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(worldUid);
+        } catch (IllegalArgumentException e) {
+            // Une seule entrée abîmée ne doit pas empêcher de charger les autres
+            Logger.getLogger(YamlLocationCodec.class.getName()).log(Level.WARNING,
+                    "world-uid invalide pour " + ROOT + "." + key + " (" + worldUid + "), le monde est retrouvé par son nom.");
+            return null;
+        }
+    }
+}
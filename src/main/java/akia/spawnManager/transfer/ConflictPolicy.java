@@ -0,0 +1,21 @@
+package akia.spawnManager.transfer;
+
+/**
+ * What an import does with a warp whose name, ignoring case, is already registered or was
+ * already imported earlier in the same dump.
+ */
+public enum ConflictPolicy {
+    /**
+     * The registered location is kept and the imported warp is dropped.
+     */
+    SKIP,
+    /**
+     * The registered location is moved to the imported position, keeping its name.
+     */
+    OVERWRITE,
+    /**
+     * The imported warp is registered under the first free name among {@code <nom>_2},
+     * {@code <nom>_3}, and so on.
+     */
+    RENAME
+}
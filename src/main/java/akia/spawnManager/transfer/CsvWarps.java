@@ -0,0 +1,201 @@
+package akia.spawnManager.transfer;
+
+import akia.spawnManager.storage.StoredLocation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads and writes warps as CSV, one warp per line after a header line naming the columns.
+ * Fields containing a comma or a double quote are quoted, doubling the inner quotes; a field
+ * cannot span several lines.
+ */
+final class CsvWarps {
+
+    /**
+     * The columns written by exports, in order.
+     */
+    private static final String HEADER = "name,world,x,y,z,yaw,pitch,world_id";
+
+    private CsvWarps() {
+    }
+
+    /**
+     * Splits a line into its fields.
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    /**
+     * Quotes a field if it contains a separator or a quote.
+     */
+    static String quote(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Streams the warps of a CSV file, line by line.
+     */
+    static final class Reader implements WarpReader {
+
+        private final BufferedReader reader;
+        /**
+         * The position of every known column in a line.
+         */
+        private final Map<String, Integer> columns = new HashMap<>();
+        private int lineNumber;
+
+        Reader(File source) throws IOException {
+            this.reader = Files.newBufferedReader(source.toPath(), StandardCharsets.UTF_8);
+            String header = nextLine();
+            if (header == null) {
+                return;
+            }
+            List<String> names = split(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("name", "world", "x", "y", "z")) {
+                if (!columns.containsKey(required)) {
+                    reader.close();
+                    throw new IOException("Colonne " + required + " absente de l'en-tête de " + source.getName() + ".");
+                }
+            }
+        }
+
+        @Override
+        public StoredLocation next() throws IOException, InvalidWarpException {
+            String line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            List<String> fields = split(line);
+            try {
+                String worldId = field(fields, "world_id");
+                return new StoredLocation(required(fields, "name"), required(fields, "world"),
+                        worldId == null || worldId.isEmpty() ? null : UUID.fromString(worldId),
+                        Double.parseDouble(required(fields, "x")), Double.parseDouble(required(fields, "y")),
+                        Double.parseDouble(required(fields, "z")), angle(fields, "yaw"), angle(fields, "pitch"));
+            } catch (IllegalArgumentException e) {
+                // Nombre ou UUID mal formé
+                throw new InvalidWarpException("ligne " + lineNumber + " : " + e.getMessage());
+            }
+        }
+
+        /**
+         * Reads the next line that is not blank.
+         */
+        private String nextLine() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            return line;
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            return index == null || index >= fields.size() ? null : fields.get(index);
+        }
+
+        private String required(List<String> fields, String column) throws InvalidWarpException {
+            String value = field(fields, column);
+            if (value == null || value.isEmpty()) {
+                throw new InvalidWarpException("ligne " + lineNumber + " : colonne " + column + " vide");
+            }
+            return value;
+        }
+
+        private float angle(List<String> fields, String column) {
+            String value = field(fields, column);
+            return value == null || value.isEmpty() ? 0 : Float.parseFloat(value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Writes the warps to a CSV file, line by line.
+     */
+    static final class Writer implements WarpWriter {
+
+        private final BufferedWriter writer;
+
+        Writer(File target) throws IOException {
+            this.writer = Files.newBufferedWriter(target.toPath(), StandardCharsets.UTF_8);
+            writer.write(HEADER);
+            writer.newLine();
+        }
+
+        @Override
+        public void write(StoredLocation location) throws IOException {
+            writer.write(quote(location.name()));
+            writer.write(',');
+            writer.write(quote(location.worldName()));
+            writer.write(',');
+            writer.write(Double.toString(location.x()));
+            writer.write(',');
+            writer.write(Double.toString(location.y()));
+            writer.write(',');
+            writer.write(Double.toString(location.z()));
+            writer.write(',');
+            writer.write(Float.toString(location.yaw()));
+            writer.write(',');
+            writer.write(Float.toString(location.pitch()));
+            writer.write(',');
+            if (location.worldId() != null) {
+                writer.write(location.worldId().toString());
+            }
+            writer.newLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package akia.spawnManager.transfer;
+
+import akia.spawnManager.storage.AsyncFileWriter;
+import akia.spawnManager.storage.StoredLocation;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reads and writes the {@code warps} folder of EssentialsX, which holds one YAML file per warp
+ * with the keys {@code name}, {@code world}, {@code x}, {@code y}, {@code z}, {@code yaw} and
+ * {@code pitch}. Recent versions store the unique id of the world under {@code world} and its
+ * name under {@code world-name}; older ones store the name under {@code world}.
+ */
+final class EssentialsWarps {
+
+    private EssentialsWarps() {
+    }
+
+    /**
+     * Streams the warp files of the folder, one file at a time.
+     */
+    static final class Reader implements WarpReader {
+
+        private final DirectoryStream<Path> files;
+        private final Iterator<Path> iterator;
+
+        Reader(File source) throws IOException {
+            if (!source.isDirectory()) {
+                throw new IOException(source.getName() + " n'est pas un dossier de warps Essentials.");
+            }
+            // Le dossier est parcouru au fil de la lecture, sans en lister tout le contenu
+            this.files = Files.newDirectoryStream(source.toPath(), "*.yml");
+            this.iterator = files.iterator();
+        }
+
+        @Override
+        public StoredLocation next() throws IOException, InvalidWarpException {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            Path path = iterator.next();
+            String fileName = path.getFileName().toString();
+            YamlConfiguration config = new YamlConfiguration();
+            try {
+                config.load(path.toFile());
+            } catch (InvalidConfigurationException e) {
+                throw new InvalidWarpException(fileName + " : YAML invalide");
+            }
+
+            String world = config.getString("world-name");
+            UUID worldId = null;
+            String worldValue = config.getString("world");
+            if (worldValue != null) {
+                try {
+                    worldId = UUID.fromString(worldValue);
+                } catch (IllegalArgumentException e) {
+                    // Ancien format : le nom du monde est stocké sous "world"
+                    if (world == null) {
+                        world = worldValue;
+                    }
+                }
+            }
+            if (world == null) {
+                throw new InvalidWarpException(fileName + " : monde absent");
+            }
+            if (!config.contains("x") || !config.contains("y") || !config.contains("z")) {
+                throw new InvalidWarpException(fileName + " : coordonnées absentes");
+            }
+            String name = config.getString("name", fileName.substring(0, fileName.length() - 4));
+            return new StoredLocation(name, world, worldId, config.getDouble("x"), config.getDouble("y"),
+                    config.getDouble("z"), (float) config.getDouble("yaw"), (float) config.getDouble("pitch"));
+        }
+
+        @Override
+        public void close() throws IOException {
+            files.close();
+        }
+    }
+
+    /**
+     * Writes one warp file per warp into the folder.
+     */
+    static final class Writer implements WarpWriter {
+
+        private final File folder;
+        /**
+         * The files written by this export, so that two warps never share one.
+         */
+        private final Set<String> written = new HashSet<>();
+
+        Writer(File target) throws IOException {
+            if (!target.isDirectory() && !target.mkdirs()) {
+                throw new IOException("Impossible de créer le dossier " + target.getName() + ".");
+            }
+            this.folder = target;
+        }
+
+        @Override
+        public void write(StoredLocation location) throws IOException {
+            YamlConfiguration config = new YamlConfiguration();
+            if (location.worldId() != null) {
+                config.set("world", location.worldId().toString());
+            } else {
+                config.set("world", location.worldName());
+            }
+            config.set("world-name", location.worldName());
+            config.set("x", location.x());
+            config.set("y", location.y());
+            config.set("z", location.z());
+            config.set("yaw", location.yaw());
+            config.set("pitch", location.pitch());
+            config.set("name", location.name());
+            AsyncFileWriter.writeAtomically(new File(folder, uniqueFileName(location.name())).toPath(),
+                    config.saveToString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Derives the file of a warp from its name, as Essentials does: lower case, and only
+         * the characters safe in a file name. Names such as {@code arena/red} and {@code arena_red}
+         * map to the same file; the later one is suffixed with {@code _2}, {@code _3}... instead
+         * of overwriting the earlier one. The {@code name} key keeps the original name.
+         */
+        private String uniqueFileName(String name) {
+            String base = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_-]", "_");
+            String candidate = base;
+            for (int suffix = 2; !written.add(candidate); suffix++) {
+                candidate = base + "_" + suffix;
+            }
+            return candidate + ".yml";
+        }
+
+        @Override
+        public void close() {
+            // Chaque warp est écrit dans son propre fichier, rien ne reste ouvert
+        }
+    }
+}
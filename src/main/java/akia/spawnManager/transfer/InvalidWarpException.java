@@ -0,0 +1,17 @@
+package akia.spawnManager.transfer;
+
+/**
+ * Thrown when an entry of a dump cannot be turned into a warp. Only this entry is skipped;
+ * the rest of the dump is still read.
+ */
+public class InvalidWarpException extends Exception {
+
+    /**
+     * Constructs the exception.
+     *
+     * @param message where the entry is in the dump and what is wrong with it
+     */
+    public InvalidWarpException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,187 @@
+package akia.spawnManager.transfer;
+
+import akia.spawnManager.storage.StoredLocation;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.UUID;
+
+/**
+ * Reads and writes warps as a JSON array of objects with the fields {@code name},
+ * {@code world}, {@code x}, {@code y}, {@code z}, and optionally {@code yaw}, {@code pitch}
+ * and {@code world_id}. The array is streamed token by token, one object at a time.
+ */
+final class JsonWarps {
+
+    private JsonWarps() {
+    }
+
+    /**
+     * Streams the warps of a JSON array.
+     */
+    static final class Reader implements WarpReader {
+
+        private final JsonReader reader;
+        /**
+         * The position of the next object in the array, starting at 1.
+         */
+        private int index;
+
+        Reader(File source) throws IOException {
+            this.reader = new JsonReader(Files.newBufferedReader(source.toPath(), StandardCharsets.UTF_8));
+            try {
+                reader.beginArray();
+            } catch (IOException | IllegalStateException e) {
+                reader.close();
+                throw new IOException(source.getName() + " ne contient pas un tableau JSON.", e);
+            }
+        }
+
+        @Override
+        public StoredLocation next() throws IOException, InvalidWarpException {
+            try {
+                if (!reader.hasNext()) {
+                    return null;
+                }
+                index++;
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    throw new InvalidWarpException("élément " + index + " : objet attendu");
+                }
+                return readObject();
+            } catch (IllegalStateException e) {
+                // Le document lui-même est mal formé : la suite ne peut pas être lue
+                throw new IOException("JSON mal formé à " + reader.getPath() + ".", e);
+            }
+        }
+
+        /**
+         * Reads an object up to its end, even if one of its fields is invalid, so that the
+         * next call starts on the following object.
+         */
+        private StoredLocation readObject() throws IOException, InvalidWarpException {
+            String name = null;
+            String world = null;
+            String worldId = null;
+            double x = Double.NaN;
+            double y = Double.NaN;
+            double z = Double.NaN;
+            double yaw = 0;
+            double pitch = 0;
+            String error = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                try {
+                    switch (field) {
+                        case "name" -> name = string();
+                        case "world" -> world = string();
+                        case "world_id" -> worldId = string();
+                        case "x" -> x = number();
+                        case "y" -> y = number();
+                        case "z" -> z = number();
+                        case "yaw" -> yaw = number();
+                        case "pitch" -> pitch = number();
+                        default -> reader.skipValue();
+                    }
+                } catch (InvalidWarpException e) {
+                    if (error == null) {
+                        error = field + " " + e.getMessage();
+                    }
+                }
+            }
+            reader.endObject();
+
+            if (error == null && (name == null || world == null)) {
+                error = "name et world sont obligatoires";
+            } else if (error == null && (Double.isNaN(x) || Double.isNaN(y) || Double.isNaN(z))) {
+                error = "x, y et z sont obligatoires";
+            }
+            UUID id = null;
+            if (error == null && worldId != null) {
+                try {
+                    id = UUID.fromString(worldId);
+                } catch (IllegalArgumentException e) {
+                    error = "world_id n'est pas un UUID";
+                }
+            }
+            if (error != null) {
+                throw new InvalidWarpException("élément " + index + " : " + error);
+            }
+            return new StoredLocation(name, world, id, x, y, z, (float) yaw, (float) pitch);
+        }
+
+        private String string() throws IOException, InvalidWarpException {
+            JsonToken token = reader.peek();
+            if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+                reader.skipValue();
+                throw new InvalidWarpException("doit être une chaîne");
+            }
+            return reader.nextString();
+        }
+
+        private double number() throws IOException, InvalidWarpException {
+            JsonToken token = reader.peek();
+            if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+                reader.skipValue();
+                throw new InvalidWarpException("doit être un nombre");
+            }
+            // Lu comme chaîne pour qu'un nombre mal formé ne désynchronise pas le lecteur
+            String value = reader.nextString();
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new InvalidWarpException("n'est pas un nombre : " + value);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Writes the warps as a JSON array, one object at a time.
+     */
+    static final class Writer implements WarpWriter {
+
+        private final JsonWriter writer;
+
+        Writer(File target) throws IOException {
+            this.writer = new JsonWriter(Files.newBufferedWriter(target.toPath(), StandardCharsets.UTF_8));
+            writer.setIndent("  ");
+            writer.beginArray();
+        }
+
+        @Override
+        public void write(StoredLocation location) throws IOException {
+            writer.beginObject();
+            writer.name("name").value(location.name());
+            writer.name("world").value(location.worldName());
+            if (location.worldId() != null) {
+                writer.name("world_id").value(location.worldId().toString());
+            }
+            writer.name("x").value(location.x());
+            writer.name("y").value(location.y());
+            writer.name("z").value(location.z());
+            writer.name("yaw").value(location.yaw());
+            writer.name("pitch").value(location.pitch());
+            writer.endObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writer.endArray();
+            } finally {
+                writer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package akia.spawnManager.transfer;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The formats warps can be imported from and exported to.
+ */
+public enum TransferFormat {
+
+    /**
+     * A CSV file with a header line naming the columns {@code name}, {@code world}, {@code x},
+     * {@code y}, {@code z}, and optionally {@code yaw}, {@code pitch} and {@code world_id}.
+     */
+    CSV {
+        @Override
+        public WarpReader openReader(File source) throws IOException {
+            return new CsvWarps.Reader(source);
+        }
+
+        @Override
+        public WarpWriter openWriter(File target) throws IOException {
+            return new CsvWarps.Writer(target);
+        }
+    },
+    /**
+     * A JSON array of objects with the same fields as the CSV columns.
+     */
+    JSON {
+        @Override
+        public WarpReader openReader(File source) throws IOException {
+            return new JsonWarps.Reader(source);
+        }
+
+        @Override
+        public WarpWriter openWriter(File target) throws IOException {
+            return new JsonWarps.Writer(target);
+        }
+    },
+    /**
+     * The {@code warps} folder of EssentialsX, holding one YAML file per warp.
+     */
+    ESSENTIALS {
+        @Override
+        public WarpReader openReader(File source) throws IOException {
+            return new EssentialsWarps.Reader(source);
+        }
+
+        @Override
+        public WarpWriter openWriter(File target) throws IOException {
+            return new EssentialsWarps.Writer(target);
+        }
+
+        @Override
+        public boolean isFolder() {
+            return true;
+        }
+    };
+
+    /**
+     * @return {@code true} if a dump of this format is a folder rather than a single file
+     */
+    public boolean isFolder() {
+        return false;
+    }
+
+    /**
+     * Opens a dump of this format for reading.
+     *
+     * @param source the file, or the folder for {@link #ESSENTIALS}
+     * @return a reader positioned on the first warp
+     * @throws IOException if the source cannot be opened
+     */
+    public abstract WarpReader openReader(File source) throws IOException;
+
+    /**
+     * Creates a dump of this format, replacing an existing file.
+     *
+     * @param target the file, or the folder for {@link #ESSENTIALS}
+     * @return a writer appending to the new dump
+     * @throws IOException if the target cannot be created
+     */
+    public abstract WarpWriter openWriter(File target) throws IOException;
+}
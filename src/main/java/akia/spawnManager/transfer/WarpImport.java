@@ -0,0 +1,361 @@
+package akia.spawnManager.transfer;
+
+import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.manager.LocationManager;
+import akia.spawnManager.manager.LocationSnapshot;
+import akia.spawnManager.storage.StoredLocation;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports the warps of a dump into the registry.
+ *
+ * <p>The dump is read and validated on a background thread, which hands the warps over
+ * through a bounded queue: when the main thread falls behind, the reader waits, so only a few
+ * batches are ever held in memory, whatever the size of the dump. Every tick, the main thread
+ * takes at most {@code perTick} warps from the queue, resolves their name conflicts and
+ * registers them in a single batch.</p>
+ */
+class WarpImport {
+
+    /**
+     * The number of invalid entries reported individually in the server log.
+     */
+    private static final int LOGGED_INVALID_ENTRIES = 10;
+    /**
+     * The largest absolute x or z coordinate of a Minecraft world.
+     */
+    private static final double MAX_HORIZONTAL = 30_000_000;
+
+    /**
+     * Receives the progress of an import, on the main thread.
+     */
+    interface Listener {
+
+        /**
+         * Called periodically while warps are being registered.
+         *
+         * @param importJob the running import
+         */
+        void progress(WarpImport importJob);
+
+        /**
+         * Called once, when the whole dump was imported or reading it failed.
+         *
+         * @param importJob the finished import
+         * @param failure   why the dump could not be read to the end, or {@code null}
+         */
+        void finished(WarpImport importJob, IOException failure);
+    }
+
+    private final Plugin plugin;
+    private final LocationManager locationManager;
+    private final TransferFormat format;
+    private final File source;
+    private final ConflictPolicy policy;
+    private final int perTick;
+    private final int progressTicks;
+    private final Listener listener;
+    /**
+     * The warps read and validated, waiting to be registered by the main thread.
+     */
+    private final BlockingQueue<StoredLocation> queue;
+
+    /**
+     * The number of invalid entries, counted by the reader thread.
+     */
+    private final AtomicInteger invalid = new AtomicInteger();
+    /**
+     * Set by the reader thread once it stopped, whatever the reason.
+     */
+    private volatile boolean readerDone;
+    /**
+     * Why the reader stopped before the end of the dump, or {@code null}.
+     */
+    private volatile IOException failure;
+    /**
+     * Set to stop the reader thread.
+     */
+    private volatile boolean cancelled;
+
+    private int added;
+    private int overwritten;
+    private int renamed;
+    private int skipped;
+    private long startedAt;
+    private long ticks;
+    private BukkitTask task;
+
+    /**
+     * Prepares an import. Nothing is read before {@link #start()}.
+     *
+     * @param plugin          the plugin owning the tasks. Must not be null.
+     * @param locationManager the registry the warps are added to. Must not be null.
+     * @param format          the format of the dump
+     * @param source          the dump
+     * @param policy          what to do with a warp whose name is already taken
+     * @param perTick         the maximum number of warps registered per tick, at least 1
+     * @param progressTicks   the number of ticks between two progress reports
+     * @param listener        notified of the progress and of the end of the import
+     */
+    WarpImport(Plugin plugin, LocationManager locationManager, TransferFormat format, File source,
+               ConflictPolicy policy, int perTick, int progressTicks, Listener listener) {
+        this.plugin = plugin;
+        this.locationManager = locationManager;
+        this.format = format;
+        this.source = source;
+        this.policy = policy;
+        this.perTick = perTick;
+        this.progressTicks = progressTicks;
+        this.listener = listener;
+        // Quelques lots d'avance suffisent à ne jamais affamer le thread principal
+        this.queue = new ArrayBlockingQueue<>(perTick * 4);
+    }
+
+    /**
+     * Starts reading the dump in the background and registering its warps every tick.
+     */
+    void start() {
+        startedAt = System.nanoTime();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, this::read);
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Stops the import. The warps already registered are kept.
+     */
+    void cancel() {
+        cancelled = true;
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Reads the dump, on the background thread.
+     */
+    private void read() {
+        try (WarpReader reader = format.openReader(source)) {
+            while (!cancelled) {
+                StoredLocation entry;
+                try {
+                    entry = reader.next();
+                } catch (InvalidWarpException e) {
+                    reject(e.getMessage());
+                    continue;
+                }
+                if (entry == null) {
+                    break;
+                }
+                String problem = validate(entry);
+                if (problem != null) {
+                    reject(entry.name() + " : " + problem);
+                    continue;
+                }
+                // Attente bornée : la file pleine freine la lecture sans bloquer l'arrêt du plugin
+                while (!cancelled && !queue.offer(entry, 50, TimeUnit.MILLISECONDS)) {
+                    // File pleine : le thread principal n'a pas encore rattrapé la lecture
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            readerDone = true;
+        }
+    }
+
+    /**
+     * Registers the next batch of warps, on the main thread.
+     */
+    private void tick() {
+        // Lu avant de vider la file : si le lecteur a fini, la file ne recevra plus rien
+        boolean done = readerDone;
+        List<LocationBuilder> batch = new ArrayList<>(Math.min(perTick, queue.size()));
+        Map<String, Integer> batchIndex = new HashMap<>();
+        StoredLocation entry;
+        for (int i = 0; i < perTick && (entry = queue.poll()) != null; i++) {
+            resolve(entry, batch, batchIndex);
+        }
+        if (!batch.isEmpty()) {
+            locationManager.registerLocations(batch);
+        }
+
+        ticks++;
+        if (done && queue.isEmpty()) {
+            cancel();
+            listener.finished(this, failure);
+        } else if (ticks % progressTicks == 0) {
+            listener.progress(this);
+        }
+    }
+
+    /**
+     * Applies the conflict policy to a warp and adds the result to the batch.
+     *
+     * @param entry      the warp read from the dump
+     * @param batch      the locations registered at the end of this tick
+     * @param batchIndex the position in the batch of each of its names, in lower case
+     */
+    private void resolve(StoredLocation entry, List<LocationBuilder> batch, Map<String, Integer> batchIndex) {
+        String key = entry.name().toLowerCase(Locale.ROOT);
+        Integer inBatch = batchIndex.get(key);
+        LocationBuilder existing = inBatch != null ? batch.get(inBatch) : locationManager.getLocation(entry.name(), true);
+        if (existing == null) {
+            batchIndex.put(key, batch.size());
+            batch.add(toBuilder(entry, entry.name()));
+            added++;
+            return;
+        }
+        switch (policy) {
+            case SKIP -> skipped++;
+            case OVERWRITE -> {
+                // Le nom déjà enregistré est conservé, seule la position change
+                LocationBuilder replacement = toBuilder(entry, existing.getName());
+                if (inBatch != null) {
+                    // Doublon dans le lot : l'entrée remplacée est déjà comptée (ajoutée, remplacée ou renommée)
+                    batch.set(inBatch, replacement);
+                } else {
+                    batchIndex.put(key, batch.size());
+                    batch.add(replacement);
+                    overwritten++;
+                }
+            }
+            case RENAME -> {
+                String name = freeName(entry.name(), batchIndex);
+                batchIndex.put(name.toLowerCase(Locale.ROOT), batch.size());
+                batch.add(toBuilder(entry, name));
+                renamed++;
+            }
+        }
+    }
+
+    /**
+     * Finds the first name among {@code <name>_2}, {@code <name>_3}... used neither by the
+     * registry nor by the batch.
+     */
+    private String freeName(String name, Map<String, Integer> batchIndex) {
+        for (int suffix = 2; ; suffix++) {
+            String candidate = name + "_" + suffix;
+            if (!batchIndex.containsKey(candidate.toLowerCase(Locale.ROOT))
+                    && locationManager.getLocation(candidate, true) == null) {
+                return candidate;
+            }
+        }
+    }
+
+    private static LocationBuilder toBuilder(StoredLocation entry, String name) {
+        // Le monde est résolu au premier usage : un warp d'un monde non chargé est conservé
+        return new LocationBuilder(name, entry.worldName(), entry.worldId(),
+                entry.x(), entry.y(), entry.z(), entry.yaw(), entry.pitch());
+    }
+
+    /**
+     * Checks that a warp can be registered and used by the commands.
+     *
+     * @return what is wrong with the warp, or {@code null} if it is valid
+     */
+    private static String validate(StoredLocation entry) {
+        if (entry.name() == null || entry.name().isEmpty()) {
+            return "nom vide";
+        }
+        for (int i = 0; i < entry.name().length(); i++) {
+            if (Character.isWhitespace(entry.name().charAt(i))) {
+                return "le nom contient un espace";
+            }
+        }
+        if (!LocationSnapshot.isValidPath(entry.name())) {
+            return "segment de nom vide";
+        }
+        if (entry.worldName() == null || entry.worldName().isBlank()) {
+            return "monde vide";
+        }
+        if (!Double.isFinite(entry.x()) || !Double.isFinite(entry.y()) || !Double.isFinite(entry.z())
+                || !Float.isFinite(entry.yaw()) || !Float.isFinite(entry.pitch())) {
+            return "coordonnée non finie";
+        }
+        if (Math.abs(entry.x()) > MAX_HORIZONTAL || Math.abs(entry.z()) > MAX_HORIZONTAL) {
+            return "hors de la bordure du monde";
+        }
+        return null;
+    }
+
+    /**
+     * Counts an invalid entry, logging the first ones.
+     */
+    private void reject(String reason) {
+        if (invalid.incrementAndGet() <= LOGGED_INVALID_ENTRIES) {
+            plugin.getLogger().warning("Import de " + source.getName() + ", entrée ignorée : " + reason);
+        }
+    }
+
+    /**
+     * @return the dump being imported
+     */
+    File getSource() {
+        return source;
+    }
+
+    /**
+     * @return the number of warps registered under a name that was free
+     */
+    int getAdded() {
+        return added;
+    }
+
+    /**
+     * @return the number of registered locations moved to an imported position
+     */
+    int getOverwritten() {
+        return overwritten;
+    }
+
+    /**
+     * @return the number of warps registered under a new name because theirs was taken
+     */
+    int getRenamed() {
+        return renamed;
+    }
+
+    /**
+     * @return the number of warps dropped because their name was taken
+     */
+    int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return the number of entries of the dump that could not be read or were invalid
+     */
+    int getInvalid() {
+        return invalid.get();
+    }
+
+    /**
+     * @return the number of warps applied to the registry so far
+     */
+    int getApplied() {
+        return added + overwritten + renamed;
+    }
+
+    /**
+     * @return the time elapsed since the import started, in seconds
+     */
+    long getElapsedSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt);
+    }
+}
@@ -0,0 +1,23 @@
+package akia.spawnManager.transfer;
+
+import akia.spawnManager.storage.StoredLocation;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads the warps of a dump one at a time, so that a source of any size is never held in
+ * memory as a whole.
+ */
+public interface WarpReader extends Closeable {
+
+    /**
+     * Reads the next warp of the source.
+     *
+     * @return the next warp, or {@code null} once the source is exhausted
+     * @throws InvalidWarpException if the next entry cannot be read; the reader moves past it,
+     *                              so the next call returns the following entry
+     * @throws IOException          if the source cannot be read any further
+     */
+    StoredLocation next() throws IOException, InvalidWarpException;
+}
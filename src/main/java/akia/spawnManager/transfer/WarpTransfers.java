@@ -0,0 +1,205 @@
+package akia.spawnManager.transfer;
+
+import akia.spawnManager.builder.LocationBuilder;
+import akia.spawnManager.manager.LocationManager;
+import akia.spawnManager.manager.LocationSnapshot;
+import akia.spawnManager.message.Message;
+import akia.spawnManager.message.Messages;
+import akia.spawnManager.storage.AsyncFileWriter;
+import akia.spawnManager.storage.StoredLocation;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.logging.Level;
+
+/**
+ * Runs the imports and exports of {@code /location admin import} and {@code export}, and
+ * reports their progress to the sender of the command.
+ *
+ * <p>A single import runs at a time, since two imports into the same registry would resolve
+ * their name conflicts against each other. Exports write an immutable snapshot of the
+ * registry from a background thread, to a temporary file renamed over the target once complete,
+ * so that a failed export never leaves a truncated dump. Paths are resolved from the data folder
+ * of the plugin and may not leave it. This class must only be used from the main thread.</p>
+ */
+public class WarpTransfers {
+
+    /**
+     * The number of ticks between two progress reports of an import.
+     */
+    private static final int PROGRESS_TICKS = 100;
+
+    private final Plugin plugin;
+    private final LocationManager locationManager;
+    private final Messages messages;
+    /**
+     * The running import, or {@code null}.
+     */
+    private WarpImport running;
+
+    /**
+     * Constructs the service.
+     *
+     * @param plugin          the plugin owning the tasks and the data folder. Must not be null.
+     * @param locationManager the registry imported into and exported from. Must not be null.
+     * @param messages        the catalog of the messages sent to the sender. Must not be null.
+     */
+    public WarpTransfers(Plugin plugin, LocationManager locationManager, Messages messages) {
+        this.plugin = plugin;
+        this.locationManager = locationManager;
+        this.messages = messages;
+    }
+
+    /**
+     * Starts importing a dump, unless an import is already running.
+     *
+     * @param sender  the sender notified of the progress and of the summary
+     * @param format  the format of the dump
+     * @param source  the dump, as returned by {@link #resolve(String)}
+     * @param policy  what to do with a warp whose name is already taken
+     * @param perTick the maximum number of warps registered per tick
+     * @return {@code false} if another import is running
+     */
+    public boolean startImport(CommandSender sender, TransferFormat format, File source, ConflictPolicy policy, int perTick) {
+        if (running != null) {
+            return false;
+        }
+        running = new WarpImport(plugin, locationManager, format, source, policy, perTick, PROGRESS_TICKS,
+                new WarpImport.Listener() {
+                    @Override
+                    public void progress(WarpImport importJob) {
+                        messages.send(sender, Message.IMPORT_PROGRESS, importJob.getApplied(), importJob.getInvalid());
+                    }
+
+                    @Override
+                    public void finished(WarpImport importJob, IOException failure) {
+                        running = null;
+                        if (failure != null) {
+                            plugin.getLogger().log(Level.WARNING, "Import de " + source.getName() + " interrompu.", failure);
+                            messages.send(sender, Message.IMPORT_FAILED, failure.getMessage());
+                        }
+                        messages.send(sender, Message.IMPORT_DONE, importJob.getAdded(), importJob.getOverwritten(),
+                                importJob.getRenamed(), importJob.getSkipped(), importJob.getInvalid(),
+                                importJob.getElapsedSeconds());
+                    }
+                });
+        running.start();
+        return true;
+    }
+
+    /**
+     * Exports the registry in the background and tells the sender once the dump is written.
+     *
+     * @param sender the sender notified of the result
+     * @param format the format of the dump
+     * @param target the dump, as returned by {@link #resolve(String)}
+     */
+    public void startExport(CommandSender sender, TransferFormat format, File target) {
+        // L'instantané est immuable : il peut être écrit pendant que le registre change
+        LocationSnapshot snapshot = locationManager.getSnapshot();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            int count = 0;
+            IOException failure = null;
+            try {
+                count = export(format, target, snapshot);
+            } catch (IOException e) {
+                failure = e;
+            }
+            int exported = count;
+            IOException error = failure;
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (error == null) {
+                    messages.send(sender, Message.EXPORT_DONE, exported, target.getName());
+                } else {
+                    plugin.getLogger().log(Level.WARNING, "Export vers " + target.getName() + " impossible.", error);
+                    messages.send(sender, Message.EXPORT_FAILED, error.getMessage());
+                }
+            });
+        });
+    }
+
+    /**
+     * @return {@code true} if an import is running
+     */
+    public boolean isImporting() {
+        return running != null;
+    }
+
+    /**
+     * Stops the running import, if any. The warps already registered are kept.
+     */
+    public void stop() {
+        if (running != null) {
+            running.cancel();
+            running = null;
+        }
+    }
+
+    /**
+     * Resolves the path typed in a command against the data folder of the plugin.
+     *
+     * @param path the path typed by the sender
+     * @return the file, or {@code null} if the path is absolute, leaves the data folder, or is the data folder itself
+     */
+    public File resolve(String path) {
+        Path folder = plugin.getDataFolder().toPath().toAbsolutePath().normalize();
+        Path typed;
+        try {
+            typed = Path.of(path);
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        if (typed.isAbsolute() || typed.getRoot() != null) {
+            return null;
+        }
+        // Les segments .. sont résolus avant la comparaison : ../../server.properties sort du dossier
+        Path resolved = folder.resolve(typed).normalize();
+        if (!resolved.startsWith(folder) || resolved.equals(folder)) {
+            return null;
+        }
+        return resolved.toFile();
+    }
+
+    /**
+     * Writes the warps of a snapshot, on a background thread.
+     *
+     * @return the number of warps written
+     */
+    private static int export(TransferFormat format, File target, LocationSnapshot snapshot) throws IOException {
+        if (format.isFolder()) {
+            // Chaque fichier du dossier est remplacé atomiquement par le writer
+            return write(format, target, snapshot);
+        }
+        Path destination = target.toPath();
+        Path directory = destination.getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, destination.getFileName().toString(), ".tmp");
+        try {
+            int count = write(format, temp.toFile(), snapshot);
+            AsyncFileWriter.moveAtomically(temp, destination);
+            return count;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int write(TransferFormat format, File target, LocationSnapshot snapshot) throws IOException {
+        int count = 0;
+        try (WarpWriter writer = format.openWriter(target)) {
+            for (String name : snapshot.sortedNames()) {
+                LocationBuilder lb = snapshot.get(name);
+                if (lb.getWorldName() != null) {
+                    writer.write(new StoredLocation(lb.getName(), lb.getWorldName(), lb.getWorldId(),
+                            lb.getX(), lb.getY(), lb.getZ(), lb.getYaw(), lb.getPitch()));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
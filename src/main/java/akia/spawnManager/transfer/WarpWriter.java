@@ -0,0 +1,20 @@
+package akia.spawnManager.transfer;
+
+import akia.spawnManager.storage.StoredLocation;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes warps to a dump one at a time. The dump is complete once the writer is closed.
+ */
+public interface WarpWriter extends Closeable {
+
+    /**
+     * Appends a warp to the dump.
+     *
+     * @param location the warp to write
+     * @throws IOException if the dump cannot be written
+     */
+    void write(StoredLocation location) throws IOException;
+}
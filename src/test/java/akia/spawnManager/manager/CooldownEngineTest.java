@@ -0,0 +1,171 @@
+package akia.spawnManager.manager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CooldownEngineTest {
+
+    private static final long TICK_MILLIS = 50;
+    private static final UUID PLAYER = new UUID(0x1234L, 0x5678L);
+    private static final UUID OTHER = new UUID(-1L, 42L);
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void entriesAreDroppedOnTheTickTheyExpire() {
+        // Les bornes de chaque niveau de la roue : 64, 4096 et 262144 ticks
+        long[] durations = {1, 2, 63, 64, 65, 127, 128, 4095, 4096, 4097, 262_143, 262_144, 262_145};
+        long[] offsets = {0, 1, 37, 63, 64, 4000, 4096};
+        for (long offset : offsets) {
+            for (long duration : durations) {
+                assertDroppedAfter(offset, duration);
+            }
+        }
+    }
+
+    @Test
+    void entriesBeyondTheRangeOfTheWheelAreCascadedAgain() {
+        // Plus long que les quatre niveaux réunis (64^4 ticks)
+        assertDroppedAfter(5, (1L << 24) + 100);
+    }
+
+    @Test
+    void restartingReplacesThePreviousExpiry() {
+        CooldownEngine engine = new CooldownEngine();
+        engine.start(PLAYER, "spawn", 10 * TICK_MILLIS);
+        engine.start(PLAYER, "spawn", 100 * TICK_MILLIS);
+
+        advance(engine, 99);
+        assertEquals(1, engine.tracked("spawn"));
+        engine.tick();
+        assertEquals(0, engine.tracked("spawn"));
+    }
+
+    @Test
+    void cancelRemovesOnlyTheGivenType() {
+        CooldownEngine engine = new CooldownEngine();
+        engine.start(PLAYER, "spawn", 60_000);
+        engine.start(PLAYER, "location:arena", 60_000);
+        engine.cancel(PLAYER, "spawn");
+
+        assertFalse(engine.isActive(PLAYER, "spawn"));
+        assertTrue(engine.isActive(PLAYER, "location:arena"));
+        assertEquals(0, engine.tracked("spawn"));
+        // L'entrée annulée ne doit plus être dans la roue
+        advance(engine, 1200);
+        assertEquals(0, engine.tracked("location:arena"));
+    }
+
+    @Test
+    void saveThenLoadRestoresUnexpiredCooldowns() throws IOException {
+        CooldownEngine engine = new CooldownEngine();
+        engine.start(PLAYER, "spawn", 60_000);
+        engine.start(OTHER, "spawn", 120_000);
+        engine.start(OTHER, "location:arena", 300_000);
+        Path file = folder.resolve("cooldowns.dat");
+        engine.save(file);
+
+        CooldownEngine restored = new CooldownEngine();
+        restored.load(file);
+
+        assertRemainingAbout(60_000, restored.getRemaining(PLAYER, "spawn"));
+        assertRemainingAbout(120_000, restored.getRemaining(OTHER, "spawn"));
+        assertRemainingAbout(300_000, restored.getRemaining(OTHER, "location:arena"));
+        assertFalse(restored.isActive(PLAYER, "location:arena"));
+        assertEquals(2, restored.tracked("spawn"));
+    }
+
+    @Test
+    void loadSkipsCooldownsExpiredWhileStopped() throws IOException {
+        long now = System.currentTimeMillis();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0x534D4344);
+            out.writeShort(1);
+            out.writeInt(1);
+            out.writeUTF("spawn");
+            out.writeInt(2);
+            out.writeLong(PLAYER.getMostSignificantBits());
+            out.writeLong(PLAYER.getLeastSignificantBits());
+            out.writeLong(now - 1000);
+            out.writeLong(OTHER.getMostSignificantBits());
+            out.writeLong(OTHER.getLeastSignificantBits());
+            out.writeLong(now + 60_000);
+        }
+        Path file = folder.resolve("cooldowns.dat");
+        Files.write(file, bytes.toByteArray());
+
+        CooldownEngine engine = new CooldownEngine();
+        engine.load(file);
+
+        assertFalse(engine.isActive(PLAYER, "spawn"));
+        assertTrue(engine.isActive(OTHER, "spawn"));
+        assertEquals(1, engine.tracked("spawn"));
+    }
+
+    @Test
+    void saveSkipsExpiredCooldowns() throws IOException, InterruptedException {
+        CooldownEngine engine = new CooldownEngine();
+        engine.start(PLAYER, "spawn", 1);
+        engine.start(OTHER, "spawn", 60_000);
+        // L'entrée expirée reste en mémoire tant que la roue n'y est pas passée
+        Thread.sleep(5);
+        Path file = folder.resolve("cooldowns.dat");
+        engine.save(file);
+
+        CooldownEngine restored = new CooldownEngine();
+        restored.load(file);
+        assertEquals(1, restored.tracked("spawn"));
+        assertTrue(restored.isActive(OTHER, "spawn"));
+    }
+
+    @Test
+    void loadRejectsForeignFiles() throws IOException {
+        Path file = folder.resolve("cooldowns.dat");
+        Files.write(file, new byte[]{'S', 'M', 'B', 'H', 0, 1, 0, 0, 0, 0});
+
+        assertThrows(IOException.class, () -> new CooldownEngine().load(file));
+    }
+
+    @Test
+    void loadIgnoresMissingFiles() throws IOException {
+        CooldownEngine engine = new CooldownEngine();
+        engine.load(folder.resolve("absent.dat"));
+
+        assertEquals(0, engine.tracked("spawn"));
+    }
+
+    private static void assertDroppedAfter(long offset, long duration) {
+        CooldownEngine engine = new CooldownEngine();
+        advance(engine, offset);
+        engine.start(PLAYER, "spawn", duration * TICK_MILLIS);
+
+        advance(engine, duration - 1);
+        assertEquals(1, engine.tracked("spawn"), "expirée trop tôt : " + duration + " ticks après le tick " + offset);
+        engine.tick();
+        assertEquals(0, engine.tracked("spawn"), "pas expirée : " + duration + " ticks après le tick " + offset);
+    }
+
+    private static void advance(CooldownEngine engine, long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            engine.tick();
+        }
+    }
+
+    private static void assertRemainingAbout(long expected, long remaining) {
+        assertTrue(remaining > expected - 5_000 && remaining <= expected, "restant : " + remaining + " ms");
+    }
+}
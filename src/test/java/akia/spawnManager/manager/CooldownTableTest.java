@@ -0,0 +1,123 @@
+package akia.spawnManager.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CooldownTableTest {
+
+    @Test
+    void putGetAndReplace() {
+        CooldownTable<String> table = new CooldownTable<>();
+        table.put(1L, 2L, 100L, "a");
+        table.put(3L, 4L, 200L, "b");
+        table.put(1L, 2L, 300L, "c");
+
+        assertEquals(2, table.size());
+        assertEquals(300L, table.getExpiry(1L, 2L));
+        assertEquals("c", table.getHandle(1L, 2L));
+        assertEquals(200L, table.getExpiry(3L, 4L));
+        assertEquals(0L, table.getExpiry(5L, 6L));
+        assertNull(table.getHandle(5L, 6L));
+    }
+
+    @Test
+    void removeReturnsTheHandleOnce() {
+        CooldownTable<String> table = new CooldownTable<>();
+        table.put(1L, 2L, 100L, "a");
+
+        assertEquals("a", table.remove(1L, 2L));
+        assertNull(table.remove(1L, 2L));
+        assertEquals(0, table.size());
+        assertEquals(0L, table.getExpiry(1L, 2L));
+    }
+
+    @Test
+    void entriesSurviveResizesAfterDeletions() {
+        CooldownTable<Long> table = new CooldownTable<>();
+        // Dépasse plusieurs fois la capacité initiale, avec des suppressions entre les agrandissements
+        for (long i = 1; i <= 40; i++) {
+            table.put(i, -i, i, i);
+        }
+        for (long i = 1; i <= 40; i += 2) {
+            table.remove(i, -i);
+        }
+        for (long i = 41; i <= 300; i++) {
+            table.put(i, -i, i, i);
+        }
+
+        assertEquals(20 + 260, table.size());
+        for (long i = 1; i <= 300; i++) {
+            if (i <= 40 && i % 2 == 1) {
+                assertEquals(0L, table.getExpiry(i, -i), "entrée " + i + " supprimée");
+            } else {
+                assertEquals(i, table.getExpiry(i, -i), "entrée " + i);
+                assertEquals(Long.valueOf(i), table.getHandle(i, -i));
+            }
+        }
+    }
+
+    @Test
+    void backwardShiftKeepsProbeChainsReachable() {
+        CooldownTable<Integer> table = new CooldownTable<>();
+        Map<List<Long>, Long> expected = new HashMap<>();
+        List<List<Long>> keys = new ArrayList<>();
+        Random random = new Random(42);
+        for (int round = 0; round < 20_000; round++) {
+            if (!keys.isEmpty() && random.nextInt(3) == 0) {
+                List<Long> key = keys.remove(random.nextInt(keys.size()));
+                table.remove(key.get(0), key.get(1));
+                expected.remove(key);
+            } else {
+                // Des clés proches les unes des autres, comme des UUID séquentiels
+                List<Long> key = List.of((long) random.nextInt(512), (long) random.nextInt(4));
+                long expiry = 1 + random.nextInt(1_000_000);
+                if (expected.put(key, expiry) == null) {
+                    keys.add(key);
+                }
+                table.put(key.get(0), key.get(1), expiry, round);
+            }
+            if (round % 1000 == 0) {
+                assertContent(expected, table);
+            }
+        }
+        assertContent(expected, table);
+    }
+
+    @Test
+    void slotAccessorsListEveryEntry() {
+        CooldownTable<String> table = new CooldownTable<>();
+        for (long i = 1; i <= 100; i++) {
+            table.put(i, i * 31, i * 10, "h" + i);
+        }
+        for (long i = 1; i <= 100; i += 3) {
+            table.remove(i, i * 31);
+        }
+
+        Map<Long, Long> seen = new HashMap<>();
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            if (table.isUsed(slot)) {
+                assertEquals(table.mostBitsAt(slot) * 31, table.leastBitsAt(slot));
+                seen.put(table.mostBitsAt(slot), table.expiryAt(slot));
+            }
+        }
+        assertEquals(table.size(), seen.size());
+        for (long i = 1; i <= 100; i++) {
+            assertEquals(i % 3 == 1 ? null : i * 10, seen.get(i));
+        }
+    }
+
+    private static void assertContent(Map<List<Long>, Long> expected, CooldownTable<Integer> table) {
+        assertEquals(expected.size(), table.size());
+        for (Map.Entry<List<Long>, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().longValue(), table.getExpiry(entry.getKey().get(0), entry.getKey().get(1)));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package akia.spawnManager.manager;
+
+import akia.spawnManager.builder.LocationBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocationSnapshotTest {
+
+    @Test
+    void groupExcludesSiblingPrefixes() {
+        // '-' et '.' trient avant '/', '0' et '2' juste après : tous sont à la frontière du groupe
+        LocationSnapshot snapshot = snapshot("arena", "arena-x", "arena.y", "arena/red", "arena/blue", "arena0",
+                "arena2", "arena2/red", "arenab/red", "aren/red");
+
+        assertEquals(List.of("arena/blue", "arena/red"), snapshot.group("arena"));
+        assertEquals(List.of("arena/blue", "arena/red"), snapshot.group("arena/"));
+        assertEquals(List.of("arena2/red"), snapshot.group("arena2"));
+        assertEquals(List.of("aren/red"), snapshot.group("aren"));
+        assertEquals(List.of(), snapshot.group("are"));
+        assertEquals(List.of(), snapshot.group("arena/red"));
+    }
+
+    @Test
+    void groupIncludesNestedGroups() {
+        LocationSnapshot snapshot = snapshot("world/arena/red", "world/arena/blue/1", "world/arena/blue/2",
+                "world/lobby", "world2/lobby", "worlds");
+
+        assertEquals(List.of("world/arena/blue/1", "world/arena/blue/2", "world/arena/red", "world/lobby"),
+                snapshot.group("world"));
+        assertEquals(List.of("world/arena/blue/1", "world/arena/blue/2", "world/arena/red"),
+                snapshot.group("world/arena"));
+        assertEquals(List.of("world/arena/blue/1", "world/arena/blue/2"), snapshot.group("world/arena/blue/"));
+    }
+
+    @Test
+    void groupIgnoresCaseAndKeepsOriginalNames() {
+        LocationSnapshot snapshot = snapshot("Arena/Red", "arena/blue", "ARENA/green", "Arena2/x");
+
+        List<String> expected = List.of("arena/blue", "ARENA/green", "Arena/Red");
+        assertEquals(expected, snapshot.group("arena"));
+        assertEquals(expected, snapshot.group("ARENA/"));
+        assertEquals(expected, snapshot.group("aReNa"));
+    }
+
+    @Test
+    void withoutGroupRemovesExactlyTheGroup() {
+        LocationSnapshot snapshot = snapshot("arena", "arena/red", "Arena/Blue", "arena/blue/1", "arena2",
+                "arena2/red", "arena-x", "lobby");
+
+        LocationSnapshot removed = snapshot.withoutGroup("ARENA");
+
+        assertEquals(List.of("arena", "arena-x", "arena2", "arena2/red", "lobby"), removed.sortedNames());
+        assertEquals(5, removed.size());
+        assertNull(removed.get("arena/red"));
+        assertNull(removed.get("Arena/Blue"));
+        assertNull(removed.get("arena/blue/1"));
+        assertEquals(snapshot.version() + 1, removed.version());
+        assertSame(snapshot, snapshot.withoutGroup("nothing"));
+    }
+
+    @Test
+    void completeSegmentSuggestsOneSegmentAtATime() {
+        LocationSnapshot snapshot = snapshot("arena", "arena/red", "arena/blue/1", "arena/blue/2", "arena2",
+                "lobby", "world/spawn");
+
+        assertEquals(List.of("arena", "arena/", "arena2", "lobby", "world/"), snapshot.completeSegment("", 10));
+        assertEquals(List.of("arena", "arena/", "arena2"), snapshot.completeSegment("ar", 10));
+        assertEquals(List.of("arena/blue/", "arena/red"), snapshot.completeSegment("arena/", 10));
+        assertEquals(List.of("arena/blue/"), snapshot.completeSegment("arena/b", 10));
+        assertEquals(List.of("arena/blue/1", "arena/blue/2"), snapshot.completeSegment("arena/blue/", 10));
+        assertEquals(List.of(), snapshot.completeSegment("arena/x", 10));
+    }
+
+    @Test
+    void completeSegmentIgnoresCaseAndKeepsTheCaseOfTheNames() {
+        LocationSnapshot snapshot = snapshot("Arena/Red", "arena/blue", "ARENA2");
+
+        assertEquals(List.of("arena/", "ARENA2"), snapshot.completeSegment("AR", 10));
+        assertEquals(List.of("arena/blue", "Arena/Red"), snapshot.completeSegment("ARENA/", 10));
+    }
+
+    @Test
+    void completeSegmentStopsAtTheLimit() {
+        LocationSnapshot snapshot = snapshot("a/1", "a/2", "b", "c/1", "d");
+
+        assertEquals(List.of("a/", "b"), snapshot.completeSegment("", 2));
+    }
+
+    @Test
+    void randomMemberOnlyPicksMembers() {
+        LocationSnapshot snapshot = snapshot("arena", "arena/red", "arena/blue", "arena2/red");
+        Random random = new Random(7);
+
+        Set<String> picked = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            picked.add(snapshot.randomMember("arena", random).getName());
+        }
+        assertEquals(Set.of("arena/red", "arena/blue"), picked);
+        assertNull(snapshot.randomMember("lobby", random));
+    }
+
+    @Test
+    void validPaths() {
+        assertTrue(LocationSnapshot.isValidPath("arena"));
+        assertTrue(LocationSnapshot.isValidPath("world/arena/red"));
+        assertFalse(LocationSnapshot.isValidPath(""));
+        assertFalse(LocationSnapshot.isValidPath("/arena"));
+        assertFalse(LocationSnapshot.isValidPath("arena/"));
+        assertFalse(LocationSnapshot.isValidPath("arena//red"));
+    }
+
+    @Test
+    void incrementalChangesKeepTheGroupsContiguous() {
+        LocationSnapshot snapshot = snapshot("arena/red", "lobby")
+                .with(location("Arena/Blue"))
+                .with(location("arena2"))
+                .without("arena/red")
+                .withAll(List.of(location("arena/green"), location("arena-x"), location("ARENA/Yellow")));
+
+        assertEquals(List.of("Arena/Blue", "arena/green", "ARENA/Yellow"), snapshot.group("arena"));
+        assertEquals(List.of("arena-x", "Arena/Blue", "arena/green", "ARENA/Yellow", "arena2", "lobby"),
+                snapshot.sortedNames());
+    }
+
+    private static LocationSnapshot snapshot(String... names) {
+        List<LocationBuilder> locations = new ArrayList<>();
+        for (String name : names) {
+            locations.add(location(name));
+        }
+        return LocationSnapshot.EMPTY.withAll(locations);
+    }
+
+    private static LocationBuilder location(String name) {
+        return new LocationBuilder(name, "world", null, 0, 64, 0, 0f, 0f);
+    }
+}
@@ -0,0 +1,154 @@
+package akia.spawnManager.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryLocationCodecTest {
+
+    /**
+     * The size of the header and of a record, which are part of the format on disk.
+     */
+    private static final int HEADER_SIZE = 22;
+    private static final int RECORD_SIZE = 56;
+
+    private static final UUID WORLD_ID = UUID.fromString("5f1e6c3a-9b0d-4c2e-8f7a-1d2b3c4d5e6f");
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void roundTripKeepsEveryField() throws IOException {
+        List<StoredLocation> locations = List.of(
+                new StoredLocation("spawn", "world", WORLD_ID, 0.5, 64, -0.5, 90f, -12.5f),
+                new StoredLocation("arena/red", "world", WORLD_ID, -1e7, 320, 3e7, 180f, 90f),
+                new StoredLocation("nether", "world_nether", new UUID(-1L, 1L), 1.25, -64, 8, -180f, 0f));
+
+        assertEquals(locations, roundTrip(locations));
+    }
+
+    @Test
+    void roundTripKeepsNonAsciiNames() throws IOException {
+        List<StoredLocation> locations = List.of(
+                new StoredLocation("Forêt/Entrée", "monde_été", WORLD_ID, 1, 2, 3, 0f, 0f),
+                new StoredLocation("城/広場", "world", WORLD_ID, 4, 5, 6, 0f, 0f),
+                new StoredLocation("🏠", "world", WORLD_ID, 7, 8, 9, 0f, 0f));
+
+        assertEquals(locations, roundTrip(locations));
+    }
+
+    @Test
+    void roundTripKeepsLocationsWithoutWorldId() throws IOException {
+        List<StoredLocation> locations = List.of(
+                new StoredLocation("old", "world", null, 1, 2, 3, 4f, 5f),
+                new StoredLocation("new", "world", WORLD_ID, 1, 2, 3, 4f, 5f));
+
+        List<StoredLocation> decoded = roundTrip(locations);
+
+        assertEquals(locations, decoded);
+        assertNull(decoded.get(0).worldId());
+    }
+
+    @Test
+    void roundTripOfAnEmptyRegistry() throws IOException {
+        byte[] encoded = BinaryLocationCodec.encode(List.of());
+
+        assertEquals(HEADER_SIZE, encoded.length);
+        assertEquals(List.of(), decode(encoded));
+    }
+
+    @Test
+    void recordsHaveAFixedWidthAndShareTheirStrings() {
+        List<StoredLocation> locations = List.of(
+                new StoredLocation("a", "world", WORLD_ID, 1, 2, 3, 0f, 0f),
+                new StoredLocation("é", "world", null, 1, 2, 3, 0f, 0f));
+
+        byte[] encoded = BinaryLocationCodec.encode(locations);
+
+        // "world" n'est écrit qu'une fois ; "é" fait deux octets en UTF-8
+        int strings = (4 + 5) + (4 + 1) + (4 + 2);
+        assertEquals(HEADER_SIZE + 2 * RECORD_SIZE + strings, encoded.length);
+        ByteBuffer header = ByteBuffer.wrap(encoded);
+        assertEquals(0x534D4C42, header.getInt());
+        assertEquals(1, header.getShort());
+        assertEquals(2, header.getInt());
+        assertEquals(3, header.getInt());
+        assertEquals(HEADER_SIZE + 2 * RECORD_SIZE, header.getLong());
+    }
+
+    @Test
+    void everyTruncationIsRejected() throws IOException {
+        byte[] encoded = BinaryLocationCodec.encode(List.of(
+                new StoredLocation("spawn", "world", WORLD_ID, 1, 2, 3, 0f, 0f),
+                new StoredLocation("Forêt", "world", null, 4, 5, 6, 0f, 0f)));
+
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IOException.class, () -> decode(truncated), "fichier tronqué à " + length + " octets");
+        }
+    }
+
+    @Test
+    void foreignFilesAreRejected() {
+        byte[] yaml = "locations:\n  spawn:\n    world: world\n".getBytes(StandardCharsets.UTF_8);
+        byte[] cooldowns = ByteBuffer.allocate(HEADER_SIZE).putInt(0x534D4344).putShort((short) 1).array();
+
+        assertThrows(IOException.class, () -> decode(yaml));
+        assertThrows(IOException.class, () -> decode(cooldowns));
+        assertThrows(IOException.class, () -> decode(new byte[0]));
+    }
+
+    @Test
+    void unknownVersionsAreRejected() {
+        byte[] encoded = BinaryLocationCodec.encode(List.of());
+        ByteBuffer.wrap(encoded).putShort(4, (short) 2);
+
+        assertThrows(IOException.class, () -> decode(encoded));
+    }
+
+    @Test
+    void corruptIndexesAndLengthsAreRejected() {
+        List<StoredLocation> locations = List.of(new StoredLocation("spawn", "world", WORLD_ID, 1, 2, 3, 0f, 0f));
+        int nameIndex = HEADER_SIZE + 8 + 8 + 4;
+        int firstString = HEADER_SIZE + RECORD_SIZE;
+
+        byte[] badIndex = BinaryLocationCodec.encode(locations);
+        ByteBuffer.wrap(badIndex).putInt(nameIndex, 7);
+        byte[] negativeLength = BinaryLocationCodec.encode(locations);
+        ByteBuffer.wrap(negativeLength).putInt(firstString, -1);
+        byte[] hugeLength = BinaryLocationCodec.encode(locations);
+        ByteBuffer.wrap(hugeLength).putInt(firstString, Integer.MAX_VALUE);
+        byte[] hugeStringCount = BinaryLocationCodec.encode(locations);
+        ByteBuffer.wrap(hugeStringCount).putInt(10, Integer.MAX_VALUE);
+        byte[] badOffset = BinaryLocationCodec.encode(locations);
+        ByteBuffer.wrap(badOffset).putLong(14, HEADER_SIZE);
+
+        assertThrows(IOException.class, () -> decode(badIndex));
+        assertThrows(IOException.class, () -> decode(negativeLength));
+        assertThrows(IOException.class, () -> decode(hugeLength));
+        assertThrows(IOException.class, () -> decode(hugeStringCount));
+        assertThrows(IOException.class, () -> decode(badOffset));
+    }
+
+    private List<StoredLocation> roundTrip(List<StoredLocation> locations) throws IOException {
+        return decode(BinaryLocationCodec.encode(locations));
+    }
+
+    private List<StoredLocation> decode(byte[] content) throws IOException {
+        Path file = folder.resolve("locations.bin");
+        Files.write(file, content);
+        return BinaryLocationCodec.decode(file);
+    }
+}